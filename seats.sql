@@ -17,6 +17,7 @@ CREATE TABLE reservations (
                               updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                               UNIQUE KEY uq_seat_reservation (seat_id),
                               INDEX idx_user (user_id),
+                              INDEX idx_status_updated (status, updated_at),
                               FOREIGN KEY (seat_id) REFERENCES seats(seat_id)
 );
 
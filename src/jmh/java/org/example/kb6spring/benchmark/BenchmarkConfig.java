@@ -0,0 +1,132 @@
+package org.example.kb6spring.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import redis.embedded.RedisServer;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * 벤치마크용 설정 - TestConfig 와 같은 빈 구성을 로컬 대체 환경에 연결
+ * MySQL 대신 H2(MySQL 모드), Redis 대신 내장 Redis 를 사용한다.
+ */
+@Configuration
+@ComponentScan(basePackages = {
+        "org.example.kb6spring.service.stock",
+        "org.example.kb6spring.repository.stock",
+        "org.example.kb6spring.domain.stock",
+        "org.example.kb6spring.util.redis"
+})
+@EnableJpaRepositories(basePackages = {"org.example.kb6spring.repository.stock"})
+@EnableTransactionManagement
+public class BenchmarkConfig {
+    // 로컬에서 실행 중인 Redis 와 겹치지 않는 포트
+    static final int REDIS_PORT = 6390;
+    // 낙관/비관락 경합 시 커넥션 대기가 결과를 왜곡하지 않도록 넉넉히
+    private static final int POOL_SIZE = 64;
+
+    @Bean
+    public DataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName("org.h2.Driver");
+        config.setJdbcUrl("jdbc:h2:mem:stock;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(POOL_SIZE);
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean emf = new LocalContainerEntityManagerFactoryBean();
+        emf.setDataSource(dataSource);
+        emf.setPackagesToScan("org.example.kb6spring.domain.stock");
+        emf.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        emf.setJpaProperties(additionalProperties());
+        return emf;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
+        return new JpaTransactionManager(emf);
+    }
+
+    private Properties additionalProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.setProperty("hibernate.hbm2ddl.auto", "create");
+        properties.setProperty("hibernate.show_sql", "false");
+
+        // TestConfig 와 동일한 동시성 설정
+        properties.setProperty("hibernate.connection.isolation", "2"); // READ_COMMITTED
+        properties.setProperty("hibernate.jdbc.batch_size", "20");
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+
+        return properties;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public RedisServer redisServer() throws IOException {
+        return new RedisServer(REDIS_PORT);
+    }
+
+    @Bean
+    @DependsOn("redisServer")
+    public RedisConnectionFactory redisConnectionFactory() {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory("localhost", REDIS_PORT);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    @Bean
+    public RedisTemplate<String, String> redisTemplate() {
+        RedisTemplate<String, String> template = new RedisTemplate<>();
+        template.setConnectionFactory(redisConnectionFactory());
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(new StringRedisSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory());
+        return container;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @DependsOn("redisServer")
+    public RedisClient redisClient() {
+        return RedisClient.create(RedisURI.create("localhost", REDIS_PORT));
+    }
+
+    @Bean(destroyMethod = "close")
+    public StatefulRedisConnection<String, String> redisAsyncConnection() {
+        return redisClient().connect();
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.kb6spring.benchmark;
+
+import org.example.kb6spring.domain.stock.Stock;
+import org.example.kb6spring.dto.stock.StockStrategyStatsDto;
+import org.example.kb6spring.service.stock.StockAsyncRedisService;
+import org.example.kb6spring.service.stock.StockDecrementStrategy;
+import org.example.kb6spring.service.stock.StockShardManager;
+import org.example.kb6spring.service.stock.StockService;
+import org.example.kb6spring.service.stock.StockStrategyRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * 재고 감소 전략별 처리량/지연시간 벤치마크
+ * - strategy: StockStrategyRegistry 에 등록된 전략 이름, 또는 비동기 경로(redis_direct_async / redis_async)
+ * - contention: hot = 모든 스레드가 재고 1개에 몰림, spread = SPREAD_STOCK_COUNT 개에 분산
+ * - 스레드 수는 threads1 / threads8 / threads32 메서드로 구분
+ * 재고가 소진되지 않도록 충분한 수량으로 시작하고 반복(iteration)마다 다시 채운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockDecrementBenchmark {
+    private static final int SPREAD_STOCK_COUNT = 64;
+    private static final int INITIAL_QUANTITY = 1_000_000_000;
+    private static final String STOCK_PREFIX = "stock:quantity:";
+    // 비동기 락 경로의 최대 대기 시간
+    private static final long ASYNC_LOCK_WAIT_MS = 1000;
+
+    @Param({"none", "optimistic", "optimistic_retry", "pessimistic", "atomic", "coalescing", "mailbox",
+            "local_ledger", "redis", "redis_retry", "redis_direct", "redis_stream", StockStrategyRegistry.SHARDED_STRATEGY,
+            StockAsyncRedisService.DIRECT_ASYNC, StockAsyncRedisService.LOCK_ASYNC})
+    public String strategy;
+
+    @Param({"hot", "spread"})
+    public String contention;
+
+    private AnnotationConfigApplicationContext context;
+    private StockService stockService;
+    private RedisTemplate<String, String> redisTemplate;
+    private StockStrategyRegistry registry;
+    private StockDecrementStrategy decrementStrategy;
+    private Long[] stockIds;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        stockService = context.getBean(StockService.class);
+        redisTemplate = context.getBean("redisTemplate", RedisTemplate.class);
+        registry = context.getBean(StockStrategyRegistry.class);
+        decrementStrategy = resolve(context.getBean(StockAsyncRedisService.class));
+
+        int count = "hot".equals(contention) ? 1 : SPREAD_STOCK_COUNT;
+        stockIds = new Long[count];
+        for (int i = 0; i < count; i++) {
+            Stock stock = stockService.createStock("Benchmark " + contention + " " + i, INITIAL_QUANTITY);
+            stockIds[i] = stock.getId();
+            // 분할 카운터 전략은 분할 전환된 재고에서만 동작
+            if (StockStrategyRegistry.SHARDED_STRATEGY.equals(strategy)) {
+                stockService.promoteToShards(stock.getId(), StockShardManager.DEFAULT_SHARD_COUNT);
+            }
+        }
+    }
+
+    // 반복마다 DB/Redis 재고를 같은 상태로 맞춤
+    @Setup(Level.Iteration)
+    public void refill() {
+        for (Long stockId : stockIds) {
+            stockService.resetStock(stockId, INITIAL_QUANTITY);
+            redisTemplate.opsForValue().set(STOCK_PREFIX + stockId, String.valueOf(INITIAL_QUANTITY));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // 처리량만으로는 실패 비율을 알 수 없으므로 성공/충돌 수를 함께 출력
+        for (StockStrategyStatsDto stats : registry.getStats()) {
+            if (stats.getStrategy().equals(strategy)) {
+                System.out.printf("%n[%s/%s] success=%d, rejected=%d, conflicts=%d, errors=%d%n",
+                        strategy, contention, stats.getSuccess(), stats.getRejected(),
+                        stats.getConflicts(), stats.getErrors());
+            }
+        }
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads1(Blackhole blackhole) {
+        decrease(blackhole);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void threads8(Blackhole blackhole) {
+        decrease(blackhole);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void threads32(Blackhole blackhole) {
+        decrease(blackhole);
+    }
+
+    // 비동기 경로는 레지스트리에 없으므로 완료까지 기다리는 전략으로 감싸서 측정
+    private StockDecrementStrategy resolve(StockAsyncRedisService asyncService) {
+        if (StockAsyncRedisService.DIRECT_ASYNC.equals(strategy)) {
+            return blocking(strategy, (id, q) -> asyncService.decreaseStockWithRedisDirectAsync(id, q).join());
+        }
+        if (StockAsyncRedisService.LOCK_ASYNC.equals(strategy)) {
+            return blocking(strategy, (id, q) -> asyncService.decreaseStockWithRedisLockAsync(id, q, ASYNC_LOCK_WAIT_MS).join());
+        }
+        return registry.get(strategy);
+    }
+
+    private static StockDecrementStrategy blocking(String name, BiConsumer<Long, Integer> action) {
+        return new StockDecrementStrategy() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void decrease(Long stockId, Integer quantity) {
+                action.accept(stockId, quantity);
+            }
+        };
+    }
+
+    private void decrease(Blackhole blackhole) {
+        Long stockId = stockIds.length == 1
+                ? stockIds[0]
+                : stockIds[ThreadLocalRandom.current().nextInt(stockIds.length)];
+        try {
+            decrementStrategy.decrease(stockId, 1);
+        } catch (RuntimeException e) {
+            // 락 획득 실패/충돌도 해당 전략의 비용으로 측정
+            blackhole.consume(e);
+        }
+    }
+}
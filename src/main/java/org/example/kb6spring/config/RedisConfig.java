@@ -1,22 +1,26 @@
 package org.example.kb6spring.config;
 
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
     // Redis
-//    @Value("${redis.host}") String redisHost;
-//    @Value("${redis.port}") int redisPort;
+    @Value("${redis.host:localhost}") String redisHost;
+    @Value("${redis.port:6379}") int redisPort;
 
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
-        return new LettuceConnectionFactory("localhost", 6379);
+        return new LettuceConnectionFactory(redisHost, redisPort);
     }
 
     @Bean
@@ -48,4 +52,24 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    // Redis pub/sub 구독 컨테이너 (락 해제 알림, 캐시 무효화 등에서 공용)
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory());
+        return container;
+    }
+
+    // Lettuce 비동기 커넥션 (하나의 커넥션으로 여러 요청을 멀티플렉싱) - 커넥션 팩토리와 같은 서버에 연결
+    @Bean(destroyMethod = "shutdown")
+    public RedisClient redisClient() {
+        LettuceConnectionFactory factory = (LettuceConnectionFactory) redisConnectionFactory();
+        return RedisClient.create(RedisURI.create(factory.getHostName(), factory.getPort()));
+    }
+
+    @Bean(destroyMethod = "close")
+    public StatefulRedisConnection<String, String> redisAsyncConnection() {
+        return redisClient().connect();
+    }
 }
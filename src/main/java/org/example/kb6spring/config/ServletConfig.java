@@ -1,6 +1,10 @@
 package org.example.kb6spring.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewResolverRegistry;
@@ -8,12 +12,18 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 import org.springframework.web.servlet.view.JstlView;
 
+import java.util.List;
+
 @EnableWebMvc
 @ComponentScan(basePackages = {"org.example.kb6spring.controller",  "org.example.kb6spring.exception"})
 public class ServletConfig implements WebMvcConfigurer {
     // 웹 관련 Bean 은 ServletConfig 에서 등록 합니다
     // @Controller, @RestController 등
 
+    // 루트 컨텍스트(RootConfig)의 ObjectMapper
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry
@@ -45,4 +55,14 @@ public class ServletConfig implements WebMvcConfigurer {
         bean.setSuffix(".jsp");
         registry.viewResolver(bean);
     }
+
+    // JSON 응답도 루트 컨텍스트의 ObjectMapper 로 직렬화 (미리 직렬화하는 응답과 형식을 맞춤)
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2HttpMessageConverter) {
+                ((MappingJackson2HttpMessageConverter) converter).setObjectMapper(objectMapper);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package org.example.kb6spring.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +13,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -26,7 +30,8 @@ import java.util.Properties;
 @ComponentScan(basePackages = {
         "org.example.kb6spring.service.stock",
         "org.example.kb6spring.repository.stock",
-        "org.example.kb6spring.domain.stock"
+        "org.example.kb6spring.domain.stock",
+        "org.example.kb6spring.util.redis"
 })
 @EnableJpaRepositories(basePackages = {"org.example.kb6spring.repository"})
 @EnableTransactionManagement
@@ -99,4 +104,22 @@ public class TestConfig {
         return template;
 
     }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory());
+        return container;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public RedisClient redisClient() {
+        LettuceConnectionFactory factory = (LettuceConnectionFactory) redisConnectionFactory();
+        return RedisClient.create(RedisURI.create(factory.getHostName(), factory.getPort()));
+    }
+
+    @Bean(destroyMethod = "close")
+    public StatefulRedisConnection<String, String> redisAsyncConnection() {
+        return redisClient().connect();
+    }
 }
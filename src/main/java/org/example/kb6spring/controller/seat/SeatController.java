@@ -6,10 +6,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.kb6spring.domain.seat.SeatVo;
 import org.example.kb6spring.dto.seat.SeatDto;
+import org.example.kb6spring.service.seat.SeatMapCache;
 import org.example.kb6spring.service.seat.SeatService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -22,9 +28,26 @@ import java.util.List;
 @RequestMapping("/seat")
 public class SeatController {
     private final SeatService seatService;
+    private final SeatMapCache seatMapCache;
 
+    // 메모리 배치도에서 미리 직렬화한 응답 반환 (DB 조회 없음), 변경이 없으면 304
     @GetMapping("/all")
-    public List<SeatDto> findAllSeatsWithReservation() {
+    public ResponseEntity<byte[]> findAllSeatsWithReservation(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        SeatMapCache.Snapshot snapshot = seatMapCache.snapshot();
+        if (ifNoneMatch != null && ifNoneMatch.contains(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
+    }
+
+    // DB 에서 직접 조회 (캐시 확인용, ADMIN 전용 - 캐시를 거치지 않는 전체 조회)
+    @GetMapping("/all/db")
+    public List<SeatDto> findAllSeatsWithReservationFromDb() {
         return seatService.findAllSeatsWithReservation();
     }
 
@@ -3,10 +3,12 @@ package org.example.kb6spring.controller.seat;
 import io.swagger.annotations.Api;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.domain.seat.SeatClaimResult;
 import org.example.kb6spring.domain.seat.SeatReservationVo;
 import org.example.kb6spring.service.seat.SeatReservationService;
+import org.example.kb6spring.service.seat.SeatUpdateBroadcaster;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.web.bind.annotation.*;
 
 @Api(tags = "SeatReservation 컨트롤러")
@@ -16,30 +18,46 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/reservation")
 public class SeatReservationController {
     private final SeatReservationService seatReservationService;
-    private final SimpMessageSendingOperations messagingTemplate;
+    private final SeatUpdateBroadcaster seatUpdateBroadcaster;
 
     @PostMapping("/pending")
     public ResponseEntity<SeatReservationVo> makePending(@RequestBody SeatReservationVo reservation) {
-        seatReservationService.makePending(reservation);
-
-        messagingTemplate.convertAndSend("/topic/seats/update", reservation);
+        SeatClaimResult result;
+        try {
+            result = seatReservationService.makePending(reservation);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (result == SeatClaimResult.UNAVAILABLE) {
+            // 이미 보류/예약된 좌석 - 상태 변화가 없으므로 알림도 보내지 않음
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        seatUpdateBroadcaster.publish(reservation.getSeatId(), reservation.getStatus(), reservation.getUserId());
 
         return ResponseEntity.ok(reservation);
     }
 
     @PostMapping("/reserve")
     public ResponseEntity<SeatReservationVo> makeReservation(@RequestBody SeatReservationVo reservation) {
-
-        seatReservationService.confirmReservation(reservation);
-        messagingTemplate.convertAndSend("/topic/seats/update", reservation);
+        try {
+            seatReservationService.confirmReservation(reservation);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            // 보류가 만료됐거나 다른 사용자의 좌석
+            log.info("예약 확정 실패 - seatId: {}, 사유: {}", reservation.getSeatId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        seatUpdateBroadcaster.publish(reservation.getSeatId(), reservation.getStatus(), reservation.getUserId());
         return ResponseEntity.ok(reservation);
     }
 
     @PutMapping("/update")
     public void updateReservation(@RequestBody SeatReservationVo reservation) {
-        messagingTemplate.convertAndSend("/topic/seats/update", reservation);
-
         seatReservationService.updateReservationStatus(reservation);
+
+        seatUpdateBroadcaster.publish(reservation.getSeatId(), reservation.getStatus(), reservation.getUserId());
     }
 
 }
@@ -0,0 +1,50 @@
+package org.example.kb6spring.controller.stock;
+
+import io.swagger.annotations.Api;
+import lombok.RequiredArgsConstructor;
+import org.example.kb6spring.dto.stock.StockMovementDto;
+import org.example.kb6spring.service.stock.StockMovementLog;
+import org.example.kb6spring.service.stock.StockSnapshotter;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Api(tags = "재고 변동 이력 컨트롤러")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/stock/history")
+public class StockHistoryController {
+    private final StockMovementLog stockMovementLog;
+    private final StockSnapshotter stockSnapshotter;
+
+    // 특정 시점의 재고 수량 (at 생략 시 현재)
+    // GET, http://localhost:8080/stock/history/1?at=2024-01-01T12:00:00
+    @GetMapping("/{stockId}")
+    public ResponseEntity<Integer> quantityAt(@PathVariable("stockId") Long stockId,
+                                              @RequestParam(value = "at", required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        Integer quantity = stockSnapshotter.quantityAt(stockId, at != null ? at : LocalDateTime.now());
+        if (quantity == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(quantity);
+    }
+
+    // 최근 변동 기록
+    // GET, http://localhost:8080/stock/history/1/movements?limit=50
+    @GetMapping("/{stockId}/movements")
+    public ResponseEntity<List<StockMovementDto>> movements(@PathVariable("stockId") Long stockId,
+                                                            @RequestParam(value = "limit", defaultValue = "50") Integer limit) {
+        return ResponseEntity.ok(stockMovementLog.recent(stockId, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    // 스냅샷 즉시 생성
+    // POST, http://localhost:8080/stock/history/snapshot
+    @PostMapping("/snapshot")
+    public ResponseEntity<Integer> snapshot() {
+        return ResponseEntity.ok(stockSnapshotter.takeSnapshots());
+    }
+}
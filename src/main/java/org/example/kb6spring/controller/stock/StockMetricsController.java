@@ -0,0 +1,52 @@
+package org.example.kb6spring.controller.stock;
+
+import io.swagger.annotations.Api;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.dto.redis.RedisScriptStatsDto;
+import org.example.kb6spring.dto.stock.StockLatencySnapshotDto;
+import org.example.kb6spring.service.stock.StockInstrumentation;
+import org.example.kb6spring.util.redis.RedisScriptRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Api(tags = "재고 지연시간 계측 컨트롤러")
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/stock/metrics")
+public class StockMetricsController {
+    private final StockInstrumentation stockInstrumentation;
+    private final RedisScriptRegistry redisScriptRegistry;
+
+    // 전략/구간별 지연시간 (초기화 이후 누적)
+    // GET, http://localhost:8080/stock/metrics/latency
+    @GetMapping("/latency")
+    public ResponseEntity<List<StockLatencySnapshotDto>> latency() {
+        return ResponseEntity.ok(stockInstrumentation.snapshot());
+    }
+
+    // 전략/구간별 지연시간 (직전 interval 조회 이후, 조회 시 새 구간 시작)
+    // GET, http://localhost:8080/stock/metrics/latency/interval
+    @GetMapping("/latency/interval")
+    public ResponseEntity<List<StockLatencySnapshotDto>> interval() {
+        return ResponseEntity.ok(stockInstrumentation.intervalSnapshot());
+    }
+
+    // POST, http://localhost:8080/stock/metrics/latency/reset
+    @PostMapping("/latency/reset")
+    public ResponseEntity<Void> reset() {
+        stockInstrumentation.reset();
+        log.info("재고 지연시간 계측 초기화");
+        return ResponseEntity.noContent().build();
+    }
+
+    // Lua 스크립트별 호출/NOSCRIPT 재전송/실패 수
+    // GET, http://localhost:8080/stock/metrics/scripts
+    @GetMapping("/scripts")
+    public ResponseEntity<List<RedisScriptStatsDto>> scripts() {
+        return ResponseEntity.ok(redisScriptRegistry.stats());
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.kb6spring.controller.stock;
+
+import io.swagger.annotations.Api;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.exception.stock.StockOverloadedException;
+import org.example.kb6spring.service.stock.StockAdmissionController;
+import org.example.kb6spring.service.stock.StockService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@Api(tags = "재고 일괄 주문 컨트롤러")
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/stock/order")
+public class StockOrderController {
+    private final StockService stockService;
+    private final StockAdmissionController stockAdmissionController;
+
+    // 장바구니 재고 일괄 감소 (전부 성공 또는 전부 실패)
+    // 트랜잭션(커넥션)을 잡기 전에 동시 처리 한도를 확인하고, 넘으면 429
+    // POST, http://localhost:8080/stock/order?mode=redis  body: {"1": 2, "3": 1}
+    @PostMapping(produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<String> order(@RequestBody Map<Long, Integer> quantities,
+                                        @RequestParam(value = "mode", defaultValue = "db") String mode) {
+        try {
+            if ("redis".equalsIgnoreCase(mode)) {
+                stockAdmissionController.run("order_redis", () -> stockService.decreaseStocksWithRedis(quantities));
+            } else if ("db".equalsIgnoreCase(mode)) {
+                stockAdmissionController.run("order_db", () -> stockService.decreaseStocks(quantities));
+            } else {
+                return ResponseEntity.badRequest().body("Unknown mode: " + mode);
+            }
+            return ResponseEntity.ok("재고 일괄 감소 완료");
+        } catch (StockOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.kb6spring.controller.stock;
+
+import io.swagger.annotations.Api;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.dto.stock.StockHoldDto;
+import org.example.kb6spring.exception.stock.StockHoldNotFoundException;
+import org.example.kb6spring.service.stock.StockService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Api(tags = "재고 선점 컨트롤러")
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/stock/reservation")
+public class StockReservationController {
+    private final StockService stockService;
+
+    // 재고 선점 (ttl 이 지나면 자동 해제)
+    // POST, http://localhost:8080/stock/reservation/1?quantity=1&ttlMillis=600000
+    @PostMapping("/{stockId}")
+    public ResponseEntity<?> reserve(@PathVariable("stockId") Long stockId,
+                                     @RequestParam(value = "quantity", defaultValue = "1") Integer quantity,
+                                     @RequestParam(value = "ttlMillis", defaultValue = "600000") Long ttlMillis) {
+        try {
+            StockHoldDto hold = stockService.reserveStock(stockId, quantity, ttlMillis);
+            return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 선점 확정 (DB 반영)
+    // POST, http://localhost:8080/stock/reservation/hold/{holdId}/commit
+    @PostMapping(value = "/hold/{holdId}/commit", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<String> commit(@PathVariable("holdId") String holdId) {
+        try {
+            stockService.commitReservation(holdId);
+            return ResponseEntity.ok("선점 확정 완료");
+        } catch (StockHoldNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+        }
+    }
+
+    // 선점 해제
+    // DELETE, http://localhost:8080/stock/reservation/hold/{holdId}
+    @DeleteMapping("/hold/{holdId}")
+    public ResponseEntity<Void> release(@PathVariable("holdId") String holdId) {
+        return stockService.releaseReservation(holdId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.GONE).build();
+    }
+}
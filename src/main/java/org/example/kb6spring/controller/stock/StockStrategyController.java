@@ -0,0 +1,182 @@
+package org.example.kb6spring.controller.stock;
+
+import io.swagger.annotations.Api;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.dto.stock.StockAdmissionStatsDto;
+import org.example.kb6spring.dto.stock.StockStrategyStatsDto;
+import org.example.kb6spring.exception.stock.StockLockException;
+import org.example.kb6spring.exception.stock.StockOverloadedException;
+import org.example.kb6spring.service.stock.StockAdmissionController;
+import org.example.kb6spring.service.stock.StockAsyncRedisService;
+import org.example.kb6spring.service.stock.StockContentionTracker;
+import org.example.kb6spring.service.stock.StockService;
+import org.example.kb6spring.service.stock.StockShardManager;
+import org.example.kb6spring.service.stock.StockStrategyRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Api(tags = "재고 감소 전략 컨트롤러")
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/stock/strategy")
+public class StockStrategyController {
+    private final StockService stockService;
+    private final StockStrategyRegistry stockStrategyRegistry;
+    private final StockContentionTracker stockContentionTracker;
+    private final StockAsyncRedisService stockAsyncRedisService;
+    private final StockShardManager stockShardManager;
+    private final StockAdmissionController stockAdmissionController;
+
+    // 등록된 전략 목록
+    // GET, http://localhost:8080/stock/strategy
+    @GetMapping
+    public ResponseEntity<List<String>> strategies() {
+        return ResponseEntity.ok(stockStrategyRegistry.getNames());
+    }
+
+    // 전략별 지연시간/경합 통계
+    // GET, http://localhost:8080/stock/strategy/stats
+    @GetMapping("/stats")
+    public ResponseEntity<List<StockStrategyStatsDto>> stats() {
+        return ResponseEntity.ok(stockStrategyRegistry.getStats());
+    }
+
+    // 전략별 동시 처리 한도/부하 차단 현황
+    // GET, http://localhost:8080/stock/strategy/admission
+    @GetMapping("/admission")
+    public ResponseEntity<List<StockAdmissionStatsDto>> admission() {
+        return ResponseEntity.ok(stockAdmissionController.stats());
+    }
+
+    // POST, http://localhost:8080/stock/strategy/stats/reset
+    @PostMapping("/stats/reset")
+    public ResponseEntity<Void> resetStats() {
+        stockStrategyRegistry.resetStats();
+        return ResponseEntity.noContent().build();
+    }
+
+    // 재고별 지정 전략
+    // GET, http://localhost:8080/stock/strategy/assignments
+    @GetMapping("/assignments")
+    public ResponseEntity<Map<Long, String>> assignments() {
+        return ResponseEntity.ok(stockStrategyRegistry.getAssignments());
+    }
+
+    // 재고별 낙관락 충돌률
+    // GET, http://localhost:8080/stock/strategy/contention
+    @GetMapping("/contention")
+    public ResponseEntity<Map<Long, Double>> contention() {
+        return ResponseEntity.ok(stockContentionTracker.getConflictRates());
+    }
+
+    // 분할 카운터로 전환된 재고 (stockId -> 분할 수)
+    // GET, http://localhost:8080/stock/strategy/shards
+    @GetMapping("/shards")
+    public ResponseEntity<Map<Long, Integer>> shards() {
+        return ResponseEntity.ok(stockShardManager.getShardCounts());
+    }
+
+    // 분할 카운터 수동 전환
+    // POST, http://localhost:8080/stock/strategy/1/shards?count=8
+    @PostMapping(value = "/{stockId}/shards", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<String> promote(@PathVariable("stockId") Long stockId,
+                                          @RequestParam(value = "count", defaultValue = "" + StockShardManager.DEFAULT_SHARD_COUNT) Integer count) {
+        try {
+            if (!stockService.promoteToShards(stockId, count)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("이미 분할된 재고입니다: " + stockId);
+            }
+            return ResponseEntity.ok(stockId + " -> " + count + " shards");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 재고 수량 (분할된 재고는 분할 카운터 합계)
+    // GET, http://localhost:8080/stock/strategy/1/quantity
+    @GetMapping("/{stockId}/quantity")
+    public ResponseEntity<Integer> quantity(@PathVariable("stockId") Long stockId) {
+        return ResponseEntity.ok(stockService.getAvailableQuantity(stockId));
+    }
+
+    // 재고 전략 변경
+    // PUT, http://localhost:8080/stock/strategy/1?strategy=redis_direct
+    @PutMapping(value = "/{stockId}", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<String> assign(@PathVariable("stockId") Long stockId,
+                                         @RequestParam("strategy") String strategy) {
+        try {
+            stockStrategyRegistry.assign(stockId, strategy);
+            return ResponseEntity.ok(stockId + " -> " + strategy);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 재고 전략 초기화 (기본 전략 사용)
+    // DELETE, http://localhost:8080/stock/strategy/1
+    @DeleteMapping("/{stockId}")
+    public ResponseEntity<Void> unassign(@PathVariable("stockId") Long stockId) {
+        stockStrategyRegistry.unassign(stockId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // 지정된 전략으로 재고 감소
+    // POST, http://localhost:8080/stock/strategy/1/decrease?quantity=1
+    @PostMapping(value = "/{stockId}/decrease", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<String> decrease(@PathVariable("stockId") Long stockId,
+                                           @RequestParam(value = "quantity", defaultValue = "1") Integer quantity) {
+        try {
+            stockService.decreaseStock(stockId, quantity);
+            return ResponseEntity.ok("재고 감소 완료");
+        } catch (StockOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").body(e.getMessage());
+        } catch (StockLockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 비동기 Redis 경로로 재고 감소 (요청 스레드를 Redis 대기 동안 점유하지 않음)
+    // POST, http://localhost:8080/stock/strategy/1/decrease-async?mode=direct&quantity=1
+    @PostMapping(value = "/{stockId}/decrease-async", produces = "text/plain;charset=UTF-8")
+    public CompletableFuture<ResponseEntity<String>> decreaseAsync(
+            @PathVariable("stockId") Long stockId,
+            @RequestParam(value = "quantity", defaultValue = "1") Integer quantity,
+            @RequestParam(value = "mode", defaultValue = "direct") String mode,
+            @RequestParam(value = "waitMillis", defaultValue = "1000") Long waitMillis) {
+        CompletableFuture<?> future;
+        if ("direct".equalsIgnoreCase(mode)) {
+            future = stockAsyncRedisService.decreaseStockWithRedisDirectAsync(stockId, quantity);
+        } else if ("lock".equalsIgnoreCase(mode)) {
+            future = stockAsyncRedisService.decreaseStockWithRedisLockAsync(stockId, quantity, waitMillis);
+        } else {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Unknown mode: " + mode));
+        }
+
+        return future.handle((result, e) -> {
+            if (e == null) {
+                return ResponseEntity.ok("재고 감소 완료");
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof StockOverloadedException) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").body(cause.getMessage());
+            }
+            if (cause instanceof StockLockException) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(cause.getMessage());
+            }
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body(cause.getMessage());
+            }
+            log.error("비동기 재고 감소 실패 - ID: {}, 에러: {}", stockId, cause.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(cause.getMessage());
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.kb6spring.controller.stock;
+
+import io.swagger.annotations.Api;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.dto.stock.StockWarmupStatusDto;
+import org.example.kb6spring.service.stock.StockCacheWarmer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Api(tags = "재고 캐시 예열 컨트롤러")
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/stock/warmup")
+public class StockWarmupController {
+    private final StockCacheWarmer stockCacheWarmer;
+
+    // 적재 진행 상황
+    // GET, http://localhost:8080/stock/warmup
+    @GetMapping
+    public ResponseEntity<StockWarmupStatusDto> status() {
+        return ResponseEntity.ok(stockCacheWarmer.status());
+    }
+
+    // 적재 다시 실행 (Redis 장애 복구 후 등)
+    // POST, http://localhost:8080/stock/warmup
+    @PostMapping
+    public ResponseEntity<StockWarmupStatusDto> warmUp() {
+        if (!stockCacheWarmer.warmUpAsync()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(stockCacheWarmer.status());
+        }
+        log.info("재고 캐시 적재 요청");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(stockCacheWarmer.status());
+    }
+
+    // 준비 상태 확인 (로드밸런서/배포 스크립트용) - 첫 적재 전에는 503
+    // GET, http://localhost:8080/stock/warmup/ready
+    @GetMapping(value = "/ready", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<String> ready() {
+        if (stockCacheWarmer.isReady()) {
+            return ResponseEntity.ok("READY");
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("WARMING_UP");
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.kb6spring.domain.seat;
+
+// 좌석 보류(PENDING) 결과 - Redis 보류만 만들고 예약 행은 쓰지 않음 (행은 확정 시 생성)
+public enum SeatClaimResult {
+    CLAIMED,        // 새로 보류
+    RECLAIMED,      // 같은 사용자가 이미 보류 중인 좌석 (만료 시각은 그대로)
+    UNAVAILABLE     // 확정됐거나 다른 사용자가 보류 중인 좌석 (또는 없는 좌석)
+}
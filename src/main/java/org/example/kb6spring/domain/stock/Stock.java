@@ -17,6 +17,8 @@ public class Stock {
     private String productName;
     private Integer quantity;
     private java.time.LocalDateTime updatedAt;
+    // 분할 카운터 수 (null 이면 단일 행) - 분할된 재고의 수량은 stock_shard 합계이고, quantity 는 주기적으로 그 합계로 맞춘 값
+    private Integer shardCount;
 
     @Version
     private Long version;
@@ -0,0 +1,19 @@
+package org.example.kb6spring.domain.stock;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 로컬 원장 배치 반영 기록 (재시작 후 재반영 시 중복 차감 방지용)
+@Entity
+@Table(name = "stock_ledger_flush")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerFlush {
+    @Id
+    @Column(length = 36)
+    private String batchId;
+    private LocalDateTime appliedAt;
+}
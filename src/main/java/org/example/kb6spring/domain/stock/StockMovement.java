@@ -0,0 +1,26 @@
+package org.example.kb6spring.domain.stock;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 재고 변동 기록 (추가만 하는 로그) - 재고 변경과 같은 트랜잭션에서 INSERT
+@Entity
+@Table(name = "stock_movement", indexes = @Index(name = "idx_stock_movement_stock", columnList = "stockId, id"))
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long stockId;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private StockMovementType movementType;
+    private Integer delta;              // 변동량 (감소는 음수)
+    private Integer quantityAfter;      // 변경 후 수량 (조건부 UPDATE 처럼 모르는 경우 null)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,9 @@
+package org.example.kb6spring.domain.stock;
+
+// 재고 변동 종류 - DECREASE 는 delta 만큼 상대 변경, SET 은 quantityAfter 로 덮어쓰기
+// SHORTFALL 은 확정된 판매 중 DB 재고가 모자라 차감하지 못한 수량 (수량은 바뀌지 않음)
+public enum StockMovementType {
+    DECREASE,
+    SET,
+    SHORTFALL
+}
@@ -0,0 +1,23 @@
+package org.example.kb6spring.domain.stock;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+// 재고 분할 카운터 - 인기 상품의 수량을 shardCount 개 행으로 나눠 행 락 경합을 분산
+@Entity
+@Table(name = "stock_shard",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_shard", columnNames = {"stockId", "shardNo"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockShard {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long stockId;
+    private Integer shardNo;
+    private Integer quantity;
+}
@@ -0,0 +1,23 @@
+package org.example.kb6spring.domain.stock;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 재고 스냅샷 - lastMovementId 까지의 변동 기록을 반영한 수량 (재구성 시 이후 기록만 재생)
+@Entity
+@Table(name = "stock_snapshot", indexes = @Index(name = "idx_stock_snapshot_stock", columnList = "stockId, lastMovementId"))
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long stockId;
+    private Integer quantity;
+    private Long lastMovementId;
+    private LocalDateTime takenAt;
+}
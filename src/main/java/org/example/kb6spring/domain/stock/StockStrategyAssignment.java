@@ -0,0 +1,20 @@
+package org.example.kb6spring.domain.stock;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 재고별 지정 감소 전략 (없으면 기본 전략) - 재시작/다른 노드에서도 같은 전략을 쓰도록 저장
+@Entity
+@Table(name = "stock_strategy_assignment")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockStrategyAssignment {
+    @Id
+    private Long stockId;
+    @Column(length = 32)
+    private String strategy;
+    private LocalDateTime assignedAt;
+}
@@ -0,0 +1,32 @@
+package org.example.kb6spring.domain.stock;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Redis Stream 재고 이벤트 반영 기록 (컨슈머 재시작 후 재전달 시 중복 차감 방지용)
+@Entity
+@Table(name = "stock_stream_applied")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockStreamApplied implements Persistable<String> {
+    @Id
+    @Column(length = 36)
+    private String requestId;
+    private Long stockId;
+    private LocalDateTime appliedAt;
+
+    @Override
+    public String getId() {
+        return requestId;
+    }
+
+    // 항상 새 기록이므로 merge 전 SELECT 없이 바로 INSERT
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
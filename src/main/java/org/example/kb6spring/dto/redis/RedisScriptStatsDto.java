@@ -0,0 +1,18 @@
+package org.example.kb6spring.dto.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RedisScriptStatsDto {
+    private String name;            // 스크립트 이름
+    private String sha1;            // EVALSHA 에 쓰는 해시
+    private long invocations;       // 호출 수
+    private long reloads;           // NOSCRIPT 로 본문 재전송한 수
+    private long failures;          // 실패 수
+}
@@ -0,0 +1,28 @@
+package org.example.kb6spring.dto.seat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * /topic/seats/update 프레임 (SeatUpdateBroadcaster)
+ * <pre>
+ * {"epoch": 1760000000000, "seq": 42, "seats": [[101, "PENDING", 7], [102, "AVAILABLE", null]]}
+ * </pre>
+ * - epoch: 보낸 노드의 기동 시각. 바뀌면 seq 가 1 부터 다시 시작한다.
+ * - seq: 노드별 프레임 순번 (1 씩 증가). 마지막으로 받은 seq + 1 이 아니면 /seat/all 로 다시 동기화한다.
+ * - seats: [seatId, status, userId] 배열 목록. 구간 안에서 같은 좌석은 마지막 변경 하나만, 처음 바뀐 순서로 담긴다.
+ *   userId 는 비어 있으면 null 이고, 한 프레임에 최대 1000 좌석이다 (넘으면 다음 seq 프레임으로 나눔).
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeatUpdateFrameDto {
+    private long epoch;                 // 노드 기동 시각 - 바뀌면 seq 가 다시 시작
+    private long seq;                   // 프레임 순번 - 건너뛰면 /seat/all 로 다시 동기화
+    private List<List<Object>> seats;   // [seatId, status, userId] 목록 (좌석당 마지막 변경만)
+}
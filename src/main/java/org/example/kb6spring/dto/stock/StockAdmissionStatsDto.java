@@ -0,0 +1,21 @@
+package org.example.kb6spring.dto.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAdmissionStatsDto {
+    private String strategy;        // 전략 이름
+    private int limit;              // 현재 동시 처리 한도
+    private int inFlight;           // 처리 중 요청 수
+    private long admitted;          // 처리한 요청
+    private long shed;              // 한도 초과로 거절한 요청 (429)
+    private long overloadSignals;   // 락 타임아웃/커넥션 실패 등 과부하 신호
+    private double baselineMillis;  // 부하 없을 때 지연시간 추정 (ms)
+    private double lastMillis;      // 직전 측정 구간 평균 지연시간 (ms)
+}
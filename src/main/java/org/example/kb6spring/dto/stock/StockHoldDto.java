@@ -0,0 +1,17 @@
+package org.example.kb6spring.dto.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldDto {
+    private String holdId;          // 선점 ID (확정/해제 시 사용)
+    private Long stockId;           // 재고 ID
+    private int quantity;           // 선점 수량
+    private long expiresAt;         // 만료 시각 (epoch ms)
+}
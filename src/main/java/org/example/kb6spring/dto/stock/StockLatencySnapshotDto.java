@@ -0,0 +1,25 @@
+package org.example.kb6spring.dto.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLatencySnapshotDto {
+    private String strategy;        // 전략 이름 (전략 밖에서 호출되면 direct)
+    private String phase;           // 측정 구간
+    private long startTime;         // 구간 시작 (epoch ms)
+    private long endTime;           // 구간 끝 (epoch ms)
+    private long count;             // 샘플 수
+    private long min;               // 최소
+    private double mean;            // 평균
+    private long p50;               // 중앙값
+    private long p90;               // 90 백분위
+    private long p99;               // 99 백분위
+    private long p999;              // 99.9 백분위
+    private long max;               // 최대
+}
@@ -0,0 +1,21 @@
+package org.example.kb6spring.dto.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovementDto {
+    private Long id;                    // 기록 위치
+    private Long stockId;               // 재고 ID
+    private String type;                // DECREASE, SET
+    private Integer delta;              // 변동량
+    private Integer quantityAfter;      // 변경 후 수량 (모르면 null)
+    private LocalDateTime occurredAt;   // 커밋 시각
+}
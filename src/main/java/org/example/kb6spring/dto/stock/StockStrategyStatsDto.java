@@ -0,0 +1,23 @@
+package org.example.kb6spring.dto.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockStrategyStatsDto {
+    private String strategy;        // 전략 이름
+    private long success;           // 성공
+    private long rejected;          // 재고 부족 등 거절
+    private long conflicts;         // 락 충돌/획득 실패
+    private long errors;            // 기타 오류
+    private long count;             // 지연시간 샘플 수
+    private double meanMicros;      // 평균 (us)
+    private long p50Micros;         // 중앙값 (us)
+    private long p99Micros;         // 99 백분위 (us)
+    private long p999Micros;        // 99.9 백분위 (us)
+}
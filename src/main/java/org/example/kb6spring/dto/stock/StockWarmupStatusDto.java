@@ -0,0 +1,24 @@
+package org.example.kb6spring.dto.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockWarmupStatusDto {
+    private String state;           // IDLE, RUNNING, DONE, FAILED
+    private boolean ready;          // 첫 적재가 끝났는지 (실패해도 지연 적재로 동작하므로 true)
+    private long total;             // 적재 시작 시점의 전체 재고 수
+    private long processed;         // 읽은 행 수
+    private long loaded;            // Redis 에 새로 적재한 키 수
+    private long skipped;           // 이미 있어서 건너뛴 키 수
+    private long batches;           // 파이프라인 배치 수
+    private long startedAt;         // 시작 시각 (epoch ms)
+    private long finishedAt;        // 종료 시각 (epoch ms, 진행 중이면 0)
+    private long elapsedMs;         // 소요 시간
+    private String error;           // 마지막 실패 사유
+}
@@ -0,0 +1,8 @@
+package org.example.kb6spring.exception.stock;
+
+// 선점이 없거나 이미 만료/해제/확정됨
+public class StockHoldNotFoundException extends RuntimeException {
+    public StockHoldNotFoundException(String holdId) {
+        super("선점 정보가 없거나 만료되었습니다. holdId: " + holdId);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.kb6spring.exception.stock;
+
+// 락 획득 실패 또는 락 충돌 재시도 초과 (재고 부족과 구분하기 위한 예외)
+public class StockLockException extends RuntimeException {
+    public StockLockException(String message) {
+        super(message);
+    }
+
+    public StockLockException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
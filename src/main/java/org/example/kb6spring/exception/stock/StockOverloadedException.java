@@ -0,0 +1,13 @@
+package org.example.kb6spring.exception.stock;
+
+// 동시 처리 한도 초과로 대기 없이 거절 (과부하 시 대량 발생하므로 스택 트레이스를 만들지 않음)
+public class StockOverloadedException extends RuntimeException {
+    public StockOverloadedException(String strategy, int limit) {
+        super("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요. (전략: " + strategy + ", 동시 처리 한도: " + limit + ")");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
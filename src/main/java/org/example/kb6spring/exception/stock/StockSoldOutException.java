@@ -0,0 +1,13 @@
+package org.example.kb6spring.exception.stock;
+
+// 품절 캐시에 걸린 요청 거절 (자주 발생하므로 스택 트레이스를 만들지 않음)
+public class StockSoldOutException extends IllegalArgumentException {
+    public StockSoldOutException(Long stockId) {
+        super("재고가 부족합니다. (품절) stockId: " + stockId);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
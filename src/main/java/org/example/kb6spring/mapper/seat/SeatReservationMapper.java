@@ -3,6 +3,7 @@ package org.example.kb6spring.mapper.seat;
 import org.apache.ibatis.annotations.*;
 import org.example.kb6spring.domain.seat.SeatReservationVo;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 @Mapper
@@ -25,6 +26,48 @@ public interface SeatReservationMapper {
     @Options(useGeneratedKeys = true, keyProperty = "reservationId")
     int insertReservation(SeatReservationVo reservation);
 
+    // 확정 기록 1단계 - 예약 행이 없을 때만 생성, 이미 있으면 영향 행 0
+    // INSERT IGNORE 는 중복 외의 오류(NOT NULL 위반 등)까지 경고로 바꿔 0/기본값으로 저장하므로 사용하지 않음
+    // 같은 좌석 확정은 Redis 보류 소유자만 진행하고, 동시 실행 시에도 NOT EXISTS 조회가 잡는 공유 잠금에서 대기함
+    @Insert("INSERT INTO reservations (seat_id, user_id, status) " +
+            "SELECT #{seatId}, #{userId}, #{status} FROM DUAL " +
+            "WHERE NOT EXISTS (SELECT 1 FROM reservations WHERE seat_id = #{seatId})")
+    @Options(useGeneratedKeys = true, keyProperty = "reservationId")
+    int claimNew(SeatReservationVo reservation);
+
+    // 확정 기록 2단계 - 비어 있는(AVAILABLE/CANCELLED) 행이나 같은 사용자의 PENDING 행만 변경 (영향 행 수로 성공 여부 판단)
+    @Update("UPDATE reservations SET status = #{status}, user_id = #{userId} " +
+            "WHERE seat_id = #{seatId} " +
+            "AND (status IN ('AVAILABLE', 'CANCELLED') OR (status = 'PENDING' AND user_id = #{userId}))")
+    int claimAvailable(SeatReservationVo reservation);
+
+    // PENDING 예약 전체 조회 (만료 타이머 재등록용, idx_status_updated 사용)
+    @Select("SELECT seat_id AS seatId, user_id AS userId, reservation_id AS reservationId, updated_at AS updatedAt " +
+            "FROM reservations WHERE status = 'PENDING'")
+    List<SeatReservationVo> findPendingReservations();
+
+    // cutoff 이전에 PENDING 이 된 행 조회 (만료 타이머가 없는 행 정리용, idx_status_updated 사용)
+    @Select("SELECT seat_id FROM reservations WHERE status = 'PENDING' AND updated_at <= #{cutoff} " +
+            "ORDER BY updated_at LIMIT #{limit}")
+    List<Long> findOverduePending(@Param("cutoff") Timestamp cutoff, @Param("limit") int limit);
+
+    // 주어진 좌석 중 cutoff 이전에 PENDING 이 된 행을 잠그고 조회 (만료 UPDATE 로 실제 바뀔 행)
+    @Select({"<script>",
+            "SELECT seat_id FROM reservations ",
+            "WHERE status = 'PENDING' AND updated_at &lt;= #{cutoff} AND seat_id IN ",
+            "<foreach collection='seatIds' item='seatId' open='(' separator=',' close=')'>#{seatId}</foreach>",
+            " FOR UPDATE",
+            "</script>"})
+    List<Long> lockOverduePending(@Param("seatIds") List<Long> seatIds, @Param("cutoff") Timestamp cutoff);
+
+    // 잠근 PENDING 예약 일괄 해제
+    @Update({"<script>",
+            "UPDATE reservations SET status = 'AVAILABLE' ",
+            "WHERE status = 'PENDING' AND seat_id IN ",
+            "<foreach collection='seatIds' item='seatId' open='(' separator=',' close=')'>#{seatId}</foreach>",
+            "</script>"})
+    int expirePending(@Param("seatIds") List<Long> seatIds);
+
     // 예약 상태 수정 (예: 취소로 변경)
     @Update("UPDATE reservations SET status = #{status} " +
             "WHERE seat_id = #{seatId}")
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.kb6spring.dto.post.PostDto;
 import org.example.kb6spring.mapper.PostMapper;
+import org.example.kb6spring.util.redis.RedisKeyspaceManager;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -13,8 +14,12 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class PostRepository {
+    // 게시글 캐시 네임스페이스 - 키는 post:v<세대>:<id>
+    private static final String POST_NAMESPACE = "post";
+
     private final PostMapper postMapper;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisKeyspaceManager redisKeyspaceManager;
 
     public List<PostDto> findAll() {
         return postMapper.findAll();
@@ -35,8 +40,8 @@ public class PostRepository {
 
     public void deleteAll() {
         postMapper.deleteAll();
-        // Redis 전체 삭제
-        redisTemplate.delete(redisTemplate.keys("post:*"));
+        // Redis 전체 무효화 - 세대만 올리고 이전 세대 키는 백그라운드에서 정리
+        redisKeyspaceManager.invalidateNamespace(POST_NAMESPACE);
     }
 
     public PostDto findById(int id) {
@@ -44,7 +49,7 @@ public class PostRepository {
     }
 
     public PostDto findByIdFromRedis(int id) {
-        Object obj = redisTemplate.opsForValue().get("post:" + id);
+        Object obj = redisTemplate.opsForValue().get(postKey(id));
         if (obj instanceof PostDto) {
             return (PostDto) obj;
         }
@@ -53,6 +58,11 @@ public class PostRepository {
 
     public void save(PostDto post) {
         postMapper.saveForTest(post);
-        redisTemplate.opsForValue().set("post:" + post.getId(), post);
+        // 이전 세대 정리가 실패해도 남지 않도록 TTL 과 함께 저장
+        redisTemplate.opsForValue().set(postKey(post.getId()), post, RedisKeyspaceManager.VERSIONED_KEY_TTL);
+    }
+
+    private String postKey(Object id) {
+        return redisKeyspaceManager.versionedKey(POST_NAMESPACE, String.valueOf(id));
     }
 }
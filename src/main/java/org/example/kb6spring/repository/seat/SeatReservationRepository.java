@@ -7,7 +7,10 @@ import org.example.kb6spring.domain.seat.SeatReservationVo;
 import org.example.kb6spring.mapper.seat.SeatReservationMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.util.Collections;
 import java.util.List;
 
 @Slf4j
@@ -35,6 +38,39 @@ public class SeatReservationRepository {
         return seatReservationMapper.insertReservation(reservation);
     };
 
+    // 확정 기록 - 예약 행이 없을 때 생성, 이미 있으면 0
+    public int claimNew(SeatReservationVo reservation) {
+        // 0 이면 좌석에 예약 행이 이미 있음 - 호출하는 쪽에서 claimAvailable 로 이어감
+        return seatReservationMapper.claimNew(reservation);
+    };
+
+    // 확정 기록 - 비어 있거나 같은 사용자의 PENDING 예약 행 변경
+    public int claimAvailable(SeatReservationVo reservation) {
+        return seatReservationMapper.claimAvailable(reservation);
+    };
+
+    // PENDING 예약 전체 조회
+    public List<SeatReservationVo> findPendingReservations() {
+        return seatReservationMapper.findPendingReservations();
+    };
+
+    // cutoff 이전에 PENDING 이 된 좌석 (최대 limit 건)
+    public List<Long> findOverduePending(Timestamp cutoff, int limit) {
+        return seatReservationMapper.findOverduePending(cutoff, limit);
+    };
+
+    // 만료된 PENDING 예약 일괄 해제 - 이 UPDATE 로 실제 AVAILABLE 이 된 좌석만 반환
+    // 대상 행을 먼저 잠그므로 그 사이 확정/삭제/다른 노드가 처리한 행은 포함되지 않음
+    @Transactional
+    public List<Long> expirePending(List<Long> seatIds, Timestamp cutoff) {
+        List<Long> locked = seatReservationMapper.lockOverduePending(seatIds, cutoff);
+        if (locked.isEmpty()) {
+            return Collections.emptyList();
+        }
+        seatReservationMapper.expirePending(locked);
+        return locked;
+    };
+
     // 예약 상태 수정 (예: 취소로 변경)
     public int updateReservationStatus(SeatReservationVo reservation) {
         return seatReservationMapper.updateReservationStatus(reservation);
@@ -0,0 +1,9 @@
+package org.example.kb6spring.repository.stock;
+
+import org.example.kb6spring.domain.stock.StockLedgerFlush;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockLedgerFlushRepository extends JpaRepository<StockLedgerFlush, String> {
+}
@@ -0,0 +1,43 @@
+package org.example.kb6spring.repository.stock;
+
+import org.example.kb6spring.domain.stock.StockMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, StockMovementRepositoryCustom {
+    // afterId 이후 기록 중 settledAt 이전에 기록된 마지막 위치 (없으면 0)
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM StockMovement m WHERE m.id > :afterId AND m.occurredAt <= :settledAt")
+    long findLastIdSettled(@Param("afterId") Long afterId, @Param("settledAt") LocalDateTime settledAt);
+
+    // afterId 이후 기록이 있는지
+    boolean existsByStockIdAndIdGreaterThan(Long stockId, Long afterId);
+
+    // 구간 안에서 변동이 있었던 재고
+    @Query("SELECT DISTINCT m.stockId FROM StockMovement m WHERE m.id > :afterId AND m.id <= :untilId")
+    List<Long> findStockIdsBetween(@Param("afterId") Long afterId, @Param("untilId") Long untilId);
+
+    // 스냅샷 이후 구간의 기록 (재생용)
+    @Query("SELECT m FROM StockMovement m WHERE m.stockId = :stockId AND m.id > :afterId AND m.id <= :untilId " +
+            "ORDER BY m.id")
+    List<StockMovement> findBetween(@Param("stockId") Long stockId,
+                                    @Param("afterId") Long afterId,
+                                    @Param("untilId") Long untilId);
+
+    // 특정 시점까지의 기록 (시점 재구성용)
+    @Query("SELECT m FROM StockMovement m WHERE m.stockId = :stockId AND m.id > :afterId AND m.occurredAt <= :at " +
+            "ORDER BY m.id")
+    List<StockMovement> findAfterUntil(@Param("stockId") Long stockId,
+                                       @Param("afterId") Long afterId,
+                                       @Param("at") LocalDateTime at);
+
+    // 최근 기록
+    @Query("SELECT m FROM StockMovement m WHERE m.stockId = :stockId ORDER BY m.id DESC")
+    List<StockMovement> findRecent(@Param("stockId") Long stockId, Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package org.example.kb6spring.repository.stock;
+
+import org.example.kb6spring.domain.stock.StockMovement;
+
+import java.util.List;
+
+public interface StockMovementRepositoryCustom {
+    // 여러 변동 기록을 INSERT 한 번으로 저장 (IDENTITY 키는 JPA 배치 INSERT 가 되지 않으므로 직접 조합)
+    int insertAll(List<StockMovement> movements);
+}
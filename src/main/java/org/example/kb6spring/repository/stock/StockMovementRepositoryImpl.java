@@ -0,0 +1,42 @@
+package org.example.kb6spring.repository.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.example.kb6spring.domain.stock.StockMovement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StockMovementRepositoryImpl implements StockMovementRepositoryCustom {
+    private final EntityManager em;
+
+    @Override
+    @Transactional
+    public int insertAll(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO stock_movement (stockId, movementType, delta, quantityAfter, occurredAt) VALUES ");
+        for (int i = 0; i < movements.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, ?)");
+        }
+
+        Query query = em.createNativeQuery(sql.toString());
+        int position = 1;
+        for (StockMovement movement : movements) {
+            query.setParameter(position++, movement.getStockId());
+            query.setParameter(position++, movement.getMovementType().name());
+            query.setParameter(position++, movement.getDelta());
+            query.setParameter(position++, movement.getQuantityAfter());
+            query.setParameter(position++, movement.getOccurredAt());
+        }
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.kb6spring.repository.stock;
+
+// 재고 id/수량 프로젝션 (엔티티로 적재하지 않아 영속성 컨텍스트에 쌓이지 않음)
+public interface StockQuantityView {
+    Long getId();
+
+    Integer getQuantity();
+}
@@ -1,6 +1,7 @@
 package org.example.kb6spring.repository.stock;
 
 import org.example.kb6spring.domain.stock.Stock;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
@@ -10,10 +11,11 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.LockModeType;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StockRepository extends JpaRepository<Stock, Long> {
+public interface StockRepository extends JpaRepository<Stock, Long>, StockRepositoryCustom {
     // 비관적 락 - 읽기 락 (다른 트랜잭션에서 읽기는 가능, 쓰기는 불가능)
     @Lock(LockModeType.PESSIMISTIC_READ)
     @Query("SELECT s FROM Stock s WHERE s.id = :id")
@@ -39,9 +41,10 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
     @Query("SELECT s FROM Stock s WHERE s.id = :id")
     Optional<Stock> findByIdWithOptimisticForceIncrement(@Param("id") Long id);
 
+    // 분할된 재고(shardCount 있음)의 재고 행은 분할 합계로 덮어써지므로 상대 감소 대상에서 제외 (0 반환)
     @Modifying
     @Query("UPDATE Stock s SET s.quantity = s.quantity - :quantity " +
-            "WHERE s.id = :stockId AND s.quantity >= :quantity")
+            "WHERE s.id = :stockId AND s.quantity >= :quantity AND s.shardCount IS NULL")
     int decreaseStockAtomic(@Param("stockId") Long stockId,
                             @Param("quantity") Integer quantity);
 
@@ -49,11 +52,35 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
     @Query("UPDATE Stock s SET s.quantity = :quantity, s.updatedAt = CURRENT_TIMESTAMP WHERE s.id = :id")
     int updateStockQuantityAtomic(@Param("id") Long id, @Param("quantity") Integer quantity);
 
+    // 분할된 재고는 제외 (0 반환)
     @Modifying
     @Query("UPDATE Stock s SET s.quantity = s.quantity - :amount, s.updatedAt = CURRENT_TIMESTAMP " +
-            "WHERE s.id = :id AND s.quantity >= :amount")
+            "WHERE s.id = :id AND s.quantity >= :amount AND s.shardCount IS NULL")
     int decreaseStockByAmount(@Param("id") Long id, @Param("amount") Integer amount);
 
+    // 수량만 조회 (엔티티 적재 없이)
+    @Query("SELECT s.quantity FROM Stock s WHERE s.id = :id")
+    Optional<Integer> findQuantityById(@Param("id") Long id);
+
+    // id 기준 keyset 스크롤 (Redis 적재용) - afterId 다음부터 pageable 크기만큼 id/수량만 조회
+    // OFFSET 없이 PK 범위로 읽으므로 뒤쪽 페이지도 비용이 같고, 긴 트랜잭션/커서를 잡지 않는다
+    @Query("SELECT s.id AS id, s.quantity AS quantity FROM Stock s WHERE s.id > :afterId ORDER BY s.id")
+    List<StockQuantityView> findQuantitiesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 분할 카운터로 전환된 재고 (stockId, 분할 수)
+    @Query("SELECT s.id, s.shardCount FROM Stock s WHERE s.shardCount IS NOT NULL")
+    List<Object[]> findShardCounts();
+
+    // 분할 수 (분할되지 않은 재고는 빈 값)
+    @Query("SELECT s.shardCount FROM Stock s WHERE s.id = :id")
+    Optional<Integer> findShardCountById(@Param("id") Long id);
+
+    // 분할 카운터 합계를 재고 행에 반영 - 값이 같으면 갱신하지 않음
+    @Modifying
+    @Query("UPDATE Stock s SET s.quantity = :quantity, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.id = :id AND s.quantity <> :quantity")
+    int updateQuantityIfChanged(@Param("id") Long id, @Param("quantity") Integer quantity);
+
     // 상품명으로 조회
     Optional<Stock> findByProductName(String productName);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package org.example.kb6spring.repository.stock;
+
+import java.util.Map;
+
+public interface StockRepositoryCustom {
+    // 여러 재고를 조건부 UPDATE 한 번으로 감소 - 수량이 충분한 행만 갱신되고, 갱신된 행 수를 반환
+    // 분할된 재고의 행은 갱신하지 않음 (분할 카운터에서 따로 차감)
+    int decreaseStocksAtomic(Map<Long, Integer> quantities);
+}
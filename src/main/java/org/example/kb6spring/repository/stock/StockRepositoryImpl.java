@@ -0,0 +1,41 @@
+package org.example.kb6spring.repository.stock;
+
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class StockRepositoryImpl implements StockRepositoryCustom {
+    private final EntityManager em;
+
+    @Override
+    public int decreaseStocksAtomic(Map<Long, Integer> quantities) {
+        // id 순서로 바인딩 - PK IN 조건은 인덱스 순서로 행을 잠그므로 주문 간 데드락이 생기지 않음
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+
+        StringBuilder amount = new StringBuilder("CASE s.id");
+        for (int i = 0; i < sorted.size(); i++) {
+            amount.append(" WHEN :id").append(i).append(" THEN :qty").append(i);
+        }
+        amount.append(" ELSE 0 END");
+
+        String jpql = "UPDATE Stock s SET s.quantity = s.quantity - " + amount + ", s.updatedAt = CURRENT_TIMESTAMP " +
+                "WHERE s.id IN :ids AND s.quantity >= " + amount + " AND s.shardCount IS NULL";
+
+        Query query = em.createQuery(jpql);
+        List<Long> ids = new ArrayList<>(sorted.keySet());
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+            query.setParameter("id" + i, entry.getKey());
+            query.setParameter("qty" + i, entry.getValue());
+            i++;
+        }
+        query.setParameter("ids", ids);
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.kb6spring.repository.stock;
+
+import org.example.kb6spring.domain.stock.StockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+@Repository
+public interface StockShardRepository extends JpaRepository<StockShard, Long> {
+    // 분할 카운터 하나에서 원자적 감소 (수량이 모자라면 0 반환)
+    @Modifying
+    @Query("UPDATE StockShard s SET s.quantity = s.quantity - :amount " +
+            "WHERE s.stockId = :stockId AND s.shardNo = :shardNo AND s.quantity >= :amount")
+    int decreaseShard(@Param("stockId") Long stockId,
+                      @Param("shardNo") Integer shardNo,
+                      @Param("amount") Integer amount);
+
+    // 분할 카운터 합계 = 재고 수량
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM StockShard s WHERE s.stockId = :stockId")
+    long sumQuantity(@Param("stockId") Long stockId);
+
+    // 전체 분할 카운터 쓰기 락 - 교착 방지를 위해 항상 shardNo 순서로 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StockShard s WHERE s.stockId = :stockId ORDER BY s.shardNo")
+    List<StockShard> findAllForUpdate(@Param("stockId") Long stockId);
+
+    List<StockShard> findByStockIdOrderByShardNo(Long stockId);
+}
@@ -0,0 +1,28 @@
+package org.example.kb6spring.repository.stock;
+
+import org.example.kb6spring.domain.stock.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    // 재고별 최신 스냅샷
+    Optional<StockSnapshot> findFirstByStockIdOrderByLastMovementIdDesc(Long stockId);
+
+    // 특정 시점 이전의 최신 스냅샷
+    Optional<StockSnapshot> findFirstByStockIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(Long stockId,
+                                                                                                LocalDateTime at);
+
+    // 모든 재고의 스냅샷이 반영한 마지막 위치
+    @Query("SELECT COALESCE(MAX(s.lastMovementId), 0) FROM StockSnapshot s")
+    long findLastMovementId();
+
+    // 스냅샷이 없는 재고
+    @Query("SELECT s.id FROM Stock s WHERE NOT EXISTS (SELECT ss FROM StockSnapshot ss WHERE ss.stockId = s.id)")
+    List<Long> findStockIdsWithoutSnapshot();
+}
@@ -0,0 +1,18 @@
+package org.example.kb6spring.repository.stock;
+
+import org.example.kb6spring.domain.stock.StockStrategyAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface StockStrategyAssignmentRepository extends JpaRepository<StockStrategyAssignment, Long> {
+    // 지정 해제 (없어도 예외 없이 0 반환)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StockStrategyAssignment a WHERE a.stockId = :stockId")
+    int deleteByStockId(@Param("stockId") Long stockId);
+}
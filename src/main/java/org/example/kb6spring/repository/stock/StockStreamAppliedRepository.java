@@ -0,0 +1,20 @@
+package org.example.kb6spring.repository.stock;
+
+import org.example.kb6spring.domain.stock.StockStreamApplied;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface StockStreamAppliedRepository extends JpaRepository<StockStreamApplied, String> {
+    // 보관 기간이 지난 반영 기록 정리
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StockStreamApplied a WHERE a.appliedAt < :before")
+    int deleteAppliedBefore(@Param("before") LocalDateTime before);
+}
@@ -47,6 +47,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/user/**").permitAll()
                 .antMatchers("/oauth/**").permitAll()
                 .antMatchers("/codef/**").permitAll()
+                .antMatchers("/seat/all/db").hasRole("ADMIN")
                 .antMatchers("/seat/**").permitAll()
                 .antMatchers("/payment/**").permitAll()
                 .antMatchers("/reservation/**").permitAll()
@@ -54,6 +55,14 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/auth/admin").hasRole("ADMIN")
                 .antMatchers("/auth/member").hasAnyRole("ADMIN", "MEMBER")
                 .antMatchers("/auth/**").authenticated()
+                .antMatchers("/stock/metrics/**").hasRole("ADMIN")
+                .antMatchers("/stock/warmup/ready").permitAll()
+                .antMatchers("/stock/warmup/**").hasRole("ADMIN")
+                .antMatchers("/stock/history/**").hasRole("ADMIN")
+                .antMatchers(HttpMethod.PUT, "/stock/strategy/*").hasRole("ADMIN")
+                .antMatchers(HttpMethod.DELETE, "/stock/strategy/*").hasRole("ADMIN")
+                .antMatchers(HttpMethod.POST, "/stock/strategy/stats/reset").hasRole("ADMIN")
+                .antMatchers(HttpMethod.POST, "/stock/strategy/*/shards").hasRole("ADMIN")
                 .antMatchers("/index-test/**").permitAll()
                 .antMatchers("/index-test2/**").permitAll()
                 .antMatchers("/**").authenticated();
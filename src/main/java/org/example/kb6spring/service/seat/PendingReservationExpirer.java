@@ -0,0 +1,177 @@
+package org.example.kb6spring.service.seat;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.domain.seat.SeatReservationVo;
+import org.example.kb6spring.repository.seat.SeatReservationRepository;
+import org.example.kb6spring.util.timer.TimerWheel;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DB 에 남은 PENDING 예약 만료 (수동 상태 변경으로 PENDING 이 된 행, Redis 보류 도입 전 행)
+ * PENDING 예약마다 타이머 휠에 만료 작업을 하나씩 둔다 (등록/취소 O(1)).
+ * 만료된 좌석은 큐에 모았다가 FLUSH_INTERVAL_MS 마다 한 트랜잭션(대상 행 잠금 + UPDATE)으로 AVAILABLE 로 되돌리고,
+ * 그 UPDATE 로 실제로 바뀐 좌석만 구독자에게 알린다.
+ * 기동 시에는 (status, updated_at) 인덱스 쿼리 한 번으로 PENDING 행을 읽어 다시 등록한다.
+ * 타이머는 노드 메모리에만 있으므로 (다른 노드에서 PENDING 이 된 뒤 그 노드가 죽은 경우 등)
+ * SWEEP_INTERVAL_MS 마다 같은 인덱스로 기한이 지난 PENDING 행을 찾아 함께 만료한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PendingReservationExpirer {
+    // Redis 보류와 같은 유효 시간
+    private static final long PENDING_TTL_MS = SeatHoldEngine.HOLD_TTL_MS;
+    // DB 시각(초 단위 절삭)과 애플리케이션 시각 차이 허용
+    private static final long CLOCK_SKEW_MS = 1000;
+    private static final long FLUSH_INTERVAL_MS = 200;
+    private static final int MAX_BATCH_SIZE = 500;
+    // 타이머가 있는 노드가 먼저 처리할 수 있도록 두는 여유
+    private static final long SWEEP_GRACE_MS = 5000;
+    private static final long SWEEP_INTERVAL_MS = 30_000;
+
+    private final SeatReservationRepository seatReservationRepository;
+    private final SeatMapCache seatMapCache;
+    private final SeatUpdateBroadcaster seatUpdateBroadcaster;
+
+    // seatId -> 만료 작업
+    private final ConcurrentHashMap<Long, TimerWheel.Timeout> timers = new ConcurrentHashMap<>();
+    // 만료되어 DB 반영을 기다리는 좌석
+    private final Queue<Long> expired = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    // 만료 작업은 큐에 넣기만 하므로 휠 스레드에서 바로 실행
+    private final TimerWheel timerWheel = new TimerWheel("pending-expiry-timer", 1, TimeUnit.SECONDS, 512, Runnable::run);
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "pending-expiry-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 루트/서블릿 컨텍스트 모두 refresh 이벤트를 받으므로 한 번만 시작
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<SeatReservationVo> pending = seatReservationRepository.findPendingReservations();
+            for (SeatReservationVo reservation : pending) {
+                Timestamp since = reservation.getUpdatedAt();
+                track(reservation.getSeatId(), since != null ? since.getTime() : System.currentTimeMillis());
+            }
+            if (!pending.isEmpty()) {
+                log.info("PENDING 예약 만료 등록 - {}건", pending.size());
+            }
+        } catch (Exception e) {
+            log.error("PENDING 예약 조회 실패: {}", e.getMessage());
+        }
+        flusher.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::sweepQuietly, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+        timerWheel.stop();
+    }
+
+    // PENDING 이 된 좌석 등록 (이미 있으면 새 시각으로 교체)
+    public void track(Long seatId, long pendingSince) {
+        long delay = pendingSince + PENDING_TTL_MS - System.currentTimeMillis();
+        TimerWheel.Timeout previous = timers.put(seatId,
+                timerWheel.schedule(() -> expired.add(seatId), delay, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    // PENDING 에서 벗어난 좌석 등록 해제
+    public void untrack(Long seatId) {
+        TimerWheel.Timeout timeout = timers.remove(seatId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    public int getTrackedCount() {
+        return timers.size();
+    }
+
+    // 만료 타이머 없이 기한이 지난 PENDING 행을 만료 대기열에 넣음 - 넣은 좌석 수 반환
+    public int sweepOverdue() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - PENDING_TTL_MS - SWEEP_GRACE_MS);
+        List<Long> overdue = seatReservationRepository.findOverduePending(cutoff, MAX_BATCH_SIZE);
+        expired.addAll(overdue);
+        if (!overdue.isEmpty()) {
+            log.warn("타이머 없이 기한이 지난 PENDING 예약 - {}건", overdue.size());
+        }
+        return overdue.size();
+    }
+
+    // 만료된 좌석을 한 번에 되돌림 - 되돌린 좌석 수 반환
+    public int flush() {
+        List<Long> batch = new ArrayList<>();
+        Long seatId;
+        while (batch.size() < MAX_BATCH_SIZE && (seatId = expired.poll()) != null) {
+            timers.remove(seatId);
+            batch.add(seatId);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // 그 사이 다시 PENDING 이 된 행은 updated_at 이 바뀌어 제외됨
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - PENDING_TTL_MS + CLOCK_SKEW_MS);
+        List<Long> released;
+        try {
+            released = seatReservationRepository.expirePending(batch, cutoff);
+        } catch (RuntimeException e) {
+            // 다음 주기에 다시 시도
+            expired.addAll(batch);
+            throw e;
+        }
+        // 이 UPDATE 로 바뀐 좌석만 알림 (확정/삭제/다른 노드가 먼저 처리한 좌석 제외)
+        for (Long releasedSeatId : released) {
+            seatMapCache.apply(releasedSeatId, "AVAILABLE", null, null);
+            seatUpdateBroadcaster.publish(releasedSeatId, "AVAILABLE", null);
+        }
+        if (!released.isEmpty()) {
+            log.info("PENDING 예약 만료 - {}건", released.size());
+        }
+        return released.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            // 밀린 만료분은 이어서 처리 (바뀐 좌석이 없는 배치가 있어도 계속)
+            do {
+                flush();
+            } while (!expired.isEmpty());
+        } catch (Exception e) {
+            log.error("PENDING 예약 만료 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    private void sweepQuietly() {
+        try {
+            if (sweepOverdue() > 0) {
+                flushQuietly();
+            }
+        } catch (Exception e) {
+            log.error("PENDING 예약 정리 실패: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package org.example.kb6spring.service.seat;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.domain.seat.SeatClaimResult;
+import org.example.kb6spring.util.redis.RedisScriptRegistry;
+import org.example.kb6spring.util.timer.TimerWheel;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 좌석 보류(PENDING) 저장소
+ * 보류는 Redis 키(SET NX PX) 하나로 잡고 MySQL 에는 쓰지 않는다 - DB 에는 확정(RESERVED)된 좌석만 기록한다.
+ * 보류 키는 TTL 이 지나면 Redis 가 지우고, 만료 zset 으로 만료 시각을 따로 들고 있다가
+ * 보류한 노드의 타이머 휠(또는 그 노드가 죽었으면 sweeper)이 해제 이벤트를 발행한다.
+ * 해제 이벤트는 모든 노드가 받아 좌석 배치도 캐시와 WebSocket 구독자에게 반영한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatHoldEngine {
+    public static final String HOLD_PREFIX = "seat:hold:";
+    public static final String EXPIRY_KEY = "seat:hold:expiry";
+    public static final String RELEASED_CHANNEL = "seat:hold:released";
+    public static final long HOLD_TTL_MS = 5 * 60 * 1000L;
+    // 확정(DB 기록) 중에 보류가 만료되지 않도록 연장하는 시간
+    private static final long CONFIRM_GRACE_MS = 30_000;
+    // 다른 노드의 타이머가 먼저 처리할 수 있도록 두는 여유
+    private static final long SWEEP_GRACE_MS = 1000;
+    private static final long SWEEP_INTERVAL_MS = 5000;
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    // Lua 스크립트 - 보류 (1 보류, 0 이미 내가 보류 중, -1 다른 사용자가 보류 중)
+    private static final String HOLD_SCRIPT =
+            "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then " +
+                    "    redis.call('zadd', KEYS[2], ARGV[3], ARGV[4]) " +
+                    "    return 1 " +
+                    "end " +
+                    "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "    return 0 " +
+                    "end " +
+                    "return -1";
+
+    // Lua 스크립트 - 내 보류일 때만 TTL 연장 (확정 전)
+    private static final String TOUCH_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "    redis.call('pexpire', KEYS[1], ARGV[2]) " +
+                    "    redis.call('zadd', KEYS[2], ARGV[3], ARGV[4]) " +
+                    "    return 1 " +
+                    "end " +
+                    "return 0";
+
+    // Lua 스크립트 - 내 보류일 때만 제거 (해제/확정)
+    private static final String REMOVE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "    redis.call('del', KEYS[1]) " +
+                    "    redis.call('zrem', KEYS[2], ARGV[2]) " +
+                    "    return 1 " +
+                    "end " +
+                    "return 0";
+
+    // Lua 스크립트 - 만료 시각이 지난 보류만 정리 (다시 보류된 좌석은 만료 시각이 새로 잡혀 있어 건너뜀)
+    private static final String EXPIRE_SCRIPT =
+            "local deadline = tonumber(redis.call('zscore', KEYS[2], ARGV[1])) " +
+                    "if not deadline or deadline > tonumber(ARGV[2]) then " +
+                    "    return 0 " +
+                    "end " +
+                    "redis.call('zrem', KEYS[2], ARGV[1]) " +
+                    "redis.call('del', KEYS[1]) " +
+                    "return 1";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisScriptRegistry redisScriptRegistry;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final SeatUpdateBroadcaster seatUpdateBroadcaster;
+    private final SeatMapCache seatMapCache;
+
+    private RedisScriptRegistry.Script<Long> holdScript;
+    private RedisScriptRegistry.Script<Long> touchScript;
+    private RedisScriptRegistry.Script<Long> removeScript;
+    private RedisScriptRegistry.Script<Long> expireScript;
+
+    // 이 노드에서 잡은 보류의 만료 타이머
+    private final ConcurrentHashMap<Long, TimerWheel.Timeout> timers = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    private final ExecutorService expiryExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "seat-hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final TimerWheel timerWheel =
+            new TimerWheel("seat-hold-timer", 100, TimeUnit.MILLISECONDS, 512, expiryExecutor);
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "seat-hold-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        holdScript = redisScriptRegistry.register("seat:hold:hold", HOLD_SCRIPT, Long.class);
+        touchScript = redisScriptRegistry.register("seat:hold:touch", TOUCH_SCRIPT, Long.class);
+        removeScript = redisScriptRegistry.register("seat:hold:remove", REMOVE_SCRIPT, Long.class);
+        expireScript = redisScriptRegistry.register("seat:hold:expire", EXPIRE_SCRIPT, Long.class);
+        redisMessageListenerContainer.addMessageListener(new ReleasedListener(), new ChannelTopic(RELEASED_CHANNEL));
+    }
+
+    // 루트/서블릿 컨텍스트 모두 refresh 이벤트를 받으므로 한 번만 시작
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // 남은 보류는 다른 노드(또는 재시작 후)의 sweeper 가 만료 처리
+        sweeper.shutdownNow();
+        timerWheel.stop();
+        expiryExecutor.shutdownNow();
+    }
+
+    // 좌석 보류 - 이미 확정된 좌석이거나 다른 사용자가 보류 중이면 UNAVAILABLE (DB 조회 없음)
+    // Redis 보류가 없는 PENDING(DB 의 PENDING 행, 다른 노드의 보류)도 배치도로 걸러냄
+    public SeatClaimResult hold(Long seatId, Long userId) {
+        String status = seatMapCache.statusOf(seatId);
+        if ("RESERVED".equals(status)
+                || ("PENDING".equals(status) && !userId.equals(seatMapCache.userOf(seatId)))) {
+            return SeatClaimResult.UNAVAILABLE;
+        }
+        long expiresAt = System.currentTimeMillis() + HOLD_TTL_MS;
+        Long result = redisScriptRegistry.execute(holdScript, keys(seatId),
+                userId.toString(), String.valueOf(HOLD_TTL_MS), String.valueOf(expiresAt), seatId.toString());
+        if (result == null || result < 0) {
+            return SeatClaimResult.UNAVAILABLE;
+        }
+        if (result == 0) {
+            return SeatClaimResult.RECLAIMED;
+        }
+        scheduleExpiry(seatId, HOLD_TTL_MS);
+        return SeatClaimResult.CLAIMED;
+    }
+
+    // 확정 직전 - 내 보류인지 확인하고 DB 기록 동안 만료되지 않도록 연장
+    public boolean touch(Long seatId, Long userId) {
+        long expiresAt = System.currentTimeMillis() + CONFIRM_GRACE_MS;
+        Long result = redisScriptRegistry.execute(touchScript, keys(seatId),
+                userId.toString(), String.valueOf(CONFIRM_GRACE_MS), String.valueOf(expiresAt), seatId.toString());
+        if (result == null || result == 0) {
+            return false;
+        }
+        scheduleExpiry(seatId, CONFIRM_GRACE_MS);
+        return true;
+    }
+
+    // 확정 완료 - 보류만 제거 (좌석은 RESERVED 이므로 해제 이벤트 없음)
+    public void complete(Long seatId, Long userId) {
+        cancelTimer(seatId);
+        redisScriptRegistry.execute(removeScript, keys(seatId), userId.toString(), seatId.toString());
+    }
+
+    // 사용자 해제 - 내 보류였으면 해제 이벤트 발행
+    public boolean release(Long seatId, Long userId) {
+        cancelTimer(seatId);
+        Long removed = redisScriptRegistry.execute(removeScript, keys(seatId), userId.toString(), seatId.toString());
+        if (removed == null || removed == 0) {
+            return false;
+        }
+        publishReleased(seatId, userId);
+        return true;
+    }
+
+    private void scheduleExpiry(Long seatId, long delayMillis) {
+        TimerWheel.Timeout previous = timers.put(seatId,
+                timerWheel.schedule(() -> expire(seatId), delayMillis, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void cancelTimer(Long seatId) {
+        TimerWheel.Timeout timeout = timers.remove(seatId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void expire(Long seatId) {
+        timers.remove(seatId);
+        try {
+            Long expired = redisScriptRegistry.execute(expireScript, keys(seatId),
+                    seatId.toString(), String.valueOf(System.currentTimeMillis()));
+            if (expired != null && expired > 0) {
+                log.info("좌석 보류 만료 - seatId: {}", seatId);
+                publishReleased(seatId, null);
+            }
+        } catch (Exception e) {
+            // sweeper 가 다시 처리
+            log.warn("좌석 보류 만료 처리 실패 - seatId: {}, 에러: {}", seatId, e.getMessage());
+        }
+    }
+
+    private void publishReleased(Long seatId, Long userId) {
+        try {
+            redisTemplate.convertAndSend(RELEASED_CHANNEL, seatId + ":" + (userId != null ? userId : ""));
+        } catch (Exception e) {
+            // 다른 노드의 배치도는 주기적 재적재 때 반영
+            log.warn("좌석 해제 이벤트 발행 실패 - seatId: {}, 에러: {}", seatId, e.getMessage());
+            onReleased(seatId, userId);
+        }
+    }
+
+    // 해제 이벤트 수신 - 이 노드의 배치도 캐시와 WebSocket 구독자에게 반영
+    private void onReleased(Long seatId, Long userId) {
+        log.debug("좌석 보류 해제 - seatId: {}, userId: {}", seatId, userId);
+        // 보류한 사용자 정보가 남지 않도록 비움
+        seatMapCache.clearLocal(seatId, "AVAILABLE");
+        seatUpdateBroadcaster.publish(seatId, "AVAILABLE", null);
+    }
+
+    // 보류한 노드가 만료 처리하지 못한 보류 정리
+    private void sweepQuietly() {
+        try {
+            long limit = System.currentTimeMillis() - SWEEP_GRACE_MS;
+            Set<String> expired = redisTemplate.opsForZSet().rangeByScore(EXPIRY_KEY, 0, limit, 0, SWEEP_BATCH_SIZE);
+            if (expired == null) {
+                return;
+            }
+            for (String seatId : expired) {
+                expire(Long.valueOf(seatId));
+            }
+        } catch (Exception e) {
+            log.warn("좌석 보류 만료 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private static List<String> keys(Long seatId) {
+        return Arrays.asList(HOLD_PREFIX + seatId, EXPIRY_KEY);
+    }
+
+    private class ReleasedListener implements MessageListener {
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.indexOf(':');
+            try {
+                String userId = body.substring(separator + 1);
+                onReleased(Long.valueOf(body.substring(0, separator)), userId.isEmpty() ? null : Long.valueOf(userId));
+            } catch (RuntimeException e) {
+                log.warn("잘못된 좌석 해제 메시지: {}", body);
+            }
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package org.example.kb6spring.service.seat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.dto.seat.SeatDto;
+import org.example.kb6spring.repository.seat.SeatRepository;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 좌석 배치도 캐시 (/seat/all)
+ * 좌석 배치(구역/행/번호)는 불변 배열로, 예약 상태는 구역별 byte 배열(상태 코드)로 메모리에 둔다.
+ * 예약 쓰기 경로가 변경을 바로 반영하고 Redis pub/sub 으로 다른 노드에도 전달하며,
+ * 응답 JSON 은 내용이 바뀐 뒤 첫 조회 때 한 번만 직렬화해 ETag(본문 해시)와 함께 재사용한다 (조회 시 DB 쿼리 없음).
+ * 알림 유실에 대비해 RELOAD_INTERVAL_MS 마다 DB 에서 다시 읽고, 내용이 같으면 기존 배치도와 ETag 를 그대로 둔다.
+ * DB 조회는 락 밖에서 하고, 조회 중 들어온 변경은 새 배치도에 다시 반영한 뒤 락 안에서 교체한다.
+ * 보류(PENDING)는 DB 에 없으므로 적재 때 Redis 의 보류 키(SeatHoldEngine)를 덮어 반영한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatMapCache {
+    public static final String CHANGED_CHANNEL = "seat:map:changed";
+    private static final long RELOAD_INTERVAL_MS = 60_000;
+    // 예약 정보 없음
+    private static final long NONE = -1;
+
+    private final SeatRepository seatRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final ObjectMapper objectMapper;
+
+    // 상태 코드 <-> 상태 이름 (0 = 예약 없음) - statusNames 락 안에서만 접근
+    private final List<String> statusNames = new ArrayList<>(Arrays.asList(null, "AVAILABLE", "PENDING", "RESERVED", "CANCELLED"));
+
+    // 아래 필드는 this 락 안에서만 변경
+    private volatile Layout layout;
+    private volatile Snapshot snapshot;
+    // 재적재(DB 조회) 중 들어온 변경 - 조회 중이 아니면 null
+    private List<Change> changesDuringLoad;
+
+    // 재적재는 한 번에 하나씩 (조회/변경 반영은 막지 않음)
+    private final Object reloadLock = new Object();
+
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "seat-map-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(new ChangedListener(), new ChannelTopic(CHANGED_CHANNEL));
+        reloader.scheduleWithFixedDelay(this::reloadQuietly, RELOAD_INTERVAL_MS, RELOAD_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        reloader.shutdownNow();
+    }
+
+    // 직렬화된 좌석 목록 + ETag - 변경이 없으면 같은 스냅샷을 그대로 반환
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        ensureLoaded();
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = serialize();
+            }
+            return snapshot;
+        }
+    }
+
+    // 좌석 배치가 바뀐 경우 (좌석 생성 등) DB 에서 다시 적재 - 내용이 같으면 기존 배치도 유지
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                changesDuringLoad = new ArrayList<>();
+            }
+            try {
+                Layout loaded = load();
+                synchronized (this) {
+                    // 조회 이후 커밋된 변경은 DB 결과에 없을 수 있으므로 다시 반영
+                    for (Change change : changesDuringLoad) {
+                        write(loaded, change);
+                    }
+                    if (layout != null && layout.sameContent(loaded)) {
+                        return;
+                    }
+                    layout = loaded;
+                    snapshot = null;
+                }
+            } finally {
+                synchronized (this) {
+                    changesDuringLoad = null;
+                }
+            }
+        }
+    }
+
+    // 예약 쓰기 경로에서 커밋된 변경 반영 후 다른 노드에 전파
+    public void apply(Long seatId, String status, Long userId, Long reservationId) {
+        long reservedAt = System.currentTimeMillis();
+        applyLocal(new Change(seatId, status, userId, reservationId, reservedAt, false));
+        try {
+            redisTemplate.convertAndSend(CHANGED_CHANNEL,
+                    seatId + ":" + (status != null ? status : "") + ":" + orNone(userId) + ":" + orNone(reservationId) + ":" + reservedAt);
+        } catch (Exception e) {
+            // 전파 실패 시 다른 노드는 주기적 재적재 때 반영
+            log.warn("좌석 변경 전파 실패 - seatId: {}, 에러: {}", seatId, e.getMessage());
+        }
+    }
+
+    // 현재 좌석 상태 (배치도에 없는 좌석은 null) - 적재 전이면 먼저 적재
+    public String statusOf(Long seatId) {
+        ensureLoaded();
+        synchronized (this) {
+            Integer position = layout.positions.get(seatId);
+            if (position == null) {
+                return null;
+            }
+            return statusName(layout.sections[position >>> 16].status[position & 0xFFFF]);
+        }
+    }
+
+    // 현재 좌석의 사용자 (보류/예약한 사용자, 없으면 null)
+    public Long userOf(Long seatId) {
+        ensureLoaded();
+        synchronized (this) {
+            Integer position = layout.positions.get(seatId);
+            if (position == null) {
+                return null;
+            }
+            long user = layout.sections[position >>> 16].userIds[position & 0xFFFF];
+            return user != NONE ? user : null;
+        }
+    }
+
+    // 이 노드에만 반영 (다른 노드는 각자 같은 이벤트를 받는 경우) - userId/reservationId 가 null 이면 기존 값 유지
+    public void applyLocal(Long seatId, String status, Long userId, Long reservationId) {
+        applyLocal(new Change(seatId, status, userId, reservationId, System.currentTimeMillis(), false));
+    }
+
+    // 좌석을 비울 때 (보류 해제 등) - 사용자/예약 정보까지 지우고 이 노드에만 반영
+    public void clearLocal(Long seatId, String status) {
+        applyLocal(new Change(seatId, status, null, null, System.currentTimeMillis(), true));
+    }
+
+    private synchronized void applyLocal(Change change) {
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(change);
+        }
+        if (layout == null) {
+            // 아직 적재 전 - 첫 조회 때 DB 에서 읽음
+            return;
+        }
+        if (layout.positions.get(change.seatId) == null) {
+            log.warn("캐시에 없는 좌석 - seatId: {}", change.seatId);
+            return;
+        }
+        // 자기 노드에서 보낸 알림 등 같은 내용이면 스냅샷을 유지
+        if (write(layout, change)) {
+            snapshot = null;
+        }
+    }
+
+    // 배치도에 변경 기록 - 내용이 바뀌었으면 true
+    private boolean write(Layout target, Change change) {
+        Integer position = target.positions.get(change.seatId);
+        if (position == null) {
+            return false;
+        }
+        Section section = target.sections[position >>> 16];
+        int offset = position & 0xFFFF;
+        byte code = statusCode(change.status);
+        if (change.clear) {
+            if (section.status[offset] == code && section.userIds[offset] == NONE
+                    && section.reservationIds[offset] == NONE && section.reservedAt[offset] == NONE) {
+                return false;
+            }
+            section.status[offset] = code;
+            section.userIds[offset] = NONE;
+            section.reservationIds[offset] = NONE;
+            section.reservedAt[offset] = NONE;
+            return true;
+        }
+        long user = change.userId != null ? change.userId : section.userIds[offset];
+        long reservation = change.reservationId != null ? change.reservationId : section.reservationIds[offset];
+        if (section.status[offset] == code && section.userIds[offset] == user
+                && section.reservationIds[offset] == reservation) {
+            return false;
+        }
+        section.status[offset] = code;
+        section.userIds[offset] = user;
+        section.reservationIds[offset] = reservation;
+        // 예약 시각은 예약 행이 처음 생길 때만 (DB 의 reserved_at 과 동일)
+        if (section.reservedAt[offset] == NONE) {
+            section.reservedAt[offset] = change.reservedAt;
+        }
+        return true;
+    }
+
+    // 처음 조회될 때 한 번 적재
+    private void ensureLoaded() {
+        if (layout != null) {
+            return;
+        }
+        synchronized (reloadLock) {
+            if (layout == null) {
+                reload();
+            }
+        }
+    }
+
+    // DB + Redis 보류로 새 배치도를 만듦 (현재 배치도는 건드리지 않음)
+    private Layout load() {
+        List<SeatDto> rows = seatRepository.findAllSeatsWithReservation();
+        Map<String, List<SeatDto>> bySection = new LinkedHashMap<>();
+        for (SeatDto row : rows) {
+            bySection.computeIfAbsent(row.getSection(), key -> new ArrayList<>()).add(row);
+        }
+
+        Section[] sections = new Section[bySection.size()];
+        Map<Long, Integer> positions = new HashMap<>(rows.size() * 2);
+        int index = 0;
+        for (Map.Entry<String, List<SeatDto>> entry : bySection.entrySet()) {
+            Section section = new Section(entry.getKey(), entry.getValue().size());
+            for (int offset = 0; offset < entry.getValue().size(); offset++) {
+                SeatDto row = entry.getValue().get(offset);
+                section.seatIds[offset] = row.getSeatId();
+                section.rows[offset] = row.getSeatRow();
+                section.numbers[offset] = row.getSeatNumber();
+                section.status[offset] = statusCode(row.getStatus());
+                section.userIds[offset] = orNone(row.getUserId());
+                section.reservationIds[offset] = orNone(row.getReservationId());
+                section.reservedAt[offset] = row.getReservedAt() != null ? row.getReservedAt().getTime() : NONE;
+                positions.put(row.getSeatId(), index << 16 | offset);
+            }
+            sections[index++] = section;
+        }
+        Layout loaded = new Layout(sections, positions);
+        overlayHolds(loaded);
+        log.debug("좌석 배치도 조회 - 구역: {}개, 좌석: {}개", sections.length, rows.size());
+        return loaded;
+    }
+
+    // 만료되지 않은 Redis 보류를 PENDING 으로 반영
+    private void overlayHolds(Layout target) {
+        try {
+            Set<String> held = redisTemplate.opsForZSet()
+                    .rangeByScore(SeatHoldEngine.EXPIRY_KEY, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            if (held == null || held.isEmpty()) {
+                return;
+            }
+            List<String> seatIds = new ArrayList<>(held);
+            List<String> keys = new ArrayList<>(seatIds.size());
+            for (String seatId : seatIds) {
+                keys.add(SeatHoldEngine.HOLD_PREFIX + seatId);
+            }
+            List<String> holders = redisTemplate.opsForValue().multiGet(keys);
+            for (int i = 0; i < seatIds.size(); i++) {
+                Integer position = target.positions.get(Long.valueOf(seatIds.get(i)));
+                String holder = holders != null ? holders.get(i) : null;
+                if (position == null || holder == null) {
+                    continue;
+                }
+                Section section = target.sections[position >>> 16];
+                int offset = position & 0xFFFF;
+                section.status[offset] = statusCode("PENDING");
+                section.userIds[offset] = Long.parseLong(holder);
+            }
+        } catch (Exception e) {
+            // Redis 장애 시 DB 상태만 반영 (보류는 해제 이벤트/다음 재적재 때 반영)
+            log.warn("좌석 보류 반영 실패: {}", e.getMessage());
+        }
+    }
+
+    // 기존 /seat/all 응답(SeatDto 목록)과 같은 형태로 직렬화
+    private Snapshot serialize() {
+        List<SeatDto> seats = new ArrayList<>(layout.positions.size());
+        for (Section section : layout.sections) {
+            for (int offset = 0; offset < section.seatIds.length; offset++) {
+                SeatDto seat = new SeatDto();
+                seat.setSeatId(section.seatIds[offset]);
+                seat.setSection(section.name);
+                seat.setSeatRow(section.rows[offset]);
+                seat.setSeatNumber(section.numbers[offset]);
+                seat.setStatus(statusName(section.status[offset]));
+                seat.setUserId(section.userIds[offset] != NONE ? section.userIds[offset] : null);
+                seat.setReservationId(section.reservationIds[offset] != NONE ? section.reservationIds[offset] : null);
+                seat.setReservedAt(section.reservedAt[offset] != NONE ? new Timestamp(section.reservedAt[offset]) : null);
+                seats.add(seat);
+            }
+        }
+        try {
+            // 내용이 같으면 재적재/재시작/노드와 관계없이 같은 ETag
+            byte[] body = objectMapper.writeValueAsBytes(seats);
+            return new Snapshot(body, "\"seat-" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("좌석 배치도 직렬화 실패", e);
+        }
+    }
+
+    // 처음 보는 상태 이름은 코드를 새로 부여 (DB 조회는 락 밖이므로 별도 락)
+    private byte statusCode(String status) {
+        synchronized (statusNames) {
+            int code = statusNames.indexOf(status);
+            if (code < 0) {
+                statusNames.add(status);
+                code = statusNames.size() - 1;
+            }
+            return (byte) code;
+        }
+    }
+
+    private String statusName(byte code) {
+        synchronized (statusNames) {
+            return statusNames.get(code);
+        }
+    }
+
+    private static long orNone(Long value) {
+        return value != null ? value : NONE;
+    }
+
+    private void reloadQuietly() {
+        // 조회된 적 없는 노드는 적재하지 않음
+        if (layout == null) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("좌석 배치도 재적재 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 직렬화된 응답과 ETag
+     */
+    public static final class Snapshot {
+        private final byte[] body;
+        private final String etag;
+
+        private Snapshot(byte[] body, String etag) {
+            this.body = body;
+            this.etag = etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    private static final class Layout {
+        private final Section[] sections;
+        // seatId -> (구역 인덱스 << 16 | 구역 내 위치)
+        private final Map<Long, Integer> positions;
+
+        private Layout(Section[] sections, Map<Long, Integer> positions) {
+            this.sections = sections;
+            this.positions = positions;
+        }
+
+        // 배치와 상태가 모두 같은지
+        private boolean sameContent(Layout other) {
+            if (sections.length != other.sections.length) {
+                return false;
+            }
+            for (int i = 0; i < sections.length; i++) {
+                if (!sections[i].sameContent(other.sections[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // 구역별 좌석 - 배치(seatIds/rows/numbers)는 불변, 나머지는 상태
+    private static final class Section {
+        private final String name;
+        private final long[] seatIds;
+        private final int[] rows;
+        private final int[] numbers;
+        private final byte[] status;
+        private final long[] userIds;
+        private final long[] reservationIds;
+        private final long[] reservedAt;
+
+        private Section(String name, int size) {
+            this.name = name;
+            this.seatIds = new long[size];
+            this.rows = new int[size];
+            this.numbers = new int[size];
+            this.status = new byte[size];
+            this.userIds = new long[size];
+            this.reservationIds = new long[size];
+            this.reservedAt = new long[size];
+        }
+
+        private boolean sameContent(Section other) {
+            return Objects.equals(name, other.name)
+                    && Arrays.equals(seatIds, other.seatIds)
+                    && Arrays.equals(rows, other.rows)
+                    && Arrays.equals(numbers, other.numbers)
+                    && Arrays.equals(status, other.status)
+                    && Arrays.equals(userIds, other.userIds)
+                    && Arrays.equals(reservationIds, other.reservationIds)
+                    && Arrays.equals(reservedAt, other.reservedAt);
+        }
+    }
+
+    // 좌석 하나의 상태 변경 (userId/reservationId 가 null 이면 기존 값 유지, clear 면 모두 지움)
+    private static final class Change {
+        private final Long seatId;
+        private final String status;
+        private final Long userId;
+        private final Long reservationId;
+        private final long reservedAt;
+        private final boolean clear;
+
+        private Change(Long seatId, String status, Long userId, Long reservationId, long reservedAt, boolean clear) {
+            this.seatId = seatId;
+            this.status = status;
+            this.userId = userId;
+            this.reservationId = reservationId;
+            this.reservedAt = reservedAt;
+            this.clear = clear;
+        }
+    }
+
+    private class ChangedListener implements MessageListener {
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                String[] parts = body.split(":", -1);
+                long userId = Long.parseLong(parts[2]);
+                long reservationId = Long.parseLong(parts[3]);
+                applyLocal(new Change(Long.valueOf(parts[0]), parts[1].isEmpty() ? null : parts[1],
+                        userId != NONE ? userId : null, reservationId != NONE ? reservationId : null,
+                        Long.parseLong(parts[4]), false));
+            } catch (RuntimeException e) {
+                log.warn("잘못된 좌석 변경 메시지: {}", body);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.example.kb6spring.service.seat;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.domain.seat.SeatClaimResult;
 import org.example.kb6spring.domain.seat.SeatReservationVo;
 import org.example.kb6spring.repository.seat.SeatReservationRepository;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,9 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SeatReservationService {
     private final SeatReservationRepository seatReservationRepository;
+    private final SeatMapCache seatMapCache;
+    private final SeatHoldEngine seatHoldEngine;
+    private final PendingReservationExpirer pendingReservationExpirer;
 
     public List<SeatReservationVo> findAllReservations() {
         return seatReservationRepository.findAllReservations();
@@ -32,57 +36,81 @@ public class SeatReservationService {
         return seatReservationRepository.findByUserId(userId);
     }
 
-    // PENDING 예약 시도
-    public int makePending(SeatReservationVo reservation) {
-        SeatReservationVo existing = findBySeatId(reservation.getSeatId());
-
-
-        if (existing == null) {
-            // 최초 예약: INSERT
-            return seatReservationRepository.insertReservation(reservation);
-        } else if ("AVAILABLE".equals(existing.getStatus())) {
-            reservation.setStatus("PENDING");
-            return seatReservationRepository.updateReservationStatus(reservation);
-        } else {
-            // RESERVED나 PENDING 등 다른 상태인 경우 예외 처리
-            throw new IllegalStateException("이미 예약되었거나 보류 중인 좌석입니다.");
+    // PENDING 예약 시도 - Redis 보류만 잡고 DB 에는 쓰지 않음 (만료/해제는 SeatHoldEngine 이 처리)
+    public SeatClaimResult makePending(SeatReservationVo reservation) {
+        requireSeatAndUser(reservation);
+        SeatClaimResult result = seatHoldEngine.hold(reservation.getSeatId(), reservation.getUserId());
+        if (result == SeatClaimResult.UNAVAILABLE) {
+            // RESERVED 이거나 다른 사용자가 보류 중인 경우
+            return result;
         }
+        reservation.setStatus("PENDING");
+        seatMapCache.apply(reservation.getSeatId(), reservation.getStatus(), reservation.getUserId(), null);
+        return result;
     }
 
-    // PENDING → CANCELLED로 변경
+    // 보류 해제 - 배치도/구독자 반영은 해제 이벤트로 처리
     public int cancelPending(Long seatId, Long userId) {
-        SeatReservationVo existing = findBySeatId(seatId);
-
-        if (existing != null && "PENDING".equals(existing.getStatus()) && userId.equals(existing.getUserId())) {
-            existing.setStatus("CANCELLED");
-            return seatReservationRepository.updateReservationStatus(existing);
-        } else {
+        if (!seatHoldEngine.release(seatId, userId)) {
             throw new IllegalStateException("취소할 수 있는 보류 중인 예약이 아닙니다.");
         }
+        return 1;
     }
 
-    // 예약 확정 (PENDING → RESERVED)
+    // 예약 확정 (PENDING → RESERVED) - 내 보류인지 확인한 뒤 DB 에는 확정 좌석만 기록
     public int confirmReservation(SeatReservationVo reservation) {
-        SeatReservationVo existing = findBySeatId(reservation.getSeatId());
-
-        if ("PENDING".equals(existing.getStatus())) {
-            reservation.setStatus("RESERVED");
-            return seatReservationRepository.updateReservationStatus(reservation);
-        } else {
+        requireSeatAndUser(reservation);
+        Long seatId = reservation.getSeatId();
+        Long userId = reservation.getUserId();
+        if (!seatHoldEngine.touch(seatId, userId)) {
             throw new IllegalStateException("보류 상태가 아니거나 사용자 정보가 일치하지 않습니다.");
         }
+
+        reservation.setStatus("RESERVED");
+        int written = seatReservationRepository.claimNew(reservation);
+        if (written == 0) {
+            reservation.setReservationId(null);
+            written = seatReservationRepository.claimAvailable(reservation);
+        }
+        if (written == 0) {
+            // DB 에 이미 다른 사용자의 예약이 있음 - 보류는 그대로 두고 만료되게 함
+            throw new IllegalStateException("이미 예약된 좌석입니다.");
+        }
+        seatHoldEngine.complete(seatId, userId);
+        pendingReservationExpirer.untrack(seatId);
+        seatMapCache.apply(seatId, reservation.getStatus(), userId, reservation.getReservationId());
+        return written;
     }
 
     // 예약 상태 수정 (예: 수동 상태 변경)
     public int updateReservationStatus(SeatReservationVo reservation) {
-        return seatReservationRepository.updateReservationStatus(reservation);
+        int updated = seatReservationRepository.updateReservationStatus(reservation);
+        if (updated > 0) {
+            seatMapCache.apply(reservation.getSeatId(), reservation.getStatus(), null, null);
+            // DB 에 PENDING 으로 남는 행은 만료 타이머로 관리
+            if ("PENDING".equals(reservation.getStatus())) {
+                pendingReservationExpirer.track(reservation.getSeatId(), System.currentTimeMillis());
+            } else {
+                pendingReservationExpirer.untrack(reservation.getSeatId());
+            }
+        }
+        return updated;
+    }
+
+    // 좌석/사용자 없이 기록하면 DB 에 0 등으로 남으므로 먼저 거절
+    private static void requireSeatAndUser(SeatReservationVo reservation) {
+        if (reservation == null || reservation.getSeatId() == null || reservation.getUserId() == null) {
+            throw new IllegalArgumentException("seatId 와 userId 는 필수입니다.");
+        }
     }
 
-    // 예약 삭제
+    // 예약 삭제 - 좌석 행이 예약 없음 상태로 돌아가므로 배치도를 다시 적재
     public int deleteReservation(Long reservationId) {
-        return seatReservationRepository.deleteReservation(reservationId);
+        int deleted = seatReservationRepository.deleteReservation(reservationId);
+        if (deleted > 0) {
+            seatMapCache.reload();
+        }
+        return deleted;
     }
-    
-    // 스케쥴러 추가
 }
 
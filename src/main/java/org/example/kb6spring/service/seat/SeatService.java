@@ -14,6 +14,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SeatService {
     private final SeatRepository seatRepository;
+    private final SeatMapCache seatMapCache;
 
     public List<SeatDto> findAllSeatsWithReservation() {
         return seatRepository.findAllSeatsWithReservation();
@@ -35,5 +36,6 @@ public class SeatService {
                 }
             }
         }
+        seatMapCache.reload();
     }
 }
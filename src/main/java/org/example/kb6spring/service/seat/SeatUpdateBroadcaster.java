@@ -0,0 +1,97 @@
+package org.example.kb6spring.service.seat;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.dto.seat.SeatUpdateFrameDto;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 좌석 변경 알림 묶음 전송 (/topic/seats/update)
+ * 변경마다 프레임을 보내지 않고 WINDOW_MS 동안 모았다가 구간당 프레임 하나로 보낸다.
+ * 같은 좌석이 구간 안에서 여러 번 바뀌면 마지막 상태만 보내고, 좌석은 [seatId, status, userId] 배열로 압축한다.
+ * 프레임마다 seq 를 1 씩 올리므로 클라이언트는 순번이 비면(또는 epoch 가 바뀌면) /seat/all 로 다시 동기화한다.
+ * 프레임 형식은 SeatUpdateFrameDto 참고.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatUpdateBroadcaster {
+    public static final String TOPIC = "/topic/seats/update";
+    private static final long WINDOW_MS = 50;
+    // 프레임 하나에 담을 최대 좌석 수 (넘으면 다음 seq 로 나눠 보냄)
+    private static final int MAX_SEATS_PER_FRAME = 1000;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final long epoch = System.currentTimeMillis();
+    // 아래 필드는 this 락 안에서만 접근 - seatId -> [seatId, status, userId] (처음 바뀐 순서 유지)
+    private Map<Long, List<Object>> buffer = new LinkedHashMap<>();
+    // 전송 스레드에서만 접근
+    private long seq;
+
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "seat-update-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        sender.scheduleAtFixedRate(this::flushQuietly, WINDOW_MS, WINDOW_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+        flushQuietly();
+    }
+
+    // 좌석 변경 등록 - 다음 구간 프레임에 포함
+    public void publish(Long seatId, String status, Long userId) {
+        if (seatId == null) {
+            return;
+        }
+        List<Object> delta = Arrays.asList(seatId, status, userId);
+        synchronized (this) {
+            buffer.put(seatId, delta);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // 이번 구간 변경은 유실 - 클라이언트는 seq 공백으로 감지해 다시 동기화
+            log.error("좌석 변경 알림 전송 실패: {}", e.getMessage());
+        }
+    }
+
+    // 모인 변경을 프레임으로 전송 (전송 스레드에서 호출)
+    void flush() {
+        Map<Long, List<Object>> window;
+        synchronized (this) {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            window = buffer;
+            buffer = new LinkedHashMap<>();
+        }
+        List<List<Object>> seats = new ArrayList<>(window.values());
+        for (int from = 0; from < seats.size(); from += MAX_SEATS_PER_FRAME) {
+            SeatUpdateFrameDto frame = SeatUpdateFrameDto.builder()
+                    .epoch(epoch)
+                    .seq(++seq)
+                    .seats(seats.subList(from, Math.min(seats.size(), from + MAX_SEATS_PER_FRAME)))
+                    .build();
+            messagingTemplate.convertAndSend(TOPIC, frame);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.dto.stock.StockAdmissionStatsDto;
+import org.example.kb6spring.exception.stock.StockLockException;
+import org.example.kb6spring.exception.stock.StockOverloadedException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 재고 요청 수락 제어 (부하 차단)
+ * 전략별로 동시 처리 한도를 두고, 한도를 넘는 요청은 스레드/커넥션 풀에서 기다리게 하지 않고 바로 거절한다.
+ * 한도는 측정 구간마다 지연시간으로 조정한다 (AIMD + Vegas 방식)
+ * - 구간 평균 지연이 기준 지연(부하 없을 때 추정)의 LATENCY_TOLERANCE 배를 넘거나 과부하 신호가 있으면 곱셈 감소
+ * - 그렇지 않고 한도의 절반 이상을 실제로 쓰고 있었다면 1 씩 증가
+ */
+@Component
+@Slf4j
+public class StockAdmissionController {
+    private static final int INITIAL_LIMIT = 20;
+    private static final int MIN_LIMIT = 1;
+    private static final int MAX_LIMIT = 200;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    // 기준 지연이 실제 환경 변화(데이터 증가 등)를 따라가도록 구간마다 조금씩 올림
+    private static final double BASELINE_DRIFT = 1.01;
+    // 측정 구간 - 샘플 수 또는 시간 중 먼저 도달하는 쪽
+    private static final int WINDOW_SAMPLES = 50;
+    private static final long WINDOW_NANOS = 500_000_000L;
+    private static final int MIN_WINDOW_SAMPLES = 5;
+
+    private final ConcurrentHashMap<String, Limiter> limiters = new ConcurrentHashMap<>();
+
+    // 한도 안에서 실행 - 한도를 넘으면 StockOverloadedException
+    public <T> T call(String strategy, Supplier<T> action) {
+        Limiter limiter = limiters.computeIfAbsent(strategy, Limiter::new);
+        if (!limiter.tryAcquire()) {
+            limiter.shed.increment();
+            throw new StockOverloadedException(strategy, limiter.currentLimit());
+        }
+
+        long start = System.nanoTime();
+        boolean overloaded = false;
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            overloaded = isOverloadSignal(e);
+            throw e;
+        } finally {
+            limiter.release(System.nanoTime() - start, overloaded);
+        }
+    }
+
+    public void run(String strategy, Runnable action) {
+        call(strategy, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public List<StockAdmissionStatsDto> stats() {
+        List<StockAdmissionStatsDto> result = new ArrayList<>(limiters.size());
+        for (Limiter limiter : limiters.values()) {
+            result.add(limiter.snapshot());
+        }
+        result.sort((a, b) -> a.getStrategy().compareTo(b.getStrategy()));
+        return result;
+    }
+
+    // 재고 부족 등 업무 오류는 지연시간만 반영하고, 락/커넥션/타임아웃 계열은 과부하 신호로 본다
+    private static boolean isOverloadSignal(Throwable e) {
+        return e instanceof StockLockException
+                || e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof TransactionTimedOutException;
+    }
+
+    private static final class Limiter {
+        private final String strategy;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder overloadSignals = new LongAdder();
+        private volatile double limit = INITIAL_LIMIT;
+        private volatile double baselineNanos;
+        private volatile double lastNanos;
+
+        // 측정 구간 (synchronized 로만 접근)
+        private long windowStart = System.nanoTime();
+        private int windowSamples;
+        private long windowTotalNanos;
+        private boolean windowOverloaded;
+        private int windowMaxInFlight;
+
+        private Limiter(String strategy) {
+            this.strategy = strategy;
+        }
+
+        private int currentLimit() {
+            return (int) limit;
+        }
+
+        private boolean tryAcquire() {
+            for (;;) {
+                int current = inFlight.get();
+                if (current >= currentLimit()) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    admitted.increment();
+                    return true;
+                }
+            }
+        }
+
+        private void release(long nanos, boolean overloaded) {
+            int before = inFlight.getAndDecrement();
+            if (overloaded) {
+                overloadSignals.increment();
+            }
+            sample(nanos, overloaded, before);
+        }
+
+        private synchronized void sample(long nanos, boolean overloaded, int inFlightAtRelease) {
+            windowSamples++;
+            windowTotalNanos += nanos;
+            windowOverloaded |= overloaded;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+
+            long now = System.nanoTime();
+            if (windowSamples < WINDOW_SAMPLES && (now - windowStart < WINDOW_NANOS || windowSamples < MIN_WINDOW_SAMPLES)) {
+                return;
+            }
+
+            double average = (double) windowTotalNanos / windowSamples;
+            lastNanos = average;
+            baselineNanos = baselineNanos == 0 ? average : Math.min(baselineNanos * BASELINE_DRIFT, average);
+
+            double previous = limit;
+            if (windowOverloaded || average > baselineNanos * LATENCY_TOLERANCE) {
+                limit = Math.max(MIN_LIMIT, previous * BACKOFF_RATIO);
+            } else if (windowMaxInFlight >= previous / 2) {
+                limit = Math.min(MAX_LIMIT, previous + 1);
+            }
+            if ((int) limit != (int) previous) {
+                log.debug("재고 요청 한도 조정 - 전략: {}, {} -> {}, 평균 지연: {}ms, 기준 지연: {}ms", strategy,
+                        (int) previous, (int) limit, String.format("%.2f", average / 1_000_000),
+                        String.format("%.2f", baselineNanos / 1_000_000));
+            }
+
+            windowStart = now;
+            windowSamples = 0;
+            windowTotalNanos = 0;
+            windowOverloaded = false;
+            windowMaxInFlight = 0;
+        }
+
+        private StockAdmissionStatsDto snapshot() {
+            return StockAdmissionStatsDto.builder()
+                    .strategy(strategy)
+                    .limit(currentLimit())
+                    .inFlight(inFlight.get())
+                    .admitted(admitted.sum())
+                    .shed(shed.sum())
+                    .overloadSignals(overloadSignals.sum())
+                    .baselineMillis(baselineNanos / 1_000_000)
+                    .lastMillis(lastNanos / 1_000_000)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package org.example.kb6spring.service.stock;
+
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.exception.stock.StockLockException;
+import org.example.kb6spring.exception.stock.StockOverloadedException;
+import org.example.kb6spring.exception.stock.StockSoldOutException;
+import org.example.kb6spring.util.redis.RedisDistributedLock;
+import org.example.kb6spring.util.redis.RedisScriptRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Lettuce 비동기 API 기반 재고 감소 (Redis 직접 관리 / Redis 분산락)
+ * Redis 응답을 기다리는 동안 스레드를 점유하지 않으므로, 적은 스레드로 많은 요청을 동시에 처리할 수 있다.
+ * 블로킹인 DB 작업만 크기가 고정된 DB 전용 스레드풀에서 실행한다 (대기 요청은 스레드가 아닌 큐에 쌓임).
+ * 큐는 DB_QUEUE_CAPACITY 로 제한하고, 가득 차면 기다리게 하지 않고 StockOverloadedException 으로 거절한다.
+ * 분산락은 RedisDistributedLock 과 같은 스크립트/키를 써서 공정 대기열과 임대 연장을 그대로 따른다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockAsyncRedisService {
+    public static final String DIRECT_ASYNC = "redis_direct_async";
+    public static final String LOCK_ASYNC = "redis_async";
+
+    private static final String STOCK_PREFIX = "stock:quantity:";
+    private static final String LOCK_PREFIX = "stock:lock:";
+    // RedisDistributedLock 과 같은 채널 - 동기/비동기 락 해제 알림을 서로 받는다
+    private static final String CHANNEL_PREFIX = RedisDistributedLock.channel("");
+    // 락을 잡고 있는 동안 1/3 주기로 연장하므로 트랜잭션이 길어져도 만료되지 않음
+    private static final long LOCK_LEASE_MS = 10_000;
+    // 해제 알림을 놓쳤을 때의 최대 재시도 간격
+    private static final long MAX_RETRY_DELAY_MS = 50;
+    // 해제 알림 한 번에 깨우는 대기자 수 (한 명만 획득하므로 전부 깨우지 않음)
+    private static final int WAKE_BATCH = 4;
+    // DB 커넥션 풀 크기 정도로 제한
+    private static final int DB_THREADS = 16;
+    // DB 작업 대기 한도 - 넘으면 큐에 쌓지 않고 바로 거절 (무제한 대기로 메모리/지연이 늘어나지 않게)
+    private static final int DB_QUEUE_CAPACITY = DB_THREADS * 16;
+
+    private final StatefulRedisConnection<String, String> redisAsyncConnection;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final StockSoldOutCache stockSoldOutCache;
+    private final StockInstrumentation stockInstrumentation;
+    private final RedisScriptRegistry redisScriptRegistry;
+
+    private RedisScriptRegistry.Script<Long> decreaseStockScript;
+    private RedisScriptRegistry.Script<Long> acquireScript;
+    private RedisScriptRegistry.Script<Long> unlockScript;
+    private RedisScriptRegistry.Script<Long> cancelWaitScript;
+    private RedisScriptRegistry.Script<Long> renewScript;
+
+    @Lazy
+    @Autowired
+    private StockService stockService;
+
+    // 락 키별 대기자 (해제 알림 시 재시도) - 대기자가 남아 있는 키만 유지
+    private final ConcurrentHashMap<String, ConcurrentLinkedQueue<LockWaiter>> waiters = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor dbExecutor = new ThreadPoolExecutor(DB_THREADS, DB_THREADS,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(DB_QUEUE_CAPACITY), r -> {
+        Thread thread = new Thread(r, "stock-async-db");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stock-async-lock-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        decreaseStockScript = redisScriptRegistry.register("stock:decrease", StockService.DECREASE_STOCK_SCRIPT, Long.class);
+        // 동기 락과 같은 이름/본문으로 등록하면 레지스트리가 같은 스크립트를 돌려줌
+        acquireScript = redisScriptRegistry.register("lock:acquire", RedisDistributedLock.ACQUIRE_SCRIPT, Long.class);
+        unlockScript = redisScriptRegistry.register("lock:unlock", RedisDistributedLock.UNLOCK_SCRIPT, Long.class);
+        cancelWaitScript = redisScriptRegistry.register("lock:cancel-wait", RedisDistributedLock.CANCEL_WAIT_SCRIPT, Long.class);
+        renewScript = redisScriptRegistry.register("lock:renew", RedisDistributedLock.RENEW_SCRIPT, Long.class);
+        redisMessageListenerContainer.addMessageListener(new ReleaseListener(), new PatternTopic(CHANNEL_PREFIX + "*"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        retryScheduler.shutdownNow();
+        dbExecutor.shutdown();
+    }
+
+    // Redis 직접 관리 (비동기) - Redis 에서 차감 후 DB 에 상대 감소 반영, 남은 재고 반환
+    public CompletableFuture<Long> decreaseStockWithRedisDirectAsync(Long stockId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            return failed(new IllegalArgumentException("감소량은 0보다 커야 합니다: " + quantity));
+        }
+        if (stockSoldOutCache.isSoldOut(stockId)) {
+            return failed(new StockSoldOutException(stockId));
+        }
+        if (isDbQueueFull()) {
+            return failed(new StockOverloadedException(DIRECT_ASYNC, DB_QUEUE_CAPACITY));
+        }
+        long epoch = stockSoldOutCache.epoch();
+        String stockKey = STOCK_PREFIX + stockId;
+
+        return decreaseInRedis(stockId, quantity, true)
+                .thenCompose(remaining -> onDbExecutor(DIRECT_ASYNC, () -> {
+                            stockService.decreaseStockInDatabaseByAmount(stockId, quantity);
+                            return remaining;
+                        })
+                        .whenComplete((result, e) -> {
+                            if (e != null) {
+                                log.warn("DB 업데이트 실패, Redis 보상 처리 - ID: {}", stockId);
+                                commands().incrby(stockKey, quantity);
+                            }
+                        }))
+                .thenApply(remaining -> {
+                    if (remaining == 0) {
+                        stockSoldOutCache.markSoldOut(stockId, epoch);
+                    }
+                    return remaining;
+                });
+    }
+
+    // Redis 분산락 (비동기) - 대기 중에는 스레드를 점유하지 않고 해제 알림/타이머로 재시도
+    // 동기 락(RedisDistributedLock)과 같은 키/대기열을 사용하므로 동기/비동기 요청이 도착 순서대로 락을 얻는다
+    public CompletableFuture<Void> decreaseStockWithRedisLockAsync(Long stockId, Integer quantity, long waitMillis) {
+        if (stockSoldOutCache.isSoldOut(stockId)) {
+            return failed(new StockSoldOutException(stockId));
+        }
+        if (isDbQueueFull()) {
+            return failed(new StockOverloadedException(LOCK_ASYNC, DB_QUEUE_CAPACITY));
+        }
+        String lockKey = LOCK_PREFIX + stockId;
+        String token = UUID.randomUUID().toString();
+        long start = System.nanoTime();
+
+        CompletableFuture<Void> acquired = new CompletableFuture<>();
+        attemptLock(lockKey, token, System.currentTimeMillis() + waitMillis, acquired);
+
+        return acquired.thenCompose(v -> {
+            stockInstrumentation.record(LOCK_ASYNC, StockLatencyPhase.LOCK_WAIT, System.nanoTime() - start);
+            long txStart = System.nanoTime();
+            ScheduledFuture<?> renewal = retryScheduler.scheduleWithFixedDelay(() -> renew(lockKey, token),
+                    LOCK_LEASE_MS / 3, LOCK_LEASE_MS / 3, TimeUnit.MILLISECONDS);
+            return this.<Void>onDbExecutor(LOCK_ASYNC, () -> {
+                        stockService.decreaseStockWithTransaction(stockId, quantity);
+                        return null;
+                    })
+                    .whenComplete((result, e) -> {
+                        renewal.cancel(false);
+                        stockInstrumentation.record(LOCK_ASYNC, StockLatencyPhase.TRANSACTION, System.nanoTime() - txStart);
+                        unlock(lockKey, token);
+                    });
+        });
+    }
+
+    private CompletableFuture<Long> decreaseInRedis(Long stockId, Integer quantity, boolean loadIfMissing) {
+        String stockKey = STOCK_PREFIX + stockId;
+        long start = System.nanoTime();
+
+        return evalAsync(decreaseStockScript, new String[]{stockKey}, quantity.toString())
+                .thenCompose(result -> {
+                    stockInstrumentation.record(DIRECT_ASYNC, StockLatencyPhase.REDIS_SCRIPT, System.nanoTime() - start);
+                    if (result == null || result == -1) {
+                        if (!loadIfMissing) {
+                            return failed(new EntityNotFoundException("Stock synchronization failed: " + stockId));
+                        }
+                        return loadToRedis(stockId).thenCompose(v -> decreaseInRedis(stockId, quantity, false));
+                    }
+                    if (result == -2) {
+                        return failed(new IllegalArgumentException("재고가 부족합니다. stockId: " + stockId));
+                    }
+                    return CompletableFuture.completedFuture(result);
+                });
+    }
+
+    // DB 재고를 Redis 에 적재 - 동기 경로와 같은 single-flight/동기화 락 적재(선점분 차감 포함)를 DB 스레드풀에서 실행
+    private CompletableFuture<Void> loadToRedis(Long stockId) {
+        return onDbExecutor(DIRECT_ASYNC, () -> {
+            stockService.synchronizeStockToRedis(stockId);
+            return null;
+        });
+    }
+
+    private boolean isDbQueueFull() {
+        return dbExecutor.getQueue().remainingCapacity() == 0;
+    }
+
+    // DB 스레드풀에 제출 - 큐가 가득 차면 실패한 future 로 돌려줘 호출 쪽 보상/락 해제가 그대로 실행되게 함
+    private <T> CompletableFuture<T> onDbExecutor(String strategy, Supplier<T> action) {
+        try {
+            return CompletableFuture.supplyAsync(action, dbExecutor);
+        } catch (RejectedExecutionException e) {
+            return failed(new StockOverloadedException(strategy, DB_QUEUE_CAPACITY));
+        }
+    }
+
+    // 공정 대기열 스크립트로 시도 - 재시도 간격(MAX_RETRY_DELAY_MS)이 WAITER_TIMEOUT_MS 보다 짧아 대기열에서 빠지지 않음
+    private void attemptLock(String lockKey, String token, long deadline, CompletableFuture<Void> acquired) {
+        long now = System.currentTimeMillis();
+        String[] keys = RedisDistributedLock.acquireKeys(lockKey).toArray(new String[0]);
+        evalAsync(acquireScript, keys, token, String.valueOf(LOCK_LEASE_MS),
+                String.valueOf(now), String.valueOf(now + RedisDistributedLock.WAITER_TIMEOUT_MS))
+                .whenComplete((ttl, e) -> {
+                    if (e != null) {
+                        cancelWait(lockKey, token);
+                        acquired.completeExceptionally(e);
+                        return;
+                    }
+                    if (ttl == -1) {
+                        acquired.complete(null);
+                        return;
+                    }
+
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        cancelWait(lockKey, token);
+                        acquired.completeExceptionally(new StockLockException("락 획득 실패 - key: " + lockKey));
+                        return;
+                    }
+
+                    // 해제 알림과 타이머 중 먼저 오는 쪽으로 한 번만 재시도
+                    LockWaiter waiter = new LockWaiter(() -> attemptLock(lockKey, token, deadline, acquired));
+                    waiters.compute(lockKey, (key, queue) -> {
+                        ConcurrentLinkedQueue<LockWaiter> joined = queue != null ? queue : new ConcurrentLinkedQueue<>();
+                        joined.add(waiter);
+                        return joined;
+                    });
+                    long delay = Math.min(remaining, ttl > 0 ? Math.min(ttl, MAX_RETRY_DELAY_MS) : MAX_RETRY_DELAY_MS);
+                    retryScheduler.schedule(() -> {
+                        leave(lockKey, waiter);
+                        waiter.fire();
+                    }, delay, TimeUnit.MILLISECONDS);
+                });
+    }
+
+    // 대기 포기 - 대기열에서 빠지고 다음 대기자에게 알림
+    private void cancelWait(String lockKey, String token) {
+        List<String> keys = RedisDistributedLock.waitKeys(lockKey);
+        evalAsync(cancelWaitScript, keys.toArray(new String[0]), token, CHANNEL_PREFIX + lockKey)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        // 정리하지 못해도 WAITER_TIMEOUT_MS 후 다른 대기자가 제거함
+                        log.warn("비동기 락 대기 취소 실패 - key: {}, 에러: {}", lockKey, e.getMessage());
+                    }
+                });
+    }
+
+    // 임대 연장 - 트랜잭션이 LOCK_LEASE_MS 보다 길어져도 다른 요청이 락을 가져가지 않도록
+    private void renew(String lockKey, String token) {
+        evalAsync(renewScript, new String[]{lockKey}, token, String.valueOf(LOCK_LEASE_MS))
+                .whenComplete((renewed, e) -> {
+                    if (e != null) {
+                        log.warn("비동기 락 임대 연장 중 오류, 다음 주기에 재시도 - key: {}, 에러: {}", lockKey, e.getMessage());
+                    } else if (renewed == null || renewed == 0) {
+                        log.error("비동기 락 임대 연장 실패(이미 만료됨) - key: {}", lockKey);
+                    }
+                });
+    }
+
+    private void unlock(String lockKey, String token) {
+        evalAsync(unlockScript, new String[]{lockKey}, token, CHANNEL_PREFIX + lockKey)
+                .whenComplete((released, e) -> {
+                    if (e != null) {
+                        // 해제 실패 시에도 TTL 이 지나면 풀림
+                        log.error("비동기 락 해제 실패 - key: {}, 에러: {}", lockKey, e.getMessage());
+                    } else if (released == null || released == 0) {
+                        log.warn("이미 만료된 락 해제 시도 - key: {}", lockKey);
+                    }
+                    // pub/sub 왕복을 기다리지 않고 로컬 대기자부터 깨움
+                    wake(lockKey);
+                });
+    }
+
+    private void wake(String lockKey) {
+        ConcurrentLinkedQueue<LockWaiter> queue = waiters.get(lockKey);
+        if (queue == null) {
+            return;
+        }
+        int woken = 0;
+        LockWaiter waiter;
+        while (woken < WAKE_BATCH && (waiter = queue.poll()) != null) {
+            if (waiter.fire()) {
+                woken++;
+            }
+        }
+        leave(lockKey, null);
+    }
+
+    // 대기자 제거 후 비어 있으면 키 제거 (추가와 같은 키 단위 잠금 안에서 판단)
+    private void leave(String lockKey, LockWaiter waiter) {
+        waiters.computeIfPresent(lockKey, (key, queue) -> {
+            if (waiter != null) {
+                queue.remove(waiter);
+            }
+            return queue.isEmpty() ? null : queue;
+        });
+    }
+
+    private RedisAsyncCommands<String, String> commands() {
+        return redisAsyncConnection.async();
+    }
+
+    // EVALSHA 로 호출하고 NOSCRIPT 면 본문을 EVAL 로 보내 다시 캐시
+    private CompletableFuture<Long> evalAsync(RedisScriptRegistry.Script<Long> script, String[] keys, String... args) {
+        script.recordInvocation();
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        commands().<Long>evalsha(script.getSha1(), ScriptOutputType.INTEGER, keys, args)
+                .whenComplete((result, e) -> {
+                    if (e == null) {
+                        future.complete(result);
+                        return;
+                    }
+                    if (!RedisScriptRegistry.isNoScript(e)) {
+                        script.recordFailure();
+                        future.completeExceptionally(e);
+                        return;
+                    }
+                    script.recordReload();
+                    commands().<Long>eval(script.getSource(), ScriptOutputType.INTEGER, keys, args)
+                            .whenComplete((reloaded, error) -> {
+                                if (error != null) {
+                                    script.recordFailure();
+                                    future.completeExceptionally(error);
+                                } else {
+                                    future.complete(reloaded);
+                                }
+                            });
+                });
+        return future;
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private static final class LockWaiter implements Runnable {
+        private final Runnable retry;
+        private final AtomicBoolean fired = new AtomicBoolean(false);
+
+        private LockWaiter(Runnable retry) {
+            this.retry = retry;
+        }
+
+        // 아직 재시도하지 않았으면 재시도하고 true
+        private boolean fire() {
+            if (!fired.compareAndSet(false, true)) {
+                return false;
+            }
+            retry.run();
+            return true;
+        }
+
+        @Override
+        public void run() {
+            fire();
+        }
+    }
+
+    // 다른 노드/동기 락의 해제 알림
+    private class ReleaseListener implements MessageListener {
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+            wake(channel.substring(CHANNEL_PREFIX.length()));
+        }
+    }
+}
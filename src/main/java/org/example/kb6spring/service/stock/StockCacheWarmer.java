@@ -0,0 +1,209 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.dto.stock.StockWarmupStatusDto;
+import org.example.kb6spring.repository.stock.StockQuantityView;
+import org.example.kb6spring.repository.stock.StockRepository;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis 재고 캐시 예열
+ * 기동 시(그리고 요청 시) DB 재고를 id 순서로 나눠 읽어 Redis 에 파이프라인으로 적재한다.
+ * 첫 적재가 끝나야 ready 가 되며, 그 전까지 트래픽은 기존처럼 미스 시 지연 적재로 처리된다.
+ * 선점(StockHoldManager) 수량은 Redis 재고에서만 빠져 있으므로 DB 수량에서 빼고 적재한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockCacheWarmer {
+    private static final String STOCK_PREFIX = "stock:quantity:";
+    private static final int BATCH_SIZE = 1000;
+    // 진행 로그 간격 (배치 수)
+    private static final int LOG_EVERY_BATCHES = 50;
+
+    private final StockRepository stockRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final StockHoldManager stockHoldManager;
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean ready;
+
+    // 진행 상황
+    private volatile String state = "IDLE";
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong loaded = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile String error;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "stock-cache-warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 루트/서블릿 컨텍스트 모두 refresh 이벤트를 받으므로 한 번만 시작
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        if (started.compareAndSet(false, true)) {
+            warmUpAsync();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 백그라운드 적재 시작 - 이미 진행 중이면 false
+    public boolean warmUpAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(this::runQuietly);
+        return true;
+    }
+
+    // 호출 스레드에서 적재 - 새로 적재한 키 수 반환
+    public long warmUp() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("이미 재고 캐시 적재가 진행 중입니다.");
+        }
+        try {
+            return run();
+        } finally {
+            finish();
+        }
+    }
+
+    public StockWarmupStatusDto status() {
+        long end = finishedAt;
+        return StockWarmupStatusDto.builder()
+                .state(state)
+                .ready(ready)
+                .total(total.get())
+                .processed(processed.get())
+                .loaded(loaded.get())
+                .skipped(skipped.get())
+                .batches(batches.get())
+                .startedAt(startedAt)
+                .finishedAt(end)
+                .elapsedMs(startedAt == 0 ? 0 : (end != 0 ? end : System.currentTimeMillis()) - startedAt)
+                .error(error)
+                .build();
+    }
+
+    private void runQuietly() {
+        try {
+            run();
+        } catch (Exception e) {
+            // 적재에 실패해도 미스 시 지연 적재로 동작
+            log.error("재고 캐시 적재 실패: {}", e.getMessage());
+        } finally {
+            finish();
+        }
+    }
+
+    private long run() {
+        state = "RUNNING";
+        error = null;
+        startedAt = System.currentTimeMillis();
+        finishedAt = 0;
+        processed.set(0);
+        loaded.set(0);
+        skipped.set(0);
+        batches.set(0);
+        total.set(stockRepository.count());
+        log.info("재고 캐시 적재 시작 - 대상: {}건", total.get());
+
+        try {
+            long afterId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                // 선점 합계를 DB 보다 먼저 읽음 - 재고 키가 없으면 새 선점이 생기지 않으므로 어긋나도 판매 부족 쪽
+                Map<Long, Long> held = stockHoldManager.heldQuantities();
+                List<StockQuantityView> rows = stockRepository.findQuantitiesAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                writeBatch(rows, held);
+                afterId = rows.get(rows.size() - 1).getId();
+
+                if (batches.get() % LOG_EVERY_BATCHES == 0) {
+                    log.info("재고 캐시 적재 중 - {}/{}건", processed.get(), total.get());
+                }
+                if (rows.size() < BATCH_SIZE) {
+                    break;
+                }
+            }
+            state = "DONE";
+        } catch (RuntimeException e) {
+            state = "FAILED";
+            error = e.getMessage();
+            throw e;
+        }
+
+        log.info("재고 캐시 적재 완료 - 적재: {}건, 기존 유지: {}건, 소요: {}ms",
+                loaded.get(), skipped.get(), System.currentTimeMillis() - startedAt);
+        return loaded.get();
+    }
+
+    // 한 배치를 파이프라인으로 전송 (왕복 한 번)
+    // 이미 있는 키는 DB 보다 앞선 값(차감 진행 중)일 수 있으므로 덮어쓰지 않는다 (SET NX)
+    private void writeBatch(List<StockQuantityView> rows, Map<Long, Long> held) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (StockQuantityView row : rows) {
+                if (row.getQuantity() == null) {
+                    continue;
+                }
+                long available = Math.max(0, row.getQuantity() - held.getOrDefault(row.getId(), 0L));
+                connection.stringCommands().set(
+                        (STOCK_PREFIX + row.getId()).getBytes(StandardCharsets.UTF_8),
+                        String.valueOf(available).getBytes(StandardCharsets.UTF_8),
+                        Expiration.persistent(),
+                        RedisStringCommands.SetOption.ifAbsent());
+            }
+            return null;
+        });
+
+        for (Object result : results) {
+            if (Boolean.TRUE.equals(result)) {
+                loaded.incrementAndGet();
+            } else {
+                skipped.incrementAndGet();
+            }
+        }
+        processed.addAndGet(rows.size());
+        batches.incrementAndGet();
+    }
+
+    private void finish() {
+        finishedAt = System.currentTimeMillis();
+        running.set(false);
+        ready = true;
+    }
+}
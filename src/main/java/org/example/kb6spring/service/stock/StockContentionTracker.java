@@ -0,0 +1,127 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 재고별 락 충돌률 추적
+ * WINDOW_MS 단위로 시도/충돌 수를 모아 충돌률을 계산하고,
+ * 충돌률이 임계치를 넘은 재고는 HOT_HOLD_MS 동안 "과열" 상태로 본다.
+ */
+@Component
+@Slf4j
+public class StockContentionTracker {
+    private static final long WINDOW_MS = 1000;
+    // 충돌률을 판단하기 위한 최소 시도 수
+    private static final int MIN_SAMPLES = 20;
+    private static final double HOT_CONFLICT_RATE = 0.3;
+    // 과열 판정 후 유지 시간 (이후 다시 측정)
+    private static final long HOT_HOLD_MS = 30_000;
+
+    private final ConcurrentHashMap<Long, Window> windows = new ConcurrentHashMap<>();
+
+    public void recordSuccess(Long stockId) {
+        record(stockId, false);
+    }
+
+    public void recordConflict(Long stockId) {
+        record(stockId, true);
+    }
+
+    public boolean isHot(Long stockId) {
+        Window window = windows.get(stockId);
+        return window != null && window.isHot(System.currentTimeMillis());
+    }
+
+    public double getConflictRate(Long stockId) {
+        Window window = windows.get(stockId);
+        return window != null ? window.rate() : 0;
+    }
+
+    // 재고별 충돌률 (측정 기록이 있는 재고만)
+    public Map<Long, Double> getConflictRates() {
+        Map<Long, Double> rates = new TreeMap<>();
+        for (Map.Entry<Long, Window> entry : windows.entrySet()) {
+            rates.put(entry.getKey(), entry.getValue().rate());
+        }
+        return rates;
+    }
+
+    private void record(Long stockId, boolean conflict) {
+        long now = System.currentTimeMillis();
+        Window window = windows.computeIfAbsent(stockId, id -> new Window(now));
+        if (window.record(conflict, now)) {
+            log.warn("재고 충돌 과열 감지 - ID: {}, 충돌률: {}", stockId, String.format("%.2f", window.rate()));
+        }
+    }
+
+    private static final class Window {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private volatile long windowStart;
+        private volatile double lastRate;
+        private volatile long hotUntil;
+
+        private Window(long now) {
+            this.windowStart = now;
+        }
+
+        // 새로 과열 상태가 되면 true
+        private boolean record(boolean conflict, long now) {
+            boolean becameHot = false;
+            if (now - windowStart >= WINDOW_MS) {
+                becameHot = roll(now);
+            }
+            attempts.increment();
+            if (conflict) {
+                conflicts.increment();
+            }
+            return becameHot;
+        }
+
+        private synchronized boolean roll(long now) {
+            if (now - windowStart < WINDOW_MS) {
+                return false;
+            }
+            long samples = attempts.sumThenReset();
+            long conflicted = conflicts.sumThenReset();
+            windowStart = now;
+            if (samples < MIN_SAMPLES) {
+                return false;
+            }
+
+            lastRate = (double) conflicted / samples;
+            if (lastRate >= HOT_CONFLICT_RATE && now >= hotUntil) {
+                hotUntil = now + HOT_HOLD_MS;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isHot(long now) {
+            if (now < hotUntil) {
+                return true;
+            }
+            // 윈도우가 끝나기 전이라도 충분히 쌓였으면 바로 판단 (지난 윈도우 값은 제외)
+            if (now - windowStart >= WINDOW_MS) {
+                return false;
+            }
+            long samples = attempts.sum();
+            if (samples >= MIN_SAMPLES && (double) conflicts.sum() / samples >= HOT_CONFLICT_RATE) {
+                hotUntil = now + HOT_HOLD_MS;
+                return true;
+            }
+            return false;
+        }
+
+        private double rate() {
+            long samples = attempts.sum();
+            return samples >= MIN_SAMPLES ? (double) conflicts.sum() / samples : lastRate;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 같은 재고에 대한 동시 감소 요청 병합기 (flat combining)
+ * 먼저 들어온 스레드가 리더가 되어 짧은 윈도우 동안 쌓인 요청을 모아
+ * UPDATE 한 번으로 처리하고, 각 요청의 성공 여부는 메모리에서 계산해 돌려준다.
+ * 대기 중 인터럽트된 요청은 리더가 배치에 담기 전이면 빠지고, 이미 담겼으면 결과가 나올 때까지 기다린다
+ * (배치에 포함된 요청을 실패로 돌려주면 재고는 차감됐는데 호출자는 실패로 알게 된다).
+ */
+@Component
+@Slf4j
+public class StockDecrementCoalescer {
+    // 리더가 요청을 모으는 최대 시간
+    private static final long COMBINE_WINDOW_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+    // 한 번에 처리할 최대 요청 수
+    private static final int MAX_BATCH_SIZE = 128;
+    // 요청 상태
+    private static final int QUEUED = 0;
+    private static final int CLAIMED = 1;
+    private static final int CANCELLED = 2;
+
+    @Lazy
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockInstrumentation stockInstrumentation;
+
+    private final ConcurrentHashMap<Long, Combiner> combiners = new ConcurrentHashMap<>();
+
+    public boolean decrease(Long stockId, int quantity) {
+        Combiner combiner = combiners.computeIfAbsent(stockId, Combiner::new);
+        PendingDecrement request = new PendingDecrement(quantity);
+        combiner.queue.offer(request);
+
+        // 리더가 없으면 직접 리더가 되고, 있으면 결과를 기다린다
+        while (!request.result.isDone()) {
+            if (combiner.combining.compareAndSet(false, true)) {
+                try {
+                    combiner.combine();
+                } finally {
+                    combiner.combining.set(false);
+                }
+            } else {
+                await(request, COMBINE_WINDOW_NANOS);
+            }
+        }
+        return join(request);
+    }
+
+    private static void await(PendingDecrement request, long timeoutNanos) {
+        try {
+            request.result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // 완료 여부는 호출한 쪽 루프에서 다시 확인
+        } catch (InterruptedException e) {
+            if (request.state.compareAndSet(QUEUED, CANCELLED)) {
+                // 아직 배치에 담기지 않음 - 리더가 건너뛰므로 재고는 차감되지 않는다
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("재고 감소 대기 중 인터럽트 발생", e);
+            }
+            // 이미 배치에 담겨 반영 중 - 실제 결과를 돌려주고 인터럽트 상태만 복원
+            try {
+                request.result.join();
+            } catch (CompletionException ignored) {
+                // 결과는 join(request) 에서 다시 확인
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean join(PendingDecrement request) {
+        try {
+            return request.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private final class Combiner {
+        private final Long stockId;
+        private final ConcurrentLinkedQueue<PendingDecrement> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean combining = new AtomicBoolean(false);
+
+        private Combiner(Long stockId) {
+            this.stockId = stockId;
+        }
+
+        private void combine() {
+            // 윈도우가 끝나거나 배치가 찰 때까지 대기
+            long deadline = System.nanoTime() + COMBINE_WINDOW_NANOS;
+            while (queue.size() < MAX_BATCH_SIZE && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(COMBINE_WINDOW_NANOS / 10);
+            }
+
+            List<PendingDecrement> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            PendingDecrement next;
+            while (batch.size() < MAX_BATCH_SIZE && (next = queue.poll()) != null) {
+                // 취소된 요청은 제외
+                if (next.state.compareAndSet(QUEUED, CLAIMED)) {
+                    batch.add(next);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<Integer> quantities = new ArrayList<>(batch.size());
+            for (PendingDecrement request : batch) {
+                quantities.add(request.quantity);
+            }
+
+            try {
+                boolean[] accepted = stockInstrumentation.time(StockLatencyPhase.TRANSACTION,
+                        () -> stockService.decreaseStockAtomicBatch(stockId, quantities));
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result.complete(accepted[i]);
+                }
+            } catch (Exception e) {
+                log.error("병합 재고 감소 실패 - ID: {}, 요청 수: {}, 에러: {}", stockId, batch.size(), e.getMessage());
+                for (PendingDecrement request : batch) {
+                    request.result.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private static final class PendingDecrement {
+        private final int quantity;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        // QUEUED -> CLAIMED(리더가 배치에 담음) 또는 CANCELLED(대기자가 인터럽트로 취소)
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private PendingDecrement(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.kb6spring.service.stock;
+
+/**
+ * 재고 감소 전략
+ * 성공하면 정상 반환하고, 재고 부족은 IllegalArgumentException,
+ * 락 충돌/획득 실패는 StockLockException 으로 알린다.
+ * 구현체를 빈으로 등록하면 StockStrategyRegistry 에 자동으로 추가된다.
+ */
+public interface StockDecrementStrategy {
+    // 전략 이름 (소문자, performanceTest 의 lockType 과 같은 값)
+    String getName();
+
+    void decrease(Long stockId, Integer quantity);
+}
@@ -0,0 +1,288 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.util.redis.RedisScriptRegistry;
+import org.example.kb6spring.util.timer.TimerWheel;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 재고 선점(hold) 저장소
+ * 선점 수량은 Redis 재고(stock:quantity)에서 바로 빼고, 선점 정보는 Redis 해시 + 만료 zset 에 둔다.
+ * 만료는 선점한 노드의 타이머 휠이 처리하고, 그 노드가 죽은 경우를 위해 주기적으로 만료 zset 을 훑는다.
+ * DB 는 확정(commit)된 수량만 StockService 가 반영한다.
+ * 재고별 선점 합계는 HELD_KEY 해시에 함께 유지해, Redis 재고를 DB 에서 다시 적재할 때 선점분을 뺄 수 있게 한다.
+ * 확정된 선점은 DB 반영이 끝날 때(settle)까지 합계에 남기고, 그 전에 노드가 죽으면 CLAIM_SETTLE_MS 뒤 sweeper 가 합계에서만 뺀다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockHoldManager {
+    private static final String STOCK_PREFIX = "stock:quantity:";
+    private static final String HOLD_PREFIX = "stock:hold:";
+    private static final String EXPIRY_KEY = "stock:hold:expiry";
+    // stockId -> 선점 중인 수량 합계 (0 이 되면 필드 삭제)
+    private static final String HELD_KEY = "stock:hold:held";
+    // 다른 노드의 타이머가 먼저 처리할 수 있도록 두는 여유
+    private static final long SWEEP_GRACE_MS = 1000;
+    private static final long SWEEP_INTERVAL_MS = 5000;
+    private static final int SWEEP_BATCH_SIZE = 100;
+    // 확정 후 DB 반영이 끝나지 않은 선점을 선점 합계에 남겨두는 최대 시간
+    private static final long CLAIM_SETTLE_MS = 60_000;
+
+    // Lua 스크립트 - 재고가 충분하면 차감 후 선점 기록 (-1 재고 키 없음, -2 재고 부족)
+    private static final String RESERVE_SCRIPT =
+            "local current = tonumber(redis.call('get', KEYS[1])) " +
+                    "if current == nil then " +
+                    "    return -1 " +
+                    "end " +
+                    "if current < tonumber(ARGV[1]) then " +
+                    "    return -2 " +
+                    "end " +
+                    "local remaining = redis.call('decrby', KEYS[1], ARGV[1]) " +
+                    "redis.call('hset', KEYS[2], 'stockId', ARGV[2], 'quantity', ARGV[1]) " +
+                    "redis.call('zadd', KEYS[3], ARGV[3], ARGV[4]) " +
+                    "redis.call('hincrby', KEYS[4], ARGV[2], ARGV[1]) " +
+                    "return remaining";
+
+    // Lua 조각 - 선점 합계에서 빼기 (선점 합계 도입 전 선점은 음수가 될 수 있으므로 0 이하면 삭제)
+    private static final String UNHOLD =
+            "if redis.call('hincrby', KEYS[3], stockId, -tonumber(quantity)) <= 0 then " +
+                    "    redis.call('hdel', KEYS[3], stockId) " +
+                    "end ";
+
+    // Lua 스크립트 - 선점 확정: 확정 표시 후 {stockId, quantity} 반환 (없거나 이미 확정됐으면 빈 값)
+    // 선점 기록과 선점 합계는 DB 반영 후 settle 에서 제거 (만료 시각은 ARGV[2] 로 미룸)
+    private static final String CLAIM_SCRIPT =
+            "local stockId = redis.call('hget', KEYS[1], 'stockId') " +
+                    "if not stockId or redis.call('hexists', KEYS[1], 'claimed') == 1 then " +
+                    "    return {} " +
+                    "end " +
+                    "local quantity = redis.call('hget', KEYS[1], 'quantity') " +
+                    "redis.call('hset', KEYS[1], 'claimed', '1') " +
+                    "redis.call('zadd', KEYS[2], ARGV[2], ARGV[1]) " +
+                    "return {tonumber(stockId), tonumber(quantity)}";
+
+    // Lua 스크립트 - 확정한 선점 정리: 선점 기록 제거 후 선점 합계에서 빼기 (1 정리, 0 이미 없음)
+    private static final String SETTLE_SCRIPT =
+            "local stockId = redis.call('hget', KEYS[1], 'stockId') " +
+                    "if not stockId or redis.call('hexists', KEYS[1], 'claimed') == 0 then " +
+                    "    return 0 " +
+                    "end " +
+                    "local quantity = redis.call('hget', KEYS[1], 'quantity') " +
+                    "redis.call('del', KEYS[1]) " +
+                    "redis.call('zrem', KEYS[2], ARGV[1]) " +
+                    UNHOLD +
+                    "return 1";
+
+    // Lua 스크립트 - 선점 해제: 선점 기록 제거 후 재고 복원 (ARGV[3] 이전에 만료된 경우만, 'inf' 면 무조건)
+    // 확정된 선점은 해제할 수 없고, 만료 시각(확정 + CLAIM_SETTLE_MS)이 지나면 재고 복원 없이 선점 합계에서만 뺀다
+    // 재고 키는 선점 기록에서 알 수 있으므로 KEYS 가 아닌 ARGV 접두사로 조합 (단일 Redis 기준)
+    private static final String RELEASE_SCRIPT =
+            "local stockId = redis.call('hget', KEYS[1], 'stockId') " +
+                    "if not stockId then " +
+                    "    redis.call('zrem', KEYS[2], ARGV[1]) " +
+                    "    return 0 " +
+                    "end " +
+                    "local claimed = redis.call('hexists', KEYS[1], 'claimed') == 1 " +
+                    "if ARGV[3] ~= 'inf' then " +
+                    "    local deadline = tonumber(redis.call('zscore', KEYS[2], ARGV[1])) " +
+                    "    if deadline and deadline > tonumber(ARGV[3]) then " +
+                    "        return 0 " +
+                    "    end " +
+                    "elseif claimed then " +
+                    "    return 0 " +
+                    "end " +
+                    "local quantity = redis.call('hget', KEYS[1], 'quantity') " +
+                    "redis.call('del', KEYS[1]) " +
+                    "redis.call('zrem', KEYS[2], ARGV[1]) " +
+                    UNHOLD +
+                    "if claimed then " +
+                    "    return 0 " +
+                    "end " +
+                    "local stockKey = ARGV[2] .. stockId " +
+                    "if redis.call('exists', stockKey) == 1 then " +
+                    "    redis.call('incrby', stockKey, quantity) " +
+                    "end " +
+                    "return tonumber(quantity)";
+
+    // Lua 스크립트 - 재고 복원: 해제 경로와 같이 재고 키가 남아 있을 때만 증가
+    // 키가 지워진 뒤에는 DB 에서 다시 적재하므로, 복원량만으로 키를 새로 만들지 않는다
+    private static final String RESTORE_SCRIPT =
+            "if redis.call('exists', KEYS[1]) == 1 then " +
+                    "    return redis.call('incrby', KEYS[1], ARGV[1]) " +
+                    "end " +
+                    "return 0";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisScriptRegistry redisScriptRegistry;
+
+    private RedisScriptRegistry.Script<Long> reserveScript;
+    @SuppressWarnings("rawtypes")
+    private RedisScriptRegistry.Script<List> claimScript;
+    private RedisScriptRegistry.Script<Long> settleScript;
+    private RedisScriptRegistry.Script<Long> releaseScript;
+    private RedisScriptRegistry.Script<Long> restoreScript;
+
+    // 이 노드에서 만든 선점의 만료 타이머
+    private final ConcurrentHashMap<String, TimerWheel.Timeout> timers = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    private final ExecutorService expiryExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "stock-hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final TimerWheel timerWheel =
+            new TimerWheel("stock-hold-timer", 100, TimeUnit.MILLISECONDS, 512, expiryExecutor);
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stock-hold-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void registerScripts() {
+        reserveScript = redisScriptRegistry.register("stock:hold:reserve", RESERVE_SCRIPT, Long.class);
+        claimScript = redisScriptRegistry.register("stock:hold:claim", CLAIM_SCRIPT, List.class);
+        settleScript = redisScriptRegistry.register("stock:hold:settle", SETTLE_SCRIPT, Long.class);
+        releaseScript = redisScriptRegistry.register("stock:hold:release", RELEASE_SCRIPT, Long.class);
+        restoreScript = redisScriptRegistry.register("stock:hold:restore", RESTORE_SCRIPT, Long.class);
+    }
+
+    // 루트/서블릿 컨텍스트 모두 refresh 이벤트를 받으므로 한 번만 시작
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // 남은 선점은 다른 노드(또는 재시작 후)의 sweeper 가 만료 처리
+        sweeper.shutdownNow();
+        timerWheel.stop();
+        expiryExecutor.shutdownNow();
+    }
+
+    // 선점 시도 - Redis 스크립트 결과(남은 재고, -1 재고 키 없음, -2 재고 부족)를 그대로 반환
+    public Long reserve(String holdId, Long stockId, int quantity, long ttlMillis) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        List<String> keys = Arrays.asList(STOCK_PREFIX + stockId, HOLD_PREFIX + holdId, EXPIRY_KEY, HELD_KEY);
+        Long result = redisScriptRegistry.execute(reserveScript, keys,
+                String.valueOf(quantity), stockId.toString(), String.valueOf(expiresAt), holdId);
+
+        if (result != null && result >= 0) {
+            timers.put(holdId, timerWheel.schedule(() -> expire(holdId), ttlMillis, TimeUnit.MILLISECONDS));
+        }
+        return result;
+    }
+
+    // 선점 확정 - {stockId, quantity}, 이미 만료/해제/확정됐으면 null (DB 반영 후 settle 호출)
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public long[] claim(String holdId) {
+        cancelTimer(holdId);
+        List<Object> result = redisScriptRegistry.execute(claimScript,
+                Arrays.asList(HOLD_PREFIX + holdId, EXPIRY_KEY), holdId,
+                String.valueOf(System.currentTimeMillis() + CLAIM_SETTLE_MS));
+        if (result == null || result.size() < 2) {
+            return null;
+        }
+        return new long[]{((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue()};
+    }
+
+    // 확정한 선점의 DB 반영이 끝남(성공/실패 모두) - 선점 기록과 선점 합계에서 제거
+    public void settle(String holdId) {
+        redisScriptRegistry.execute(settleScript, Arrays.asList(HOLD_PREFIX + holdId, EXPIRY_KEY, HELD_KEY), holdId);
+    }
+
+    // 선점 해제 - 해제된 수량 (이미 확정/만료됐으면 0)
+    public long release(String holdId) {
+        cancelTimer(holdId);
+        return releaseIfExpiredBy(holdId, "inf");
+    }
+
+    // 확정 후 DB 반영 실패 시 Redis 재고 복원 (재고 키가 없으면 건너뜀)
+    public void restore(Long stockId, int quantity) {
+        redisScriptRegistry.execute(restoreScript, Collections.singletonList(STOCK_PREFIX + stockId),
+                String.valueOf(quantity));
+    }
+
+    // 재고의 선점 중인 수량 - Redis 재고를 DB 에서 적재하기 전에(DB 조회보다 먼저) 읽는다
+    // 재고 키가 없는 동안에는 새 선점이 생기지 않고(-1), 그 사이 확정/해제로 줄어든 선점은 덜 파는 쪽으로만 어긋난다
+    public long heldQuantity(Long stockId) {
+        Object held = redisTemplate.opsForHash().get(HELD_KEY, stockId.toString());
+        return held != null ? Long.parseLong(held.toString()) : 0;
+    }
+
+    // 선점 중인 재고 전체 (stockId -> 수량) - 일괄 적재용, 선점이 있는 재고만 포함
+    public Map<Long, Long> heldQuantities() {
+        Map<Long, Long> result = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : redisTemplate.opsForHash().entries(HELD_KEY).entrySet()) {
+            result.put(Long.valueOf(entry.getKey().toString()), Long.valueOf(entry.getValue().toString()));
+        }
+        return result;
+    }
+
+    private void expire(String holdId) {
+        timers.remove(holdId);
+        try {
+            long released = releaseIfExpiredBy(holdId, String.valueOf(System.currentTimeMillis()));
+            if (released > 0) {
+                log.info("재고 선점 만료 - holdId: {}, 복원 수량: {}", holdId, released);
+            }
+        } catch (Exception e) {
+            // sweeper 가 다시 처리
+            log.warn("재고 선점 만료 처리 실패 - holdId: {}, 에러: {}", holdId, e.getMessage());
+        }
+    }
+
+    private long releaseIfExpiredBy(String holdId, String deadline) {
+        Long released = redisScriptRegistry.execute(releaseScript, Arrays.asList(HOLD_PREFIX + holdId, EXPIRY_KEY, HELD_KEY),
+                holdId, STOCK_PREFIX, deadline);
+        return released != null ? released : 0;
+    }
+
+    private void cancelTimer(String holdId) {
+        TimerWheel.Timeout timeout = timers.remove(holdId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    // 선점한 노드가 만료 처리하지 못한 선점 정리
+    private void sweepQuietly() {
+        try {
+            long limit = System.currentTimeMillis() - SWEEP_GRACE_MS;
+            Set<String> expired = redisTemplate.opsForZSet().rangeByScore(EXPIRY_KEY, 0, limit, 0, SWEEP_BATCH_SIZE);
+            if (expired == null) {
+                return;
+            }
+            for (String holdId : expired) {
+                expire(holdId);
+            }
+        } catch (Exception e) {
+            log.warn("재고 선점 만료 정리 실패: {}", e.getMessage());
+        }
+    }
+}
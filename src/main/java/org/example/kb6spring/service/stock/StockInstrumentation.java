@@ -0,0 +1,142 @@
+package org.example.kb6spring.service.stock;
+
+import org.HdrHistogram.Histogram;
+import org.example.kb6spring.dto.stock.StockLatencySnapshotDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 재고 처리 구간별 지연시간 계측
+ * 전략(StockStrategyRegistry) 실행 중에는 현재 스레드의 전략 이름으로,
+ * 그 밖의 호출은 "direct" 로 구간(락 대기, 트랜잭션, Redis 스크립트, 재시도)별 히스토그램에 기록한다.
+ */
+@Component
+public class StockInstrumentation {
+    public static final String DIRECT = "direct";
+
+    private static final StockLatencyPhase[] PHASES = StockLatencyPhase.values();
+
+    private final ThreadLocal<String> currentStrategy = new ThreadLocal<>();
+    private final ConcurrentHashMap<String, StockLatencyHistogram[]> histograms = new ConcurrentHashMap<>();
+
+    // 전략 실행 구간 진입 - 반환값을 닫으면 이전 전략으로 복원
+    public Scope enter(String strategy) {
+        String previous = currentStrategy.get();
+        currentStrategy.set(strategy);
+        return () -> {
+            if (previous == null) {
+                currentStrategy.remove();
+            } else {
+                currentStrategy.set(previous);
+            }
+        };
+    }
+
+    public String currentStrategy() {
+        String strategy = currentStrategy.get();
+        return strategy != null ? strategy : DIRECT;
+    }
+
+    public void record(StockLatencyPhase phase, long nanos) {
+        record(currentStrategy(), phase, nanos);
+    }
+
+    // 백그라운드 스레드처럼 전략 구간 밖에서 기록할 때
+    public void record(String strategy, StockLatencyPhase phase, long nanos) {
+        histogram(strategy, phase).record(nanos);
+    }
+
+    public void recordRetries(int retries) {
+        histogram(currentStrategy(), StockLatencyPhase.RETRIES).recordValue(retries);
+    }
+
+    public <T> T time(StockLatencyPhase phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void time(StockLatencyPhase phase, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    // reset 이후 누적
+    public List<StockLatencySnapshotDto> snapshot() {
+        return collect(false);
+    }
+
+    // 직전 구간 조회 이후 (조회할 때마다 새 구간 시작)
+    public List<StockLatencySnapshotDto> intervalSnapshot() {
+        return collect(true);
+    }
+
+    public void reset() {
+        for (StockLatencyHistogram[] byPhase : histograms.values()) {
+            for (StockLatencyHistogram histogram : byPhase) {
+                histogram.reset();
+            }
+        }
+    }
+
+    private StockLatencyHistogram histogram(String strategy, StockLatencyPhase phase) {
+        StockLatencyHistogram[] byPhase = histograms.get(strategy);
+        if (byPhase == null) {
+            byPhase = histograms.computeIfAbsent(strategy, s -> {
+                StockLatencyHistogram[] created = new StockLatencyHistogram[PHASES.length];
+                for (int i = 0; i < created.length; i++) {
+                    created[i] = new StockLatencyHistogram();
+                }
+                return created;
+            });
+        }
+        return byPhase[phase.ordinal()];
+    }
+
+    private List<StockLatencySnapshotDto> collect(boolean interval) {
+        List<StockLatencySnapshotDto> snapshots = new ArrayList<>();
+        for (Map.Entry<String, StockLatencyHistogram[]> entry : new TreeMap<>(histograms).entrySet()) {
+            for (StockLatencyPhase phase : PHASES) {
+                StockLatencyHistogram histogram = entry.getValue()[phase.ordinal()];
+                Histogram h = interval ? histogram.intervalSnapshot() : histogram.snapshot();
+                if (h.getTotalCount() == 0) {
+                    continue;
+                }
+                snapshots.add(StockLatencySnapshotDto.builder()
+                        .strategy(entry.getKey())
+                        .phase(phase.getLabel())
+                        .startTime(h.getStartTimeStamp())
+                        .endTime(h.getEndTimeStamp())
+                        .count(h.getTotalCount())
+                        .min(h.getMinValue())
+                        .mean(h.getMean())
+                        .p50(h.getValueAtPercentile(50))
+                        .p90(h.getValueAtPercentile(90))
+                        .p99(h.getValueAtPercentile(99))
+                        .p999(h.getValueAtPercentile(99.9))
+                        .max(h.getMaxValue())
+                        .build());
+            }
+        }
+        return snapshots;
+    }
+
+    // try-with-resources 용 (close 에서 예외를 던지지 않음)
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.kb6spring.service.stock;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 지연시간 히스토그램 (HdrHistogram, 마이크로초, 유효숫자 3자리)
+ * 기록은 Recorder 로 락 없이(wait-free) 처리하고, 조회 시에만 모아서 누적/구간 히스토그램에 합친다.
+ */
+class StockLatencyHistogram {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    // 이하 필드는 synchronized 조회 메서드에서만 접근
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram interval = new Histogram(SIGNIFICANT_DIGITS);
+    private Histogram recycled;
+    private long totalStart = System.currentTimeMillis();
+    private long intervalStart = totalStart;
+
+    void record(long nanos) {
+        recordValue(Math.max(0, nanos / 1000));
+    }
+
+    // 시간 외의 값 (재시도 횟수 등)
+    void recordValue(long value) {
+        recorder.recordValue(Math.max(0, value));
+    }
+
+    // reset 이후 누적
+    synchronized Histogram snapshot() {
+        drain();
+        Histogram copy = total.copy();
+        copy.setStartTimeStamp(totalStart);
+        copy.setEndTimeStamp(System.currentTimeMillis());
+        return copy;
+    }
+
+    // 직전 구간 조회 이후 누적 (조회할 때마다 새 구간 시작)
+    synchronized Histogram intervalSnapshot() {
+        drain();
+        long now = System.currentTimeMillis();
+        Histogram copy = interval.copy();
+        copy.setStartTimeStamp(intervalStart);
+        copy.setEndTimeStamp(now);
+        interval.reset();
+        intervalStart = now;
+        return copy;
+    }
+
+    synchronized void reset() {
+        drain();
+        total.reset();
+        interval.reset();
+        totalStart = System.currentTimeMillis();
+        intervalStart = totalStart;
+    }
+
+    private void drain() {
+        recycled = recorder.getIntervalHistogram(recycled);
+        total.add(recycled);
+        interval.add(recycled);
+    }
+}
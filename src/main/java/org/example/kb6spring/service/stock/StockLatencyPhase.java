@@ -0,0 +1,19 @@
+package org.example.kb6spring.service.stock;
+
+// 재고 처리 구간 (지연시간 측정 단위)
+public enum StockLatencyPhase {
+    LOCK_WAIT("lock_wait"),         // 락 획득 대기 (us)
+    TRANSACTION("transaction"),     // DB 트랜잭션 (us)
+    REDIS_SCRIPT("redis_script"),   // Redis Lua 스크립트 왕복 (us)
+    RETRIES("retries");             // 요청당 재시도 횟수 (회)
+
+    private final String label;
+
+    StockLatencyPhase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
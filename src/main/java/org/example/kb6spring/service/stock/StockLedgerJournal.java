@@ -0,0 +1,129 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * 로컬 원장 flush 배치의 선기록(write-ahead) 저널
+ * P|batchId|stockId:amount,... 를 DB 반영 전에 기록하고, 반영 후 C|batchId 를 기록한다.
+ * 재시작 시 C 가 없는 P 배치만 다시 반영한다.
+ */
+@Slf4j
+class StockLedgerJournal {
+    private static final String PENDING = "P";
+    private static final String COMMITTED = "C";
+
+    private final Path path;
+    private FileChannel channel;
+
+    StockLedgerJournal(Path path) {
+        this.path = path;
+    }
+
+    // 미반영 배치 복구 (open 전에 호출)
+    synchronized Map<String, Map<Long, Integer>> recover() {
+        Map<String, Map<Long, Integer>> pending = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return pending;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\|");
+                if (PENDING.equals(parts[0]) && parts.length == 3) {
+                    pending.put(parts[1], parseDeltas(parts[2]));
+                } else if (COMMITTED.equals(parts[0]) && parts.length == 2) {
+                    pending.remove(parts[1]);
+                }
+                // 마지막 줄이 잘린 경우(기록 도중 크래시)는 무시
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("원장 저널 복구 실패: " + path, e);
+        }
+        return pending;
+    }
+
+    synchronized void open() {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("원장 저널 열기 실패: " + path, e);
+        }
+    }
+
+    synchronized void appendPending(String batchId, Map<Long, Integer> deltas) {
+        StringBuilder sb = new StringBuilder(PENDING).append('|').append(batchId).append('|');
+        Iterator<Map.Entry<Long, Integer>> it = deltas.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Integer> entry = it.next();
+            sb.append(entry.getKey()).append(':').append(entry.getValue());
+            if (it.hasNext()) {
+                sb.append(',');
+            }
+        }
+        // DB 반영 전에 디스크에 내려가야 복구 가능
+        append(sb.append('\n').toString(), true);
+    }
+
+    synchronized void appendCommitted(String batchId) {
+        // 커밋 기록이 유실돼도 flush 마커로 중복 반영이 걸러지므로 fsync 생략
+        append(COMMITTED + "|" + batchId + "\n", false);
+    }
+
+    // 미반영 배치가 없을 때 저널을 비운다
+    synchronized void truncate() {
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            log.warn("원장 저널 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("원장 저널 닫기 실패: {}", e.getMessage());
+        }
+    }
+
+    private void append(String line, boolean force) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            long position = channel.size();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            if (force) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("원장 저널 기록 실패: " + path, e);
+        }
+    }
+
+    private static Map<Long, Integer> parseDeltas(String encoded) {
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        for (String pair : encoded.split(",")) {
+            int idx = pair.indexOf(':');
+            deltas.put(Long.parseLong(pair.substring(0, idx)), Integer.parseInt(pair.substring(idx + 1)));
+        }
+        return deltas;
+    }
+}
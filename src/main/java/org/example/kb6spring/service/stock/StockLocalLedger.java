@@ -0,0 +1,327 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.repository.stock.StockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * JVM 내부 재고 원장 (write-behind)
+ * 재고별 수량을 코어 수만큼의 셀로 나눠 CAS 로만 차감하고,
+ * 판매량은 FLUSH_INTERVAL_MS 주기로 모아서 DB 에 한 번에 반영한다.
+ * 판매량은 (적재 수량 - 남은 수량) 으로 계산하므로 차감 경로는 셀 CAS 하나뿐이다.
+ * 반영 전 배치는 저널(stock.ledger.journal-dir)에 먼저 기록해 재시작 후 다시 반영한다.
+ * 단, 판매는 셀 CAS 만으로 응답하고 저널에는 다음 flush 때 배치로 기록하므로,
+ * 프로세스가 죽으면 마지막 FLUSH_INTERVAL_MS 동안 수락한 판매량은 저널에 없어 DB 에 반영되지 않는다 (그만큼 DB 재고가 남음).
+ * DB 재고가 먼저 소진돼 반영하지 못한 판매량은 버리지 않고 남은 재고를 차감한 뒤 부족분(SHORTFALL)으로 기록한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockLocalLedger {
+    // 셀 수는 코어 수 이상의 2의 거듭제곱
+    private static final int CELL_COUNT = tableSizeFor(Runtime.getRuntime().availableProcessors());
+    private static final int CELL_MASK = CELL_COUNT - 1;
+    // 셀 간 false sharing 방지 (long 16개 = 128byte 간격)
+    private static final int PADDING = 16;
+
+    // DB 반영 주기 = 원장과 DB 사이의 최대 지연
+    private static final long FLUSH_INTERVAL_MS = 100;
+    private static final String JOURNAL_FILE = "kb6-stock-ledger.journal";
+
+    private final StockRepository stockRepository;
+    private final StockInstrumentation stockInstrumentation;
+
+    @Lazy
+    @Autowired
+    private StockService stockService;
+
+    // 재부팅 시 지워지는 임시 디렉터리(java.io.tmpdir)는 크래시 복구에 쓸 수 없으므로 별도 지정
+    @Value("${stock.ledger.journal-dir:${user.home}/kb6spring/ledger}")
+    private String journalDir;
+
+    private final ConcurrentHashMap<Long, LedgerEntry> entries = new ConcurrentHashMap<>();
+    // DB 반영 전 배치 (실패 시 같은 batchId 로 재시도) - 적재 시 재고별 합계를 빼야 하므로 동시 조회 가능한 맵
+    private final ConcurrentHashMap<String, Map<Long, Integer>> outstanding = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    private StockLedgerJournal journal;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stock-ledger-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        journal = new StockLedgerJournal(Paths.get(journalDir, JOURNAL_FILE));
+    }
+
+    // 루트/서블릿 컨텍스트 모두 refresh 이벤트를 받으므로 한 번만 시작
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        // 크래시 이전에 DB 반영이 끝나지 않은 배치 재반영
+        Map<String, Map<Long, Integer>> recovered = journal.recover();
+        journal.open();
+        if (!recovered.isEmpty()) {
+            log.warn("원장 저널 미반영 배치 복구 - {}건", recovered.size());
+            synchronized (this) {
+                for (Map.Entry<String, Map<Long, Integer>> batch : recovered.entrySet()) {
+                    journal.appendPending(batch.getKey(), batch.getValue());
+                    outstanding.put(batch.getKey(), batch.getValue());
+                }
+            }
+        }
+
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+                0, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(FLUSH_INTERVAL_MS * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (started.get()) {
+            flushQuietly();
+        }
+        journal.close();
+    }
+
+    // 차감 시도: 재고가 충분하면 true, 품절이면 false
+    public boolean tryDecrease(Long stockId, int amount) {
+        while (true) {
+            LedgerEntry entry = entries.get(stockId);
+            if (entry == null) {
+                entry = entries.computeIfAbsent(stockId, this::load);
+            }
+            if (entry.tryDecrease(amount)) {
+                return true;
+            }
+            if (!entry.isRetired()) {
+                return false;
+            }
+            // 제거 중인 항목 - 맵에서 빠지면 새로 적재한 항목으로 다시 시도
+            Thread.yield();
+        }
+    }
+
+    // 원장에 남은 수량 (DB 미반영분 차감 후)
+    public long getAvailable(Long stockId) {
+        LedgerEntry entry = entries.get(stockId);
+        return entry != null ? entry.available() : -1;
+    }
+
+    // 원장 항목 제거 - 미반영 판매량은 배치로 넘겨 DB 에 반영하고, 다음 요청 시 DB 에서 다시 적재
+    public synchronized void evict(Long stockId) {
+        LedgerEntry entry = entries.get(stockId);
+        if (entry == null) {
+            return;
+        }
+        long sold = entry.retire();
+        if (sold > 0) {
+            enqueue(Collections.singletonMap(stockId, (int) sold));
+        }
+        entries.remove(stockId, entry);
+    }
+
+    // 즉시 DB 반영
+    public synchronized void flush() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (Map.Entry<Long, LedgerEntry> entry : entries.entrySet()) {
+            long sold = entry.getValue().drainSold();
+            if (sold > 0) {
+                deltas.put(entry.getKey(), (int) sold);
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            enqueue(deltas);
+        }
+
+        if (outstanding.isEmpty()) {
+            return;
+        }
+
+        Iterator<Map.Entry<String, Map<Long, Integer>>> it = outstanding.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Map<Long, Integer>> batch = it.next();
+            long start = System.nanoTime();
+            stockService.applyLedgerBatch(batch.getKey(), batch.getValue());
+            stockInstrumentation.record("local_ledger", StockLatencyPhase.TRANSACTION, System.nanoTime() - start);
+            journal.appendCommitted(batch.getKey());
+            it.remove();
+        }
+
+        // 모든 배치가 반영되면 저널을 비워 크기를 유지 (반영 중 제거된 항목의 배치가 새로 들어왔으면 유지)
+        if (outstanding.isEmpty()) {
+            journal.truncate();
+        }
+    }
+
+    // 저널에 먼저 기록한 뒤 반영 대기 배치로 등록 (원장 락 안에서 호출)
+    private void enqueue(Map<Long, Integer> deltas) {
+        String batchId = UUID.randomUUID().toString();
+        journal.appendPending(batchId, deltas);
+        outstanding.put(batchId, deltas);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // 실패한 배치는 outstanding 에 남아 다음 주기에 재시도
+            log.error("원장 DB 반영 실패, 다음 주기에 재시도 - 대기 배치: {}, 에러: {}",
+                    outstanding.size(), e.getMessage());
+        }
+    }
+
+    // DB 수량에서 아직 반영되지 않은 배치의 판매량을 뺀 값으로 적재
+    // 미반영분을 DB 보다 먼저 읽으므로, 그 사이 반영된 배치는 두 번 빠질 수는 있어도(판매 부족) 빠지지 않을 수는 없다(초과 판매)
+    private LedgerEntry load(Long stockId) {
+        long pending = 0;
+        for (Map<Long, Integer> batch : outstanding.values()) {
+            pending += batch.getOrDefault(stockId, 0);
+        }
+        Integer quantity = stockRepository.findById(stockId)
+                .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + stockId))
+                .getQuantity();
+        long available = Math.max(0, quantity - pending);
+        log.info("원장 적재 - ID: {}, 재고: {}, 미반영 판매: {}, 셀: {}", stockId, quantity, pending, CELL_COUNT);
+        return new LedgerEntry(available);
+    }
+
+    private static int tableSizeFor(int n) {
+        int size = 1;
+        while (size < n) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    // 스레드별로 고정된 시작 셀 (스레드 ID 해시)
+    private static int probe() {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static final class LedgerEntry {
+        private final AtomicLongArray available = new AtomicLongArray(CELL_COUNT * PADDING);
+        private final long loaded;
+        // 이미 배치로 넘긴 판매량 (항목 락 안에서만 접근)
+        private long reported;
+        private volatile boolean retired;
+
+        LedgerEntry(long quantity) {
+            this.loaded = quantity;
+            long base = quantity / CELL_COUNT;
+            long remainder = quantity % CELL_COUNT;
+            for (int i = 0; i < CELL_COUNT; i++) {
+                available.set(i * PADDING, base + (i < remainder ? 1 : 0));
+            }
+        }
+
+        boolean tryDecrease(int amount) {
+            int start = probe();
+            // 빠른 경로: 한 셀에서 전량 차감
+            for (int i = 0; i < CELL_COUNT; i++) {
+                int idx = ((start + i) & CELL_MASK) * PADDING;
+                long current;
+                while ((current = available.get(idx)) >= amount) {
+                    if (available.compareAndSet(idx, current, current - amount)) {
+                        return true;
+                    }
+                }
+            }
+            return amount > 1 && tryDecreaseAcrossCells(start, amount);
+        }
+
+        // 느린 경로: 남은 수량이 여러 셀에 흩어진 경우 셀마다 나눠서 차감
+        private synchronized boolean tryDecreaseAcrossCells(int start, int amount) {
+            long[] taken = new long[CELL_COUNT];
+            long remaining = amount;
+            for (int i = 0; i < CELL_COUNT && remaining > 0; i++) {
+                int cell = (start + i) & CELL_MASK;
+                int idx = cell * PADDING;
+                long current;
+                while ((current = available.get(idx)) > 0) {
+                    long take = Math.min(current, remaining);
+                    if (available.compareAndSet(idx, current, current - take)) {
+                        taken[cell] = take;
+                        remaining -= take;
+                        break;
+                    }
+                }
+            }
+
+            if (remaining > 0) {
+                // 부족하면 가져온 수량 반납
+                for (int cell = 0; cell < CELL_COUNT; cell++) {
+                    if (taken[cell] > 0) {
+                        available.getAndAdd(cell * PADDING, taken[cell]);
+                    }
+                }
+                return false;
+            }
+
+            return true;
+        }
+
+        long available() {
+            long sum = 0;
+            for (int i = 0; i < CELL_COUNT; i++) {
+                sum += available.get(i * PADDING);
+            }
+            return sum;
+        }
+
+        boolean isRetired() {
+            return retired;
+        }
+
+        // 마지막 배치 이후 판매량 - 여러 셀 차감 중 반납 전 상태를 읽지 않도록 항목 락 안에서 계산
+        synchronized long drainSold() {
+            return report(loaded - available());
+        }
+
+        // 제거 전 정리 - 남은 수량을 모두 회수해 이후 차감을 막고 마지막 판매량 반환
+        synchronized long retire() {
+            retired = true;
+            long remainder = 0;
+            for (int i = 0; i < CELL_COUNT; i++) {
+                remainder += available.getAndSet(i * PADDING, 0);
+            }
+            return report(loaded - remainder);
+        }
+
+        private long report(long sold) {
+            long delta = sold - reported;
+            reported = sold;
+            return delta;
+        }
+    }
+}
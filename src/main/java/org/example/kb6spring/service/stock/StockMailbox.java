@@ -0,0 +1,278 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.exception.stock.StockLockException;
+import org.example.kb6spring.exception.stock.StockOverloadedException;
+import org.example.kb6spring.repository.stock.StockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 재고별 단일 작성자 메일박스 (actor per SKU)
+ * 재고는 hash(stockId) % STRIPE_COUNT 로 정해진 스트라이프 스레드 하나만 수정하므로 락이 필요 없고,
+ * 같은 재고의 요청은 들어온 순서(FIFO)대로 처리된다.
+ * 스트라이프는 수량을 메모리에 들고 있다가 큐에서 꺼낸 요청 묶음마다 재고별 총 감소량을 조건부 상대 감소로 저장하고,
+ * 저장이 끝난 뒤에 요청의 future 를 완료한다 (저장 실패 시 해당 재고는 메모리에서 내리고 DB 에서 다시 읽음).
+ * 다른 전략/노드가 같은 재고를 줄여 조건부 감소가 실패하면, 해당 재고를 DB 에서 다시 읽어 한 번 더 처리한다.
+ * 메모리 수량으로 재고 부족이면 다른 노드의 재고 보충을 놓쳤을 수 있으므로 DB 에서 한 번 다시 읽은 뒤 거절한다.
+ * 아직 스트라이프가 꺼내지 않은 요청은 future 를 cancel 해서 취소할 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockMailbox {
+    private static final int STRIPE_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors());
+    // 스트라이프별 대기 요청 한도 (넘으면 대기 없이 거절)
+    private static final int QUEUE_CAPACITY = 10_000;
+    // 한 번에 처리/저장할 최대 요청 수
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final StockRepository stockRepository;
+
+    @Lazy
+    @Autowired
+    private StockService stockService;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(i);
+            stripes[i].thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Stripe stripe : stripes) {
+            stripe.thread.interrupt();
+        }
+    }
+
+    // 감소 요청 - 저장까지 끝나면 남은 수량으로 완료 (재고 부족은 IllegalArgumentException)
+    public CompletableFuture<Integer> decrease(Long stockId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("감소량은 0보다 커야 합니다: " + quantity);
+        }
+        Command command = new Command(stockId, quantity, new Pending());
+        if (!stripeOf(stockId).queue.offer(command)) {
+            throw new StockOverloadedException("mailbox", QUEUE_CAPACITY);
+        }
+        return command.result;
+    }
+
+    // 메모리 수량 폐기 (다음 요청 때 DB 에서 다시 읽음) - 스트라이프 스레드에서 순서대로 처리
+    public void evict(Long stockId) {
+        try {
+            stripeOf(stockId).queue.put(new Command(stockId, 0, null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Stripe stripeOf(Long stockId) {
+        int hash = stockId.hashCode();
+        return stripes[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % STRIPE_COUNT];
+    }
+
+    private final class Stripe implements Runnable {
+        private final BlockingQueue<Command> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final Thread thread;
+        // 이 스트라이프 스레드만 접근
+        private final Map<Long, Integer> quantities = new HashMap<>();
+
+        private Stripe(int index) {
+            this.thread = new Thread(this, "stock-mailbox-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Command> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                try {
+                    process(batch);
+                } catch (RuntimeException e) {
+                    log.error("메일박스 처리 실패: {}", e.getMessage());
+                    for (Command command : batch) {
+                        if (command.result != null) {
+                            command.result.completeExceptionally(e);
+                        }
+                    }
+                }
+                batch.clear();
+            }
+        }
+
+        private void process(List<Command> batch) {
+            // 대기자가 이미 취소한 요청은 건너뜀 - 꺼낸 요청은 더 이상 취소할 수 없음
+            List<Command> claimed = new ArrayList<>(batch.size());
+            for (Command command : batch) {
+                if (command.result == null || command.result.claim()) {
+                    claimed.add(command);
+                }
+            }
+            apply(claimed, true);
+        }
+
+        private void apply(List<Command> batch, boolean retryConflicts) {
+            // 재고별 총 감소량 / 저장 후 완료할 요청 (요청 순서 유지)
+            Map<Long, Integer> decreased = new LinkedHashMap<>();
+            List<Command> accepted = new ArrayList<>(batch.size());
+
+            for (Command command : batch) {
+                if (command.result == null) {
+                    // 앞서 받은 감소분을 먼저 저장한 뒤 폐기
+                    if (decreased.containsKey(command.stockId)) {
+                        persist(decreased, accepted, retryConflicts);
+                        decreased.clear();
+                        accepted.clear();
+                    }
+                    quantities.remove(command.stockId);
+                    continue;
+                }
+                boolean cached = quantities.containsKey(command.stockId);
+                Integer current = load(command);
+                if (current == null) {
+                    continue;
+                }
+                if (current < command.quantity && cached) {
+                    // 다른 노드/경로에서 재고가 보충됐을 수 있음 - 앞선 감소분을 저장한 뒤 DB 에서 한 번 다시 읽고 판단
+                    if (decreased.containsKey(command.stockId)) {
+                        persist(decreased, accepted, retryConflicts);
+                        decreased.clear();
+                        accepted.clear();
+                    }
+                    quantities.remove(command.stockId);
+                    current = load(command);
+                    if (current == null) {
+                        continue;
+                    }
+                }
+                if (current < command.quantity) {
+                    command.result.completeExceptionally(new IllegalArgumentException(
+                            String.format("재고가 부족합니다. 현재 재고: %d, 요청 수량: %d", current, command.quantity)));
+                    continue;
+                }
+                int remaining = current - command.quantity;
+                quantities.put(command.stockId, remaining);
+                decreased.merge(command.stockId, command.quantity, Integer::sum);
+                command.remaining = remaining;
+                accepted.add(command);
+            }
+            persist(decreased, accepted, retryConflicts);
+        }
+
+        private void persist(Map<Long, Integer> decreased, List<Command> accepted, boolean retryConflicts) {
+            if (decreased.isEmpty()) {
+                return;
+            }
+            Set<Long> conflicted;
+            try {
+                conflicted = stockService.applyMailboxBatch(decreased);
+            } catch (RuntimeException e) {
+                // DB 는 이전 수량 그대로 - 메모리 수량을 버리고 다음 요청 때 다시 읽음
+                log.error("메일박스 저장 실패 - 재고 수: {}, 에러: {}", decreased.size(), e.getMessage());
+                for (Long stockId : decreased.keySet()) {
+                    quantities.remove(stockId);
+                }
+                for (Command command : accepted) {
+                    command.result.completeExceptionally(e);
+                }
+                return;
+            }
+
+            // 조건부 감소에 실패한 재고 - 메모리 수량이 DB 와 달라졌으므로 다시 읽음
+            List<Command> conflictedCommands = new ArrayList<>();
+            for (Command command : accepted) {
+                if (conflicted.contains(command.stockId)) {
+                    conflictedCommands.add(command);
+                } else {
+                    command.result.complete(command.remaining);
+                }
+            }
+            if (conflicted.isEmpty()) {
+                return;
+            }
+            log.warn("메일박스 밖에서 변경된 재고, DB 에서 다시 읽음 - 재고: {}", conflicted);
+            for (Long stockId : conflicted) {
+                quantities.remove(stockId);
+            }
+            if (retryConflicts) {
+                apply(conflictedCommands, false);
+                return;
+            }
+            for (Command command : conflictedCommands) {
+                command.result.completeExceptionally(
+                        new StockLockException("메일박스 저장 충돌 - stockId: " + command.stockId));
+            }
+        }
+
+        private Integer load(Command command) {
+            Integer current = quantities.get(command.stockId);
+            if (current != null) {
+                return current;
+            }
+            try {
+                current = stockRepository.findQuantityById(command.stockId)
+                        .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + command.stockId));
+            } catch (RuntimeException e) {
+                command.result.completeExceptionally(e);
+                return null;
+            }
+            quantities.put(command.stockId, current);
+            return current;
+        }
+    }
+
+    // 감소 요청의 future - 스트라이프가 꺼내기 전(QUEUED)에만 cancel 가능
+    private static final class Pending extends CompletableFuture<Integer> {
+        private static final int QUEUED = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return state.compareAndSet(QUEUED, CANCELLED) && super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    private static final class Command {
+        private final Long stockId;
+        private final int quantity;
+        // null 이면 폐기 요청
+        private final Pending result;
+        private int remaining;
+
+        private Command(Long stockId, int quantity, Pending result) {
+            this.stockId = stockId;
+            this.quantity = quantity;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.example.kb6spring.domain.stock.StockMovement;
+import org.example.kb6spring.domain.stock.StockMovementType;
+import org.example.kb6spring.dto.stock.StockMovementDto;
+import org.example.kb6spring.repository.stock.StockMovementRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 재고 변동 기록 (append-only)
+ * 재고 변경과 같은 트랜잭션에서 커밋 직전(beforeCommit)에 그 트랜잭션의 기록을 INSERT 한 번으로 저장한다.
+ * 재고 변경이 커밋되면 기록도 함께 커밋되고, 롤백되면 기록도 남지 않는다.
+ * 기록 시각(occurredAt)은 INSERT 시점이므로 id 순서와 거의 같고, 스냅샷은 충분히 지난 기록까지만 반영한다 (StockSnapshotter).
+ */
+@Component
+@RequiredArgsConstructor
+public class StockMovementLog {
+    private final StockMovementRepository stockMovementRepository;
+
+    // 상대 감소 기록 (조건부 UPDATE 처럼 변경 후 수량을 모르면 quantityAfter 는 null)
+    public void decreased(Long stockId, int amount, Integer quantityAfter) {
+        append(StockMovement.builder()
+                .stockId(stockId)
+                .movementType(StockMovementType.DECREASE)
+                .delta(-amount)
+                .quantityAfter(quantityAfter));
+    }
+
+    // 수량 덮어쓰기 기록 (생성/초기화/동기화)
+    public void set(Long stockId, Integer before, int after) {
+        append(StockMovement.builder()
+                .stockId(stockId)
+                .movementType(StockMovementType.SET)
+                .delta(before != null ? after - before : after)
+                .quantityAfter(after));
+    }
+
+    // 부족분 기록 - 판매는 확정됐지만 DB 재고가 모자라 차감하지 못한 수량 (재고 수량 재구성에는 쓰지 않음)
+    public void shortfall(Long stockId, int amount) {
+        append(StockMovement.builder()
+                .stockId(stockId)
+                .movementType(StockMovementType.SHORTFALL)
+                .delta(-amount));
+    }
+
+    // 최근 기록
+    public List<StockMovementDto> recent(Long stockId, int limit) {
+        List<StockMovementDto> result = new ArrayList<>();
+        for (StockMovement movement : stockMovementRepository.findRecent(stockId, PageRequest.of(0, limit))) {
+            result.add(StockMovementDto.builder()
+                    .id(movement.getId())
+                    .stockId(movement.getStockId())
+                    .type(movement.getMovementType().name())
+                    .delta(movement.getDelta())
+                    .quantityAfter(movement.getQuantityAfter())
+                    .occurredAt(movement.getOccurredAt())
+                    .build());
+        }
+        return result;
+    }
+
+    // 진행 중인 트랜잭션의 기록에 추가 - 트랜잭션 밖이면 바로 저장
+    private void append(StockMovement.StockMovementBuilder movement) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stockMovementRepository.insertAll(Collections.singletonList(
+                    movement.occurredAt(LocalDateTime.now()).build()));
+            return;
+        }
+        currentBatch().movements.add(movement);
+    }
+
+    // 트랜잭션별 기록 묶음 - REQUIRES_NEW 로 중첩되면 동기화 목록이 트랜잭션마다 따로 관리됨
+    private MovementBatch currentBatch() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof MovementBatch) {
+                return (MovementBatch) synchronization;
+            }
+        }
+        MovementBatch batch = new MovementBatch();
+        TransactionSynchronizationManager.registerSynchronization(batch);
+        return batch;
+    }
+
+    private final class MovementBatch implements TransactionSynchronization {
+        private final List<StockMovement.StockMovementBuilder> movements = new ArrayList<>();
+
+        // 재고 UPDATE 뒤, 커밋 직전에 저장 - 실패하면 재고 변경도 함께 롤백
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            LocalDateTime now = LocalDateTime.now();
+            List<StockMovement> batch = new ArrayList<>(movements.size());
+            for (StockMovement.StockMovementBuilder movement : movements) {
+                batch.add(movement.occurredAt(now).build());
+            }
+            stockMovementRepository.insertAll(batch);
+        }
+    }
+}
@@ -3,20 +3,39 @@ package org.example.kb6spring.service.stock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.kb6spring.domain.stock.Stock;
+import org.example.kb6spring.domain.stock.StockLedgerFlush;
+import org.example.kb6spring.domain.stock.StockShard;
+import org.example.kb6spring.domain.stock.StockStreamApplied;
+import org.example.kb6spring.dto.stock.StockHoldDto;
+import org.example.kb6spring.exception.stock.StockHoldNotFoundException;
+import org.example.kb6spring.exception.stock.StockLockException;
+import org.example.kb6spring.exception.stock.StockSoldOutException;
+import org.example.kb6spring.repository.stock.StockLedgerFlushRepository;
+import org.example.kb6spring.repository.stock.StockShardRepository;
+import org.example.kb6spring.repository.stock.StockStreamAppliedRepository;
 import org.example.kb6spring.repository.stock.StockRepository;
+import org.example.kb6spring.util.redis.RedisDistributedLock;
+import org.example.kb6spring.util.redis.RedisKeyspaceManager;
+import org.example.kb6spring.util.redis.RedisScriptRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +44,26 @@ public class StockService {
 
     private final StockRepository stockRepository;
     private final RedisTemplate<String, String> redisTemplate;
+    private final StockLocalLedger stockLocalLedger;
+    private final StockLedgerFlushRepository stockLedgerFlushRepository;
+    private final StockDecrementCoalescer stockDecrementCoalescer;
+    private final StockStreamAppliedRepository stockStreamAppliedRepository;
+    private final StockStrategyRegistry stockStrategyRegistry;
+    private final RedisDistributedLock redisDistributedLock;
+    private final StockContentionTracker stockContentionTracker;
+    private final StockSoldOutCache stockSoldOutCache;
+    private final StockInstrumentation stockInstrumentation;
+    private final StockHoldManager stockHoldManager;
+    private final RedisKeyspaceManager redisKeyspaceManager;
+    private final RedisScriptRegistry redisScriptRegistry;
+    private final StockMovementLog stockMovementLog;
+    private final StockShardRepository stockShardRepository;
+    private final StockShardManager stockShardManager;
+    private final StockAdmissionController stockAdmissionController;
+    private final StockMailbox stockMailbox;
+
+    // 진행 중인 Redis 재고 적재 (stockId 별 하나)
+    private final ConcurrentHashMap<Long, CompletableFuture<Integer>> inflightSyncs = new ConcurrentHashMap<>();
 
     @Lazy
     @Autowired
@@ -33,8 +72,26 @@ public class StockService {
     // Redis 분산락 관련 상수
     private static final String LOCK_PREFIX = "stock:lock:";
     private static final String STOCK_PREFIX = "stock:quantity:";
-    private static final int DEFAULT_LOCK_TIMEOUT = 10; // 10초
-    private static final int DEFAULT_WAIT_TIME = 100; // 100ms
+    private static final int DEFAULT_LOCK_TIMEOUT = 10; // 10초 (보유 중에는 watchdog 이 연장)
+    private static final int DEFAULT_WAIT_TIME = 100; // 재시도 1회당 대기 시간 100ms
+
+    // 재고 선점 최대 유지 시간
+    private static final long MAX_HOLD_TTL_MS = 30 * 60 * 1000L;
+
+    // Redis 재고 적재 대기 (같은 노드의 대기자 / 다른 노드의 적재 확인)
+    private static final long SYNC_WAIT_MS = 3000;
+    private static final long SYNC_POLL_MIN_MS = 10;
+    private static final long SYNC_POLL_MAX_MS = 100;
+
+    // 메일박스 저장 완료 대기
+    private static final long MAILBOX_WAIT_MS = 5000;
+
+    // 낙관락 재시도 백오프
+    private static final long RETRY_BASE_BACKOFF_MS = 5;
+    private static final long RETRY_MAX_BACKOFF_MS = 200;
+
+    // 행 락 대기가 이보다 길면 경합으로 기록 (분할 전환 판단용)
+    private static final long CONTENDED_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
 
     // Lua 스크립트 - 락 해제 시 원자성 보장
     private static final String UNLOCK_SCRIPT =
@@ -44,32 +101,96 @@ public class StockService {
                     "    return 0 " +
                     "end";
 
-    // Lua 스크립트 - 재고 감소 원자성 보장
-    private static final String DECREASE_STOCK_SCRIPT =
+    // Lua 스크립트 - 재고 감소 원자성 보장 (StockAsyncRedisService 와 공용)
+    static final String DECREASE_STOCK_SCRIPT =
+            "local current = tonumber(redis.call('get', KEYS[1])) " +
+                    "if current == nil then " +
+                    "    return -1 " +
+                    "end " +
+                    "if current >= tonumber(ARGV[1]) then " +
+                    "    local newValue = redis.call('decrby', KEYS[1], ARGV[1]) " +
+                    "    return newValue " +
+                    "else " +
+                    "    return -2 " +
+                    "end";
+
+    // Lua 스크립트 - 여러 재고를 모두 확인한 뒤 전부 감소 (하나라도 없거나 부족하면 아무것도 바꾸지 않음)
+    private static final String DECREASE_STOCKS_SCRIPT =
+            "for i = 1, #KEYS do " +
+                    "    local current = tonumber(redis.call('get', KEYS[i])) " +
+                    "    if current == nil then " +
+                    "        return -1 " +
+                    "    end " +
+                    "    if current < tonumber(ARGV[i]) then " +
+                    "        return -2 " +
+                    "    end " +
+                    "end " +
+                    "for i = 1, #KEYS do " +
+                    "    redis.call('decrby', KEYS[i], ARGV[i]) " +
+                    "end " +
+                    "return 1";
+
+    // Lua 스크립트 - 일괄 감소 보상 (캐시가 남아 있는 재고만 복원)
+    private static final String INCREASE_STOCKS_SCRIPT =
+            "for i = 1, #KEYS do " +
+                    "    if redis.call('exists', KEYS[i]) == 1 then " +
+                    "        redis.call('incrby', KEYS[i], ARGV[i]) " +
+                    "    end " +
+                    "end " +
+                    "return 1";
+
+    // Lua 스크립트 - 재고 감소 + 감소 이벤트 스트림 기록을 한 번에 처리
+    private static final String DECREASE_STOCK_AND_APPEND_SCRIPT =
             "local current = tonumber(redis.call('get', KEYS[1])) " +
                     "if current == nil then " +
                     "    return -1 " +
                     "end " +
                     "if current >= tonumber(ARGV[1]) then " +
                     "    local newValue = redis.call('decrby', KEYS[1], ARGV[1]) " +
+                    "    redis.call('xadd', KEYS[2], '*', 'requestId', ARGV[3], 'stockId', ARGV[2], 'quantity', ARGV[1]) " +
                     "    return newValue " +
                     "else " +
                     "    return -2 " +
                     "end";
 
+    // 저장소에 등록한 스크립트 핸들 (SHA1 계산/로드는 저장소가 한 번만 수행)
+    private RedisScriptRegistry.Script<Long> unlockScript;
+    private RedisScriptRegistry.Script<Long> decreaseStockScript;
+    private RedisScriptRegistry.Script<Long> decreaseStocksScript;
+    private RedisScriptRegistry.Script<Long> increaseStocksScript;
+    private RedisScriptRegistry.Script<Long> decreaseStockAndAppendScript;
+
+    @PostConstruct
+    public void registerScripts() {
+        unlockScript = redisScriptRegistry.register("stock:unlock", UNLOCK_SCRIPT, Long.class);
+        decreaseStockScript = redisScriptRegistry.register("stock:decrease", DECREASE_STOCK_SCRIPT, Long.class);
+        decreaseStocksScript = redisScriptRegistry.register("stock:decrease-multi", DECREASE_STOCKS_SCRIPT, Long.class);
+        increaseStocksScript = redisScriptRegistry.register("stock:increase-multi", INCREASE_STOCKS_SCRIPT, Long.class);
+        decreaseStockAndAppendScript =
+                redisScriptRegistry.register("stock:decrease-append", DECREASE_STOCK_AND_APPEND_SCRIPT, Long.class);
+    }
 
     // 낙관락
     @Transactional
     public void decreaseStockWithOptimisticLock(Long stockId, Integer quantity) {
+        rejectIfSoldOut(stockId);
+        long epoch = stockSoldOutCache.epoch();
         Stock stock = stockRepository.findByIdWithOptimisticLock(stockId)
                 .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + stockId));
+        if (stock.getShardCount() != null) {
+            requireShards(stockId, stock.getShardCount(), quantity, epoch);
+            return;
+        }
 
         if (stock.getQuantity() < quantity) {
+            markIfSoldOut(stockId, stock.getQuantity(), epoch);
             throw new IllegalArgumentException("재고가 부족합니다. 현재 재고: " + stock.getQuantity());
         }
 
         stock.setQuantity(stock.getQuantity() - quantity);
         stockRepository.save(stock);
+        recordDecrease(stockId, quantity, stock.getQuantity());
+        markIfSoldOutAfterCommit(stockId, stock.getQuantity(), epoch);
 
         log.info("낙관적 락으로 재고 감소 완료 - ID: {}, 감소량: {}, 남은 재고: {}",
                 stockId, quantity, stock.getQuantity());
@@ -79,43 +200,72 @@ public class StockService {
     // 비관락
     @Transactional
     public void decreaseStockWithPessimisticWriteLock(Long stockId, Integer quantity) {
-        Stock stock = stockRepository.findByIdWithPessimisticWriteLock(stockId)
+        rejectIfSoldOut(stockId);
+        long epoch = stockSoldOutCache.epoch();
+        long waitStart = System.nanoTime();
+        Stock stock = stockInstrumentation.time(StockLatencyPhase.LOCK_WAIT,
+                        () -> stockRepository.findByIdWithPessimisticWriteLock(stockId))
                 .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + stockId));
+        recordRowWait(stockId, System.nanoTime() - waitStart);
+        if (stock.getShardCount() != null) {
+            requireShards(stockId, stock.getShardCount(), quantity, epoch);
+            return;
+        }
 
         if (stock.getQuantity() < quantity) {
+            markIfSoldOut(stockId, stock.getQuantity(), epoch);
             throw new IllegalArgumentException("재고가 부족합니다. 현재 재고: " + stock.getQuantity());
         }
 
         stock.setQuantity(stock.getQuantity() - quantity);
         stockRepository.save(stock);
+        recordDecrease(stockId, quantity, stock.getQuantity());
+        markIfSoldOutAfterCommit(stockId, stock.getQuantity(), epoch);
 
         log.info("비관적 락(쓰기)으로 재고 감소 완료 - ID: {}, 감소량: {}, 남은 재고: {}",
                 stockId, quantity, stock.getQuantity());
     }
 
-    // 낙관락 + 재시도
+    // 낙관락 + 재시도 (지수 백오프 + decorrelated jitter)
+    // 충돌률이 높은 재고는 재시도 폭주 대신 비관락으로 전환
     public void decreaseStockWithOptimisticLockAndRetry(Long stockId, Integer quantity, int maxRetries) {
-        int attempts = 0;
-        while (attempts < maxRetries) {
+        rejectIfSoldOut(stockId);
+        long backoff = RETRY_BASE_BACKOFF_MS;
+
+        for (int attempt = 1; ; attempt++) {
+            if (stockContentionTracker.isHot(stockId)) {
+                log.debug("충돌 과열 재고, 비관적 락으로 처리 - ID: {}", stockId);
+                stockInstrumentation.recordRetries(attempt - 1);
+                stockInstrumentation.time(StockLatencyPhase.TRANSACTION,
+                        () -> self.decreaseStockWithPessimisticWriteLock(stockId, quantity));
+                return;
+            }
+
             try {
                 // self를 통해 호출하여 AOP 프록시 적용
-                self.decreaseStockWithOptimisticLockSingleAttempt(stockId, quantity);
-                log.info("낙관적 락 재시도 성공 - ID: {}, 시도: {}", stockId, attempts + 1);
+                stockInstrumentation.time(StockLatencyPhase.TRANSACTION,
+                        () -> self.decreaseStockWithOptimisticLockSingleAttempt(stockId, quantity));
+                stockContentionTracker.recordSuccess(stockId);
+                stockInstrumentation.recordRetries(attempt - 1);
+                log.info("낙관적 락 재시도 성공 - ID: {}, 시도: {}", stockId, attempt);
                 return;
 
-            } catch (Exception e) {
-                attempts++;
-                log.warn("낙관적 락 충돌 발생. 재시도 {}/{} - ID: {}, 에러: {}",
-                        attempts, maxRetries, stockId, e.getMessage());
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // 버전 충돌만 재시도, 재고 부족 등은 그대로 전파
+                stockContentionTracker.recordConflict(stockId);
+                log.warn("낙관적 락 충돌 발생. 재시도 {}/{} - ID: {}", attempt, maxRetries, stockId);
 
-                if (attempts >= maxRetries) {
+                if (attempt >= maxRetries) {
+                    stockInstrumentation.recordRetries(attempt - 1);
                     log.error("재시도 후에도 실패: {}", e.getMessage());
-                    throw new RuntimeException("최대 재시도 횟수 초과", e);
+                    throw new StockLockException("최대 재시도 횟수 초과", e);
                 }
 
+                // decorrelated jitter: base ~ 직전 대기의 3배 사이 무작위, 상한 적용
+                backoff = Math.min(RETRY_MAX_BACKOFF_MS,
+                        ThreadLocalRandom.current().nextLong(RETRY_BASE_BACKOFF_MS, backoff * 3 + 1));
                 try {
-                    long waitTime = 10 + (attempts * 5);
-                    Thread.sleep(waitTime);
+                    Thread.sleep(backoff);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     throw new RuntimeException("재시도 중 인터럽트 발생", ie);
@@ -126,18 +276,33 @@ public class StockService {
 
     @Transactional // 개별 시도에만 트랜잭션 적용
     public void decreaseStockWithOptimisticLockSingleAttempt(Long stockId, Integer quantity) {
+        long epoch = stockSoldOutCache.epoch();
         Stock stock = stockRepository.findByIdWithOptimisticLock(stockId)
                 .orElseThrow(() -> new IllegalArgumentException("재고를 찾을 수 없습니다: " + stockId));
+        if (stock.getShardCount() != null) {
+            requireShards(stockId, stock.getShardCount(), quantity, epoch);
+            return;
+        }
 
+        if (stock.getQuantity() < quantity) {
+            markIfSoldOut(stockId, stock.getQuantity(), epoch);
+        }
         stock.decrease(quantity);
         stockRepository.save(stock);
+        recordDecrease(stockId, quantity, stock.getQuantity());
+        markIfSoldOutAfterCommit(stockId, stock.getQuantity(), epoch);
     }
 
     // 락 없음
     @Transactional
     public void decreaseStockWithoutLock(Long stockId, Integer quantity) {
+        rejectIfSoldOut(stockId);
         Stock stock = stockRepository.findById(stockId)
                 .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + stockId));
+        if (stock.getShardCount() != null) {
+            requireShards(stockId, stock.getShardCount(), quantity, stockSoldOutCache.epoch());
+            return;
+        }
 
         if (stock.getQuantity() < quantity) {
             throw new IllegalArgumentException("재고가 부족합니다. 현재 재고: " + stock.getQuantity());
@@ -145,6 +310,7 @@ public class StockService {
 
         stock.setQuantity(stock.getQuantity() - quantity);
         stockRepository.save(stock);
+        recordDecrease(stockId, quantity, stock.getQuantity());
 
         log.info("락 없이 재고 감소 완료 - ID: {}, 감소량: {}, 남은 재고: {}",
                 stockId, quantity, stock.getQuantity());
@@ -153,15 +319,195 @@ public class StockService {
     // 원자적
     @Transactional
     public boolean decreaseStockAtomic(Long stockId, Integer quantity) {
-        int updatedRows = stockRepository.decreaseStockAtomic(stockId, quantity);
+        if (stockSoldOutCache.isSoldOut(stockId)) {
+            return false;
+        }
+        long epoch = stockSoldOutCache.epoch();
+        int shardCount = stockShardManager.getShardCount(stockId);
+        if (shardCount == 0) {
+            long waitStart = System.nanoTime();
+            int updatedRows = stockRepository.decreaseStockAtomic(stockId, quantity);
+            recordRowWait(stockId, System.nanoTime() - waitStart);
+
+            if (updatedRows > 0) {
+                recordDecrease(stockId, quantity, null);
+                log.info("재고 감소 성공: stockId={}, quantity={}", stockId, quantity);
+                return true;
+            }
+            // 분할 전환 알림 전이면 재고 행 UPDATE 가 걸리지 않음 - DB 에서 분할 여부 확인
+            shardCount = stockRepository.findShardCountById(stockId).orElse(0);
+            if (shardCount == 0) {
+                log.warn("재고 감소 실패: stockId={}, quantity={} (재고 부족 또는 존재하지 않음)", stockId, quantity);
+                // 실패한 경우에만 남은 수량을 확인해 품절 등록 (이후 요청은 쿼리 없이 거절)
+                stockRepository.findQuantityById(stockId)
+                        .ifPresent(remaining -> markIfSoldOut(stockId, remaining, epoch));
+                return false;
+            }
+        }
+        return decreaseShards(stockId, shardCount, quantity, epoch);
+    }
 
-        if (updatedRows > 0) {
-            log.info("재고 감소 성공: stockId={}, quantity={}", stockId, quantity);
-            return true;
-        } else {
-            log.warn("재고 감소 실패: stockId={}, quantity={} (재고 부족 또는 존재하지 않음)", stockId, quantity);
+    // 원자적 + 요청 병합 - 같은 재고의 동시 요청을 UPDATE 한 번으로 처리
+    public boolean decreaseStockWithCoalescing(Long stockId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("감소량은 0보다 커야 합니다: " + quantity);
+        }
+        if (stockSoldOutCache.isSoldOut(stockId)) {
             return false;
         }
+        return stockDecrementCoalescer.decrease(stockId, quantity);
+    }
+
+    // 병합된 요청 일괄 감소 - 요청 순서대로 채울 수 있는 만큼만 성공 처리
+    @Transactional
+    public boolean[] decreaseStockAtomicBatch(Long stockId, List<Integer> quantities) {
+        long epoch = stockSoldOutCache.epoch();
+        boolean[] accepted = new boolean[quantities.size()];
+        int total = 0;
+        for (Integer quantity : quantities) {
+            total += quantity;
+        }
+
+        int shardCount = stockShardManager.getShardCount(stockId);
+        if (shardCount == 0) {
+            // 대부분의 경우: 전체 합계를 한 번에 차감
+            if (stockRepository.decreaseStockAtomic(stockId, total) > 0) {
+                Arrays.fill(accepted, true);
+                recordDecrease(stockId, total, null);
+                log.debug("병합 재고 감소 성공 - ID: {}, 요청 수: {}, 감소량: {}", stockId, quantities.size(), total);
+                return accepted;
+            }
+
+            // 재고가 모자라면 행을 잠그고 남은 수량 안에서 부분 처리
+            Stock stock = stockInstrumentation.time(StockLatencyPhase.LOCK_WAIT,
+                    () -> stockRepository.findByIdWithPessimisticWriteLock(stockId)).orElse(null);
+            if (stock == null) {
+                log.warn("병합 재고 감소 실패 - 재고 없음: stockId={}", stockId);
+                return accepted;
+            }
+            if (stock.getShardCount() == null) {
+                return decreaseLockedRowPartially(stock, quantities, accepted, total, epoch);
+            }
+            shardCount = stock.getShardCount();
+        }
+
+        // 분할된 재고 - 요청 순서대로 분할 카운터에서 차감
+        for (int i = 0; i < quantities.size(); i++) {
+            accepted[i] = decreaseShards(stockId, shardCount, quantities.get(i), epoch);
+        }
+        return accepted;
+    }
+
+    // 잠근 재고 행의 남은 수량 안에서 요청 순서대로 채울 수 있는 만큼만 차감
+    private boolean[] decreaseLockedRowPartially(Stock stock, List<Integer> quantities, boolean[] accepted,
+                                                 int total, long epoch) {
+        Long stockId = stock.getId();
+        int remaining = stock.getQuantity();
+        int acceptedTotal = 0;
+        for (int i = 0; i < quantities.size(); i++) {
+            if (quantities.get(i) <= remaining) {
+                accepted[i] = true;
+                remaining -= quantities.get(i);
+                acceptedTotal += quantities.get(i);
+            }
+        }
+
+        if (acceptedTotal > 0) {
+            stockRepository.decreaseStockAtomic(stockId, acceptedTotal);
+            recordDecrease(stockId, acceptedTotal, remaining);
+        }
+        markIfSoldOutAfterCommit(stockId, remaining, epoch);
+        log.info("병합 재고 부분 감소 - ID: {}, 요청 수: {}, 감소량: {}/{}",
+                stockId, quantities.size(), acceptedTotal, total);
+        return accepted;
+    }
+
+    // 장바구니 일괄 감소 - 조건부 UPDATE 한 번으로 처리, 하나라도 부족하면 전체 롤백
+    @Transactional
+    public void decreaseStocks(Map<Long, Integer> quantities) {
+        validateOrder(quantities);
+        long epoch = stockSoldOutCache.epoch();
+
+        // 분할된 재고는 재고 행이 분할 합계로 덮어써지므로 분할 카운터에서 따로 차감
+        Map<Long, Integer> rows = new TreeMap<>();
+        Map<Long, Integer> sharded = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            (stockShardManager.isSharded(entry.getKey()) ? sharded : rows).put(entry.getKey(), entry.getValue());
+        }
+
+        // 분할 전환 알림 전이라 행으로 보낸 분할 재고는 UPDATE 에 걸리지 않아 주문 실패로 끝남 (차감이 사라지지는 않음)
+        int updatedRows = rows.isEmpty() ? 0 : stockRepository.decreaseStocksAtomic(rows);
+        if (updatedRows != rows.size()) {
+            log.warn("일괄 재고 감소 실패 - 요청 상품: {}, 감소 가능: {}", rows.size(), updatedRows);
+            throw new IllegalArgumentException("재고가 부족하거나 없는 상품이 있습니다. 요청: " + new TreeMap<>(quantities));
+        }
+        for (Map.Entry<Long, Integer> entry : rows.entrySet()) {
+            recordDecrease(entry.getKey(), entry.getValue(), null);
+        }
+        for (Map.Entry<Long, Integer> entry : sharded.entrySet()) {
+            requireShards(entry.getKey(), stockShardManager.getShardCount(entry.getKey()), entry.getValue(), epoch);
+        }
+        log.info("일괄 재고 감소 완료 - 상품 수: {}", quantities.size());
+    }
+
+    // 장바구니 일괄 감소 (Redis) - Lua 스크립트 한 번으로 전부 감소 후 DB 도 UPDATE 한 번으로 반영
+    public void decreaseStocksWithRedis(Map<Long, Integer> quantities) {
+        validateOrder(quantities);
+
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+        List<String> keys = new ArrayList<>(sorted.size());
+        List<String> args = new ArrayList<>(sorted.size());
+        for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+            keys.add(STOCK_PREFIX + entry.getKey());
+            args.add(entry.getValue().toString());
+        }
+
+        for (int retry = 0; retry < 2; retry++) {
+            Long result = stockInstrumentation.time(StockLatencyPhase.REDIS_SCRIPT,
+                    () -> redisScriptRegistry.execute(decreaseStocksScript, keys, args.toArray()));
+
+            if (result == null || result == -1) {
+                if (retry == 0) {
+                    synchronizeMissingStocksToRedis(sorted.keySet());
+                    continue;
+                }
+                throw new EntityNotFoundException("Stock synchronization failed: " + sorted.keySet());
+            }
+
+            if (result == -2) {
+                throw new IllegalArgumentException("재고가 부족한 상품이 있습니다. 요청: " + sorted);
+            }
+            break;
+        }
+
+        try {
+            stockInstrumentation.time(StockLatencyPhase.TRANSACTION, () -> self.decreaseStocks(sorted));
+        } catch (Exception e) {
+            log.warn("일괄 DB 반영 실패, Redis 보상 처리 - 요청: {}", sorted);
+            redisScriptRegistry.execute(increaseStocksScript, keys, args.toArray());
+            throw e;
+        }
+    }
+
+    private void validateOrder(Map<Long, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            throw new IllegalArgumentException("감소할 상품이 없습니다.");
+        }
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                throw new IllegalArgumentException("감소량은 0보다 커야 합니다: " + entry);
+            }
+            // 품절 상품이 하나라도 있으면 락/쿼리 없이 거절
+            rejectIfSoldOut(entry.getKey());
+        }
+    }
+
+    private void synchronizeMissingStocksToRedis(Collection<Long> stockIds) {
+        for (Long stockId : stockIds) {
+            if (redisTemplate.opsForValue().get(STOCK_PREFIX + stockId) == null) {
+                synchronizeStockToRedis(stockId);
+            }
+        }
     }
 
     // 재고 생성
@@ -173,7 +519,11 @@ public class StockService {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        return stockRepository.save(stock);
+        Stock saved = stockRepository.save(stock);
+        recordSet(saved.getId(), null, quantity);
+        // 이전 컨텍스트에서 같은 ID 가 품절 처리됐을 수 있음
+        runAfterCommit(() -> stockSoldOutCache.invalidate(saved.getId()));
+        return saved;
     }
 
     // 재고 조회
@@ -189,88 +539,236 @@ public class StockService {
         Stock stock = stockRepository.findById(stockId)
                 .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + stockId));
 
+        Integer before;
+        if (stock.getShardCount() != null) {
+            // 분할된 재고는 분할 카운터에 다시 나눠 담음
+            List<StockShard> shards = stockShardRepository.findAllForUpdate(stockId);
+            before = 0;
+            for (StockShard shard : shards) {
+                before += shard.getQuantity();
+            }
+            distribute(shards, quantity);
+        } else {
+            before = stock.getQuantity();
+        }
+        // 분할된 재고도 재고 행을 합계와 같게 유지
         stock.setQuantity(quantity);
         stockRepository.save(stock);
+        recordSet(stockId, before, quantity);
+
+        // 커밋 이후 원장을 비워야 새 수량으로 다시 적재됨
+        runAfterCommit(() -> {
+            stockLocalLedger.evict(stockId);
+            stockMailbox.evict(stockId);
+            stockSoldOutCache.invalidate(stockId);
+        });
     }
 
-    // Redis 분산락을 사용한 재고 감소
-    public void decreaseStockWithRedisDistributedLock(Long stockId, Integer quantity) {
-        String lockKey = LOCK_PREFIX + stockId;
-        String lockValue = UUID.randomUUID().toString();
-
-        long startTime = System.currentTimeMillis();
+    // 재고별 단일 작성자 메일박스 - 락 없이 재고별 순서대로 처리하고, 저장이 끝날 때까지 대기
+    public void decreaseStockWithMailbox(Long stockId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("감소량은 0보다 커야 합니다: " + quantity);
+        }
+        rejectIfSoldOut(stockId);
+        long epoch = stockSoldOutCache.epoch();
+        int remaining;
+        try {
+            remaining = awaitMailbox(stockId, stockMailbox.decrease(stockId, quantity));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                // 재고 부족 - 메모리 수량이 0 이면 품절 등록
+                markIfSoldOut(stockId, stockRepository.findQuantityById(stockId).orElse(null), epoch);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        markIfSoldOut(stockId, remaining, epoch);
+    }
 
+    // 메일박스 대기 - 시간 안에 끝나지 않으면 요청을 취소하고, 이미 저장 중이라 취소할 수 없으면 결과가 정해질 때까지 대기
+    private int awaitMailbox(Long stockId, CompletableFuture<Integer> pending) throws ExecutionException {
+        boolean interrupted = false;
         try {
-            // 락 획득 시도
-            if (acquireLock(lockKey, lockValue, DEFAULT_LOCK_TIMEOUT)) {
+            try {
+                return pending.get(MAILBOX_WAIT_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.cancel(false)) {
+                    throw new StockLockException("메일박스 처리 대기 시간 초과(요청 취소됨) - stockId: " + stockId, e);
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+                if (pending.cancel(false)) {
+                    throw new StockLockException("메일박스 처리 대기 중 인터럽트 발생(요청 취소됨)", e);
+                }
+            }
+            while (true) {
                 try {
-                    // 비즈니스 로직 실행
-                    self.decreaseStockWithTransaction(stockId, quantity);
+                    return pending.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 
-                    log.info("Redis 분산락으로 재고 감소 완료 - ID: {}, 감소량: {}, 소요시간: {}ms",
-                            stockId, quantity, System.currentTimeMillis() - startTime);
+    // 메일박스 묶음 저장 - 재고별 총 감소량을 재고 ID 순서로 조건부 상대 감소
+    // 다른 전략/노드가 같은 행을 수정했어도 덮어쓰지 않으며, 수량이 모자라 반영하지 못한 재고 ID 를 반환
+    @Transactional
+    public Set<Long> applyMailboxBatch(Map<Long, Integer> decreased) {
+        long epoch = stockSoldOutCache.epoch();
+        Set<Long> conflicted = new HashSet<>();
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(decreased).entrySet()) {
+            if (!decreaseQuantity(entry.getKey(), entry.getValue(), epoch)) {
+                conflicted.add(entry.getKey());
+            }
+        }
+        return conflicted;
+    }
 
-                } finally {
-                    // 락 해제
-                    releaseLock(lockKey, lockValue);
-                }
-            } else {
-                throw new RuntimeException("락 획득 실패 - stockId: " + stockId);
+    // 로컬 원장 (write-behind) - DB 반영은 StockLocalLedger 가 주기적으로 일괄 처리
+    public boolean decreaseStockWithLocalLedger(Long stockId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("감소량은 0보다 커야 합니다: " + quantity);
+        }
+
+        if (stockSoldOutCache.isSoldOut(stockId)) {
+            return false;
+        }
+        long epoch = stockSoldOutCache.epoch();
+        boolean accepted = stockLocalLedger.tryDecrease(stockId, quantity);
+        if (!accepted) {
+            log.debug("로컬 원장 재고 부족 - ID: {}, 요청 수량: {}", stockId, quantity);
+            markIfSoldOut(stockId, stockLocalLedger.getAvailable(stockId), epoch);
+        }
+        return accepted;
+    }
+
+    // 로컬 원장 배치 반영 - batchId 마커로 재반영 시 중복 차감 방지
+    @Transactional
+    public void applyLedgerBatch(String batchId, Map<Long, Integer> deltas) {
+        if (stockLedgerFlushRepository.existsById(batchId)) {
+            log.info("이미 반영된 원장 배치 - batchId: {}", batchId);
+            return;
+        }
+
+        // 재고 ID 순서로 갱신해 다른 배치와의 데드락 방지
+        long epoch = stockSoldOutCache.epoch();
+        for (Map.Entry<Long, Integer> delta : new TreeMap<>(deltas).entrySet()) {
+            if (!decreaseQuantity(delta.getKey(), delta.getValue(), epoch)) {
+                // 다른 경로에서 DB 재고가 먼저 소진된 경우 - 이미 판매된 수량이므로 남은 만큼 차감하고 부족분은 기록,
+                // 원장은 DB 기준(0)으로 다시 적재
+                Long stockId = delta.getKey();
+                int shortfall = drainForLedger(stockId, delta.getValue(), epoch);
+                log.error("원장 반영 재고 부족(초과 판매) - ID: {}, 판매: {}, 부족: {}, batchId: {}",
+                        stockId, delta.getValue(), shortfall, batchId);
+                runAfterCommit(() -> stockLocalLedger.evict(stockId));
             }
+        }
+
+        stockLedgerFlushRepository.save(new StockLedgerFlush(batchId, LocalDateTime.now()));
+        log.debug("원장 배치 반영 완료 - batchId: {}, 재고 수: {}", batchId, deltas.size());
+    }
+
+    // 남은 재고를 모두 차감하고, 모자란 수량은 부족분(SHORTFALL)으로 기록 - 부족분 반환
+    private int drainForLedger(Long stockId, int amount, long epoch) {
+        Stock stock = stockRepository.findByIdWithPessimisticWriteLock(stockId).orElse(null);
+        int taken = 0;
+        if (stock != null && stock.getShardCount() != null) {
+            for (StockShard shard : stockShardRepository.findAllForUpdate(stockId)) {
+                int take = Math.min(amount - taken, shard.getQuantity());
+                shard.setQuantity(shard.getQuantity() - take);
+                taken += take;
+            }
+        } else if (stock != null) {
+            taken = Math.min(amount, stock.getQuantity());
+            stock.setQuantity(stock.getQuantity() - taken);
+            stockRepository.save(stock);
+        }
+
+        if (taken > 0) {
+            recordDecrease(stockId, taken, stock.getShardCount() != null ? null : stock.getQuantity());
+        }
+        stockMovementLog.shortfall(stockId, amount - taken);
+        if (stock != null) {
+            runAfterCommit(() -> stockSoldOutCache.markSoldOut(stockId, epoch));
+        }
+        return amount - taken;
+    }
+
+    // Redis 분산락을 사용한 재고 감소 (대기 없이 한 번만 시도)
+    public void decreaseStockWithRedisDistributedLock(Long stockId, Integer quantity) {
+        String lockKey = LOCK_PREFIX + stockId;
+        long startTime = System.currentTimeMillis();
+
+        try {
+            decreaseStockUnderRedisLock(stockId, quantity, lockKey, 0);
+
+            log.info("Redis 분산락으로 재고 감소 완료 - ID: {}, 감소량: {}, 소요시간: {}ms",
+                    stockId, quantity, System.currentTimeMillis() - startTime);
         } catch (Exception e) {
             log.error("Redis 분산락 재고 감소 실패 - ID: {}, 에러: {}", stockId, e.getMessage());
             throw e;
         }
     }
 
-    // Redis 분산락 + 재시도 메커니즘
+    // Redis 분산락 + 대기 - 해제 알림(pub/sub)으로 깨어나 도착 순서대로 획득
     public void decreaseStockWithRedisDistributedLockAndRetry(Long stockId, Integer quantity, int maxRetries) {
         String lockKey = LOCK_PREFIX + stockId;
         long startTime = System.currentTimeMillis();
 
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            String lockValue = UUID.randomUUID().toString();
-
-            try {
-                if (acquireLock(lockKey, lockValue, DEFAULT_LOCK_TIMEOUT)) {
-                    try {
-                        self.decreaseStockWithTransaction(stockId, quantity);
-
-                        log.info("Redis 분산락 재시도 성공 - ID: {}, 시도: {}/{}, 소요시간: {}ms",
-                                stockId, attempt, maxRetries, System.currentTimeMillis() - startTime);
-                        return;
-
-                    } finally {
-                        releaseLock(lockKey, lockValue);
-                    }
-                }
+        try {
+            // 기존 폴링 방식과 같은 최대 대기 시간 (재시도 횟수 x 대기 간격)
+            decreaseStockUnderRedisLock(stockId, quantity, lockKey, (long) maxRetries * DEFAULT_WAIT_TIME);
+
+            log.info("Redis 분산락 대기 후 성공 - ID: {}, 소요시간: {}ms",
+                    stockId, System.currentTimeMillis() - startTime);
+        } catch (StockLockException e) {
+            log.warn("Redis 분산락 대기 시간 초과 - ID: {}, 대기: {}ms", stockId, System.currentTimeMillis() - startTime);
+            throw new StockLockException("최대 재시도 횟수 초과 - stockId: " + stockId, e);
+        } catch (Exception e) {
+            log.error("Redis 분산락 처리 중 오류 발생 - ID: {}, 에러: {}", stockId, e.getMessage());
+            throw e;
+        }
+    }
 
-                // 락 획득 실패 시 잠시 대기
-                if (attempt < maxRetries) {
-                    Thread.sleep(DEFAULT_WAIT_TIME);
-                    log.warn("Redis 분산락 획득 실패, 재시도 {}/{} - ID: {}",
-                            attempt, maxRetries, stockId);
-                }
+    private void decreaseStockUnderRedisLock(Long stockId, Integer quantity, String lockKey, long waitMillis) {
+        // 품절이면 락 대기열에 서지 않음
+        rejectIfSoldOut(stockId);
+        boolean locked;
+        long waitStart = System.nanoTime();
+        try {
+            locked = redisDistributedLock.tryLock(lockKey, waitMillis, DEFAULT_LOCK_TIMEOUT * 1000L, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("락 대기 중 인터럽트 발생", e);
+        } finally {
+            stockInstrumentation.record(StockLatencyPhase.LOCK_WAIT, System.nanoTime() - waitStart);
+        }
 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("재시도 중 인터럽트 발생", e);
-            } catch (Exception e) {
-                log.error("Redis 분산락 처리 중 오류 발생 - ID: {}, 시도: {}, 에러: {}",
-                        stockId, attempt, e.getMessage());
-                if (attempt == maxRetries) {
-                    throw e;
-                }
-            }
+        if (!locked) {
+            throw new StockLockException("락 획득 실패 - stockId: " + stockId);
         }
 
-        throw new RuntimeException("최대 재시도 횟수 초과 - stockId: " + stockId);
+        try {
+            stockInstrumentation.time(StockLatencyPhase.TRANSACTION,
+                    () -> self.decreaseStockWithTransaction(stockId, quantity));
+        } finally {
+            redisDistributedLock.unlock(lockKey);
+        }
     }
 
     // 개선된 Redis 직접 관리 메서드
     public void decreaseStockWithRedisDirectManagement(Long stockId, Integer quantity) {
+        rejectIfSoldOut(stockId);
         String stockKey = STOCK_PREFIX + stockId;
         long startTime = System.currentTimeMillis();
+        long epoch = stockSoldOutCache.epoch();
 
         try {
             Long result = null;
@@ -278,8 +776,9 @@ public class StockService {
 
             for (int retry = 0; retry < maxRetries; retry++) {
                 // Redis에서 원자적 재고 감소
-                DefaultRedisScript<Long> script = new DefaultRedisScript<>(DECREASE_STOCK_SCRIPT, Long.class);
-                result = redisTemplate.execute(script, Collections.singletonList(stockKey), quantity.toString());
+                result = stockInstrumentation.time(StockLatencyPhase.REDIS_SCRIPT,
+                        () -> redisScriptRegistry.execute(decreaseStockScript,
+                                Collections.singletonList(stockKey), quantity.toString()));
 
                 if (result == null || result == -1) {
                     if (retry == 0) {
@@ -292,22 +791,26 @@ public class StockService {
                 }
 
                 if (result == -2) {
+                    markIfRedisSoldOut(stockId, epoch);
                     throw new IllegalArgumentException("재고가 부족합니다. stockId: " + stockId);
                 }
 
                 // 성공적으로 처리됨
+                stockInstrumentation.recordRetries(retry);
                 break;
             }
 
             // DB 동기화 (상대적 감소)
             try {
-                self.decreaseStockInDatabaseByAmount(stockId, quantity);
+                stockInstrumentation.time(StockLatencyPhase.TRANSACTION,
+                        () -> self.decreaseStockInDatabaseByAmount(stockId, quantity));
             } catch (Exception e) {
                 log.warn("DB 업데이트 실패, Redis 보상 처리 - ID: {}", stockId);
                 redisTemplate.opsForValue().increment(stockKey, quantity);
                 throw e;
             }
 
+            markIfSoldOut(stockId, result, epoch);
             log.info("Redis 직접 관리로 재고 감소 완료 - ID: {}, 감소량: {}, 남은 재고: {}, 소요시간: {}ms",
                     stockId, quantity, result, System.currentTimeMillis() - startTime);
 
@@ -317,103 +820,282 @@ public class StockService {
         }
     }
 
-    // 새로운 메서드: 상대적 감소
+    // Redis 직접 관리 + 스트림 비동기 DB 반영 - 요청 경로는 Redis 왕복 한 번
+    public void decreaseStockWithRedisStream(Long stockId, Integer quantity) {
+        rejectIfSoldOut(stockId);
+        long epoch = stockSoldOutCache.epoch();
+        String stockKey = STOCK_PREFIX + stockId;
+        // 재전달 시 중복 반영을 막는 멱등 키
+        String requestId = UUID.randomUUID().toString();
+        List<String> keys = Arrays.asList(stockKey, StockStreamReconciler.STREAM_KEY);
+
+        Long result = null;
+        for (int retry = 0; retry < 2; retry++) {
+            result = stockInstrumentation.time(StockLatencyPhase.REDIS_SCRIPT,
+                    () -> redisScriptRegistry.execute(decreaseStockAndAppendScript,
+                            keys, quantity.toString(), stockId.toString(), requestId));
+
+            if (result == null || result == -1) {
+                if (retry == 0) {
+                    synchronizeStockToRedis(stockId);
+                    continue;
+                }
+                throw new EntityNotFoundException("Stock synchronization failed: " + stockId);
+            }
+
+            if (result == -2) {
+                markIfRedisSoldOut(stockId, epoch);
+                throw new IllegalArgumentException("재고가 부족합니다. stockId: " + stockId);
+            }
+            break;
+        }
+        markIfSoldOut(stockId, result, epoch);
+
+        log.debug("Redis 스트림 모드 재고 감소 - ID: {}, 감소량: {}, 남은 재고: {}, requestId: {}",
+                stockId, quantity, result, requestId);
+    }
+
+    // 스트림 이벤트 일괄 DB 반영 - 이미 반영된 requestId 는 건너뜀
     @Transactional
-    public void decreaseStockInDatabaseByAmount(Long stockId, Integer quantity) {
-        try {
-            int updatedRows = stockRepository.decreaseStockByAmount(stockId, quantity);
-            if (updatedRows == 0) {
-                throw new EntityNotFoundException("Stock not found or insufficient quantity: " + stockId);
+    public void applyStockStreamBatch(List<StockStreamEvent> events) {
+        List<String> requestIds = new ArrayList<>(events.size());
+        for (StockStreamEvent event : events) {
+            requestIds.add(event.getRequestId());
+        }
+
+        Set<String> applied = new HashSet<>();
+        for (StockStreamApplied marker : stockStreamAppliedRepository.findAllById(requestIds)) {
+            applied.add(marker.getRequestId());
+        }
+
+        Map<Long, Integer> deltas = new TreeMap<>();
+        List<StockStreamApplied> markers = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (StockStreamEvent event : events) {
+            // 같은 배치 안의 중복도 함께 걸러냄
+            if (!applied.add(event.getRequestId())) {
+                continue;
             }
-            log.debug("DB 재고 감소 완료 - ID: {}, 감소량: {}", stockId, quantity);
-        } catch (Exception e) {
-            log.error("DB 재고 감소 실패 - ID: {}, 에러: {}", stockId, e.getMessage());
-            throw e;
+            deltas.merge(event.getStockId(), event.getQuantity(), Integer::sum);
+            markers.add(new StockStreamApplied(event.getRequestId(), event.getStockId(), now));
         }
+
+        // 재고 ID 순서로 갱신해 데드락 방지
+        long epoch = stockSoldOutCache.epoch();
+        for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+            if (!decreaseQuantity(delta.getKey(), delta.getValue(), epoch)) {
+                // Redis 가 이미 판매를 확정했으므로 재시도하지 않고 불일치만 기록
+                log.error("스트림 반영 실패(DB 재고 부족 또는 없음) - ID: {}, 감소량: {}",
+                        delta.getKey(), delta.getValue());
+            }
+        }
+
+        stockStreamAppliedRepository.saveAll(markers);
+        log.debug("스트림 배치 반영 완료 - 이벤트: {}, 재고 수: {}", markers.size(), deltas.size());
     }
 
-    // Redis 분산락 획득
-    private boolean acquireLock(String lockKey, String lockValue, int timeoutSeconds) {
+    // 재고 선점 - Redis 재고만 차감하고, DB 는 확정될 때 반영
+    public StockHoldDto reserveStock(Long stockId, Integer quantity, long ttlMillis) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("선점 수량은 0보다 커야 합니다: " + quantity);
+        }
+        if (ttlMillis <= 0 || ttlMillis > MAX_HOLD_TTL_MS) {
+            throw new IllegalArgumentException("선점 시간은 0 ~ " + MAX_HOLD_TTL_MS + "ms 사이여야 합니다: " + ttlMillis);
+        }
+        rejectIfSoldOut(stockId);
+
+        String holdId = UUID.randomUUID().toString();
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        for (int retry = 0; retry < 2; retry++) {
+            Long result = stockHoldManager.reserve(holdId, stockId, quantity, ttlMillis);
+
+            if (result == null || result == -1) {
+                if (retry == 0) {
+                    synchronizeStockToRedis(stockId);
+                    continue;
+                }
+                throw new EntityNotFoundException("Stock synchronization failed: " + stockId);
+            }
+
+            if (result == -2) {
+                throw new IllegalArgumentException("재고가 부족합니다. stockId: " + stockId);
+            }
+
+            log.debug("재고 선점 - ID: {}, 수량: {}, 남은 재고: {}, holdId: {}", stockId, quantity, result, holdId);
+            break;
+        }
+
+        return StockHoldDto.builder()
+                .holdId(holdId)
+                .stockId(stockId)
+                .quantity(quantity)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    // 선점 확정 - 확정된 수량만 DB 에 반영
+    public void commitReservation(String holdId) {
+        long[] hold = stockHoldManager.claim(holdId);
+        if (hold == null) {
+            throw new StockHoldNotFoundException(holdId);
+        }
+
+        Long stockId = hold[0];
+        int quantity = (int) hold[1];
         try {
-            Boolean result = redisTemplate.opsForValue()
-                    .setIfAbsent(lockKey, lockValue, timeoutSeconds, TimeUnit.SECONDS);
-            return result != null && result;
+            self.decreaseStockInDatabaseByAmount(stockId, quantity);
         } catch (Exception e) {
-            log.error("락 획득 실패: {}", e.getMessage());
-            return false;
+            log.warn("선점 확정 DB 반영 실패, Redis 재고 복원 - ID: {}, holdId: {}", stockId, holdId);
+            stockHoldManager.restore(stockId, quantity);
+            throw e;
+        } finally {
+            // DB 반영 여부가 정해진 뒤에 선점 합계에서 제거 (그 전에 재적재하면 선점분으로 빠짐)
+            stockHoldManager.settle(holdId);
+        }
+        log.info("재고 선점 확정 - ID: {}, 수량: {}, holdId: {}", stockId, quantity, holdId);
+    }
+
+    // 선점 해제 - 이미 만료/확정된 선점이면 false
+    public boolean releaseReservation(String holdId) {
+        long released = stockHoldManager.release(holdId);
+        if (released > 0) {
+            log.debug("재고 선점 해제 - holdId: {}, 수량: {}", holdId, released);
         }
+        return released > 0;
     }
 
-    // Redis 분산락 해제
-    private void releaseLock(String lockKey, String lockValue) {
+    // 새로운 메서드: 상대적 감소
+    @Transactional
+    public void decreaseStockInDatabaseByAmount(Long stockId, Integer quantity) {
         try {
-            DefaultRedisScript<Long> script = new DefaultRedisScript<>(UNLOCK_SCRIPT, Long.class);
-            redisTemplate.execute(script, Collections.singletonList(lockKey), lockValue);
+            if (!decreaseQuantity(stockId, quantity, stockSoldOutCache.epoch())) {
+                throw new EntityNotFoundException("Stock not found or insufficient quantity: " + stockId);
+            }
+            log.debug("DB 재고 감소 완료 - ID: {}, 감소량: {}", stockId, quantity);
         } catch (Exception e) {
-            log.error("락 해제 실패: {}", e.getMessage());
+            log.error("DB 재고 감소 실패 - ID: {}, 에러: {}", stockId, e.getMessage());
+            throw e;
         }
     }
 
     // 트랜잭션 내에서 재고 감소
     @Transactional
     public void decreaseStockWithTransaction(Long stockId, Integer quantity) {
+        long epoch = stockSoldOutCache.epoch();
         Stock stock = stockRepository.findById(stockId)
                 .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + stockId));
+        if (stock.getShardCount() != null) {
+            requireShards(stockId, stock.getShardCount(), quantity, epoch);
+            return;
+        }
 
         if (stock.getQuantity() < quantity) {
+            markIfSoldOut(stockId, stock.getQuantity(), epoch);
             throw new IllegalArgumentException("재고가 부족합니다. 현재 재고: " + stock.getQuantity());
         }
 
         stock.setQuantity(stock.getQuantity() - quantity);
         stockRepository.save(stock);
+        recordDecrease(stockId, quantity, stock.getQuantity());
+        markIfSoldOutAfterCommit(stockId, stock.getQuantity(), epoch);
     }
 
-    // 동기화 락을 사용한 안전한 Redis 동기화
-    private void synchronizeStockToRedis(Long stockId) {
+    // Redis 재고 적재 (single-flight)
+    // - 같은 JVM 안에서는 먼저 온 요청 하나만 적재하고 나머지는 그 결과를 기다린다
+    // - 노드 간에는 동기화 락으로 한 노드만 DB 를 읽고, 나머지 노드는 적재된 값이 보일 때까지 제한 시간 동안 확인한다
+    // - 비동기 경로(StockAsyncRedisService)도 같은 적재를 DB 스레드풀에서 호출한다
+    void synchronizeStockToRedis(Long stockId) {
+        CompletableFuture<Integer> mine = new CompletableFuture<>();
+        CompletableFuture<Integer> inflight = inflightSyncs.putIfAbsent(stockId, mine);
+        if (inflight != null) {
+            awaitSync(stockId, inflight);
+            return;
+        }
+
+        try {
+            mine.complete(loadStockToRedis(stockId));
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            log.error("재고 Redis 동기화 실패 - ID: {}, 에러: {}", stockId, e.getMessage());
+            throw e;
+        } finally {
+            inflightSyncs.remove(stockId, mine);
+        }
+    }
+
+    private void awaitSync(Long stockId, CompletableFuture<Integer> inflight) {
+        try {
+            Integer quantity = inflight.get(SYNC_WAIT_MS, TimeUnit.MILLISECONDS);
+            log.debug("다른 스레드가 이미 동기화 완료 - ID: {}, 재고: {}", stockId, quantity);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("동기화 중 인터럽트 발생", e);
+        } catch (TimeoutException e) {
+            throw new StockLockException("재고 동기화 대기 시간 초과 - ID: " + stockId);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("재고 동기화 실패 - ID: " + stockId, e.getCause());
+        }
+    }
+
+    // 동기화 락을 잡은 노드만 DB 를 읽어 적재, 적재된 수량 반환
+    private Integer loadStockToRedis(Long stockId) {
         String syncLockKey = "sync:lock:" + stockId;
         String syncLockValue = UUID.randomUUID().toString();
+        String stockKey = STOCK_PREFIX + stockId;
+        long deadline = System.currentTimeMillis() + SYNC_WAIT_MS;
+        long backoff = SYNC_POLL_MIN_MS;
 
-        try {
+        while (true) {
             // 동기화 락 획득 시도 (5초 타임아웃)
             Boolean lockAcquired = redisTemplate.opsForValue()
                     .setIfAbsent(syncLockKey, syncLockValue, 5, TimeUnit.SECONDS);
 
             if (lockAcquired != null && lockAcquired) {
                 try {
-                    // 락을 획득한 스레드만 동기화 수행
+                    // 선점분은 Redis 재고에서만 빠져 있으므로 DB 수량에서 뺌 (DB 보다 먼저 읽어야 초과 판매 쪽으로 어긋나지 않음)
+                    long held = stockHoldManager.heldQuantity(stockId);
                     Stock stock = stockRepository.findById(stockId)
                             .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + stockId));
+                    String available = String.valueOf(Math.max(0, stock.getQuantity() - held));
+
+                    // 락을 기다리는 사이 다른 경로가 적재했으면 그 값을 유지 (이후 차감분을 덮어쓰지 않도록)
+                    Boolean loaded = redisTemplate.opsForValue().setIfAbsent(stockKey, available);
+                    if (loaded == null || !loaded) {
+                        String cachedValue = redisTemplate.opsForValue().get(stockKey);
+                        if (cachedValue != null) {
+                            return Integer.parseInt(cachedValue);
+                        }
+                        redisTemplate.opsForValue().set(stockKey, available);
+                    }
 
-                    String stockKey = STOCK_PREFIX + stockId;
-                    redisTemplate.opsForValue().set(stockKey, stock.getQuantity().toString());
-
-                    log.info("재고 정보 Redis 동기화 완료 - ID: {}, 재고: {}", stockId, stock.getQuantity());
+                    log.info("재고 정보 Redis 동기화 완료 - ID: {}, 재고: {}, 선점: {}", stockId, stock.getQuantity(), held);
+                    return Integer.valueOf(available);
                 } finally {
                     // 동기화 락 해제
-                    DefaultRedisScript<Long> script = new DefaultRedisScript<>(UNLOCK_SCRIPT, Long.class);
-                    redisTemplate.execute(script, Collections.singletonList(syncLockKey), syncLockValue);
+                    redisScriptRegistry.execute(unlockScript, Collections.singletonList(syncLockKey), syncLockValue);
                 }
-            } else {
-                // 다른 스레드가 이미 동기화 중이므로 잠시 대기 후 재시도
-                Thread.sleep(100);
+            }
 
-                // Redis에 값이 설정되었는지 확인
-                String stockKey = STOCK_PREFIX + stockId;
-                String cachedValue = redisTemplate.opsForValue().get(stockKey);
+            // 다른 노드가 적재 중 - 값이 보이면 종료
+            String cachedValue = redisTemplate.opsForValue().get(stockKey);
+            if (cachedValue != null) {
+                return Integer.parseInt(cachedValue);
+            }
 
-                if (cachedValue == null) {
-                    // 여전히 없으면 재귀 호출로 재시도
-                    synchronizeStockToRedis(stockId);
-                } else {
-                    log.debug("다른 스레드가 이미 동기화 완료 - ID: {}, 재고: {}", stockId, cachedValue);
-                }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new StockLockException("재고 동기화 대기 시간 초과 - ID: " + stockId);
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("동기화 중 인터럽트 발생", e);
-        } catch (Exception e) {
-            log.error("재고 Redis 동기화 실패 - ID: {}, 에러: {}", stockId, e.getMessage());
-            throw e;
+            try {
+                Thread.sleep(Math.min(backoff, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("동기화 중 인터럽트 발생", e);
+            }
+            backoff = Math.min(backoff * 2, SYNC_POLL_MAX_MS);
         }
     }
 
@@ -424,9 +1106,14 @@ public class StockService {
             Stock stock = stockRepository.findById(stockId)
                     .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + stockId));
 
+            Integer before = stock.getQuantity();
             stock.setQuantity(newQuantity);
             stock.setUpdatedAt(LocalDateTime.now());
             stockRepository.save(stock);
+            recordSet(stockId, before, newQuantity);
+            if (newQuantity > 0) {
+                runAfterCommit(() -> stockSoldOutCache.invalidate(stockId));
+            }
 
             log.debug("DB 재고 업데이트 완료 - ID: {}, 재고: {}", stockId, newQuantity);
         } catch (Exception e) {
@@ -435,30 +1122,153 @@ public class StockService {
         }
     }
 
+    // 분할 카운터 전환 - 재고 행 수량을 shardCount 개 행으로 나눈다 (이미 분할됐으면 false)
+    // 재고 행 수량은 그대로 두고 이후 StockShardManager 가 분할 합계로 주기적으로 맞추므로,
+    // 재고 행을 읽는 경로(Redis 적재, 원장, 스냅샷 등)는 최대 한 주기 늦은 합계를 본다
+    @Transactional
+    public boolean promoteToShards(Long stockId, int shardCount) {
+        if (shardCount < 2 || shardCount > StockShardManager.MAX_SHARD_COUNT) {
+            throw new IllegalArgumentException("분할 수는 2 ~ " + StockShardManager.MAX_SHARD_COUNT + " 사이여야 합니다: " + shardCount);
+        }
+        Stock stock = stockRepository.findByIdWithPessimisticWriteLock(stockId)
+                .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + stockId));
+        if (stock.getShardCount() != null) {
+            return false;
+        }
+
+        List<StockShard> shards = new ArrayList<>(shardCount);
+        for (int shardNo = 0; shardNo < shardCount; shardNo++) {
+            shards.add(StockShard.builder().stockId(stockId).shardNo(shardNo).build());
+        }
+        distribute(shards, stock.getQuantity());
+        stockShardRepository.saveAll(shards);
+
+        stock.setShardCount(shardCount);
+        stockRepository.save(stock);
+
+        runAfterCommit(() -> stockShardManager.promoted(stockId, shardCount));
+        log.info("분할 카운터 전환 - ID: {}, 분할 수: {}", stockId, shardCount);
+        return true;
+    }
+
+    // 분할 카운터 감소 (분할 전략 경로)
+    @Transactional
+    public void decreaseStockSharded(Long stockId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("감소량은 0보다 커야 합니다: " + quantity);
+        }
+        rejectIfSoldOut(stockId);
+        long epoch = stockSoldOutCache.epoch();
+        int shardCount = stockShardManager.getShardCount(stockId);
+        if (shardCount == 0) {
+            throw new IllegalStateException("분할 카운터 재고가 아닙니다: " + stockId);
+        }
+        requireShards(stockId, shardCount, quantity, epoch);
+    }
+
+    // 재고 상대 감소 - 분할된 재고는 재고 행이 분할 합계로 덮어써지므로 분할 카운터에서 차감
+    // 분할 전환 알림 전이어도 재고 행 UPDATE 는 분할된 행에 걸리지 않으므로 DB 에서 분할 여부를 다시 확인
+    // 반영했으면 true, 수량이 모자라거나 재고가 없으면 false
+    private boolean decreaseQuantity(Long stockId, int amount, long epoch) {
+        int shardCount = stockShardManager.getShardCount(stockId);
+        if (shardCount == 0) {
+            if (stockRepository.decreaseStockByAmount(stockId, amount) > 0) {
+                recordDecrease(stockId, amount, null);
+                return true;
+            }
+            shardCount = stockRepository.findShardCountById(stockId).orElse(0);
+            if (shardCount == 0) {
+                return false;
+            }
+        }
+        return decreaseShards(stockId, shardCount, amount, epoch);
+    }
+
+    // 분할 카운터 차감 - 모자라면 재고 부족
+    private void requireShards(Long stockId, int shardCount, int quantity, long epoch) {
+        if (!decreaseShards(stockId, shardCount, quantity, epoch)) {
+            throw new IllegalArgumentException("재고가 부족합니다. stockId: " + stockId);
+        }
+    }
+
+    // 분할 카운터 차감 (호출한 트랜잭션 안에서) - 무작위 분할부터 조건부 UPDATE 로 시도하고,
+    // 어느 분할도 혼자 감당하지 못하면(잔량이 흩어진 경우) 전체를 순서대로 잠가 여러 분할에서 차감, 모자라면 false
+    private boolean decreaseShards(Long stockId, int shardCount, int quantity, long epoch) {
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            if (stockShardRepository.decreaseShard(stockId, (start + i) % shardCount, quantity) > 0) {
+                recordDecrease(stockId, quantity, null);
+                return true;
+            }
+        }
+
+        List<StockShard> shards = stockShardRepository.findAllForUpdate(stockId);
+        int available = 0;
+        for (StockShard shard : shards) {
+            available += shard.getQuantity();
+        }
+        if (available < quantity) {
+            if (available == 0) {
+                stockSoldOutCache.markSoldOut(stockId, epoch);
+            }
+            return false;
+        }
+
+        int remaining = quantity;
+        for (StockShard shard : shards) {
+            int taken = Math.min(remaining, shard.getQuantity());
+            shard.setQuantity(shard.getQuantity() - taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        recordDecrease(stockId, quantity, available - quantity);
+        if (available == quantity) {
+            runAfterCommit(() -> stockSoldOutCache.markSoldOut(stockId, epoch));
+        }
+        return true;
+    }
+
+    // 재고 행 수량을 분할 카운터 합계로 맞춤 - 갱신했으면 true
+    @Transactional
+    public boolean syncShardedQuantity(Long stockId) {
+        int total = (int) stockShardRepository.sumQuantity(stockId);
+        return stockRepository.updateQuantityIfChanged(stockId, total) > 0;
+    }
+
+    // 재고 수량 (분할된 재고는 분할 카운터 합계)
+    @Transactional(readOnly = true)
+    public int getAvailableQuantity(Long stockId) {
+        if (stockShardManager.isSharded(stockId)) {
+            return (int) stockShardRepository.sumQuantity(stockId);
+        }
+        return stockRepository.findQuantityById(stockId)
+                .orElseThrow(() -> new EntityNotFoundException("Stock not found with id: " + stockId));
+    }
+
+    // 수량을 분할 카운터에 고르게 배분 (나머지는 앞쪽 분할부터 1개씩)
+    private static void distribute(List<StockShard> shards, int total) {
+        int base = total / shards.size();
+        int extra = total % shards.size();
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).setQuantity(base + (i < extra ? 1 : 0));
+        }
+    }
+
+    // 재고(상품)별로 지정된 전략으로 감소 - 전략별 동시 처리 한도를 넘으면 대기 없이 StockOverloadedException
+    public void decreaseStock(Long stockId, Integer quantity) {
+        stockShardManager.routed(stockId);
+        StockDecrementStrategy strategy = stockStrategyRegistry.resolve(stockId);
+        stockAdmissionController.run(strategy.getName(), () -> strategy.decrease(stockId, quantity));
+    }
+
     // 성능 측정을 위한 메서드
     public void performanceTest(Long stockId, Integer quantity, String lockType, int threadCount) {
         long startTime = System.currentTimeMillis();
 
         try {
-            switch (lockType.toLowerCase()) {
-                case "redis":
-                    decreaseStockWithRedisDistributedLock(stockId, quantity);
-                    break;
-                case "redis_direct":
-                    decreaseStockWithRedisDirectManagement(stockId, quantity);
-                    break;
-                case "optimistic":
-                    decreaseStockWithOptimisticLock(stockId, quantity);
-                    break;
-                case "pessimistic":
-                    decreaseStockWithPessimisticWriteLock(stockId, quantity);
-                    break;
-                case "none":
-                    decreaseStockWithoutLock(stockId, quantity);
-                    break;
-                default:
-                    throw new IllegalArgumentException("Unknown lock type: " + lockType);
-            }
+            stockStrategyRegistry.get(lockType).decrease(stockId, quantity);
 
             long endTime = System.currentTimeMillis();
             log.info("성능 테스트 완료 - 락 타입: {}, 스레드: {}, 소요시간: {}ms",
@@ -470,6 +1280,69 @@ public class StockService {
         }
     }
 
+    // 품절 캐시에 있으면 락/쿼리 없이 즉시 거절
+    private void rejectIfSoldOut(Long stockId) {
+        if (stockSoldOutCache.isSoldOut(stockId)) {
+            throw new StockSoldOutException(stockId);
+        }
+    }
+
+    // 커밋된 값에서 남은 수량 0 을 확인한 경우 품절 등록 (epoch 는 재고를 읽기 전에 받은 값)
+    // 분할된 재고의 재고 행은 분할 합계를 늦게 따라가는 값이므로 제외 (품절은 decreaseStockSharded 에서 판단)
+    private void markIfSoldOut(Long stockId, Number remaining, long epoch) {
+        if (remaining != null && remaining.longValue() == 0 && !stockShardManager.isSharded(stockId)) {
+            stockSoldOutCache.markSoldOut(stockId, epoch);
+        }
+    }
+
+    // 이번 트랜잭션이 재고를 0 으로 만든 경우 - 롤백될 수 있으므로 커밋 이후 등록
+    private void markIfSoldOutAfterCommit(Long stockId, Number remaining, long epoch) {
+        if (remaining != null && remaining.longValue() == 0 && !stockShardManager.isSharded(stockId)) {
+            runAfterCommit(() -> stockSoldOutCache.markSoldOut(stockId, epoch));
+        }
+    }
+
+    // Lua 스크립트가 재고 부족을 반환한 경우 - Redis 수량이 0 일 때만 품절 등록
+    private void markIfRedisSoldOut(Long stockId, long epoch) {
+        String cached = redisTemplate.opsForValue().get(STOCK_PREFIX + stockId);
+        if ("0".equals(cached)) {
+            stockSoldOutCache.markSoldOut(stockId, epoch);
+        }
+    }
+
+    // 행 락/UPDATE 대기 시간으로 경합 기록
+    private void recordRowWait(Long stockId, long waitNanos) {
+        if (waitNanos >= CONTENDED_WAIT_NANOS) {
+            stockContentionTracker.recordConflict(stockId);
+        } else {
+            stockContentionTracker.recordSuccess(stockId);
+        }
+    }
+
+    // 트랜잭션 커밋 후 실행 (트랜잭션 밖이면 즉시 실행)
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // 커밋된 변경만 변동 기록에 남김 (롤백된 차감은 기록하지 않음)
+    private void recordDecrease(Long stockId, int amount, Integer quantityAfter) {
+        stockMovementLog.decreased(stockId, amount, quantityAfter);
+    }
+
+    private void recordSet(Long stockId, Integer before, int after) {
+        stockMovementLog.set(stockId, before, after);
+    }
+
     // Redis 재고 정보 조회
     public Integer getStockFromRedis(Long stockId) {
         String stockKey = STOCK_PREFIX + stockId;
@@ -480,8 +1353,9 @@ public class StockService {
     // 모든 Redis 재고 캐시 삭제
     public void clearRedisStockCache() {
         try {
-            redisTemplate.delete(redisTemplate.keys(STOCK_PREFIX + "*"));
-            log.info("Redis 재고 캐시 초기화 완료");
+            // KEYS 는 Redis 를 막으므로 SCAN + UNLINK 로 나눠서 삭제
+            long deleted = redisKeyspaceManager.deleteByPattern(STOCK_PREFIX + "*");
+            log.info("Redis 재고 캐시 초기화 완료 - 삭제: {}건", deleted);
         } catch (Exception e) {
             log.error("Redis 재고 캐시 초기화 실패: {}", e.getMessage());
         }
@@ -0,0 +1,224 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.repository.stock.StockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 인기 상품 분할 카운터 관리
+ * - 분할된 재고 목록(stockId -> 분할 수)을 로컬에 두고 감소 요청을 분할 카운터 경로로 보낸다
+ * - 주기적으로 충돌 추적 결과를 확인해 과열된 DB 전략 재고를 자동으로 분할 전환한다
+ *   (특정 전략 메서드를 직접 호출하는 경로는 전환을 따라가지 않으므로 지정 전략 경로로 들어온 재고만 대상)
+ * - 전환은 Redis pub/sub 으로 다른 노드에 알리고, 기동 시에는 DB 에서 목록을 읽는다
+ *   알림을 놓친 노드도 로컬 목록에 없는 재고는 MISS_RECHECK_MS 마다 DB 의 분할 수를 다시 확인한다
+ * - 재고 행 수량을 SYNC_INTERVAL_MS 마다 분할 카운터 합계로 맞춰, 재고 행을 읽는 경로가 0 을 보지 않게 한다
+ *   재고 행을 직접 차감하는 경로(장바구니, Redis 확정 반영, 원장/메일박스 등)도 분할된 재고는 분할 카운터에서 차감한다
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockShardManager {
+    public static final String PROMOTED_CHANNEL = "stock:shard:promoted";
+    public static final int DEFAULT_SHARD_COUNT = 8;
+    public static final int MAX_SHARD_COUNT = 64;
+    private static final long DETECT_INTERVAL_MS = 1000;
+    private static final long SYNC_INTERVAL_MS = 1000;
+    // 로컬 목록에 없는 재고의 DB 재확인 간격 (분할되지 않은 재고마다 매 요청 조회하지 않도록)
+    private static final long MISS_RECHECK_MS = 1000;
+    // 분할 대상 - 재고 행 하나를 직접 갱신하는 전략만 (Redis/로컬 원장 전략은 이미 행 경합이 없음)
+    private static final Set<String> ROW_STRATEGIES = new HashSet<>(Arrays.asList(
+            "none", "optimistic", "optimistic_retry", "pessimistic", "atomic", "coalescing"));
+
+    private final StockRepository stockRepository;
+    private final StockContentionTracker stockContentionTracker;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Lazy
+    @Autowired
+    private StockService stockService;
+
+    @Lazy
+    @Autowired
+    private StockStrategyRegistry stockStrategyRegistry;
+
+    // stockId -> 분할 수
+    private final ConcurrentHashMap<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+    // 지정 전략 경로(StockService.decreaseStock)로 들어온 재고 - 전환 후에도 분할 경로로 전달되는 재고만 자동 전환
+    private final Set<Long> routed = ConcurrentHashMap.newKeySet();
+    // 분할되지 않은 것으로 확인한 재고 -> 다음 DB 확인 시각
+    private final ConcurrentHashMap<Long, Long> unshardedUntil = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean autoPromote = true;
+
+    private final ScheduledExecutorService detector = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stock-shard-detector");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(new PromotedListener(), new ChannelTopic(PROMOTED_CHANNEL));
+    }
+
+    // 루트/서블릿 컨텍스트 모두 refresh 이벤트를 받으므로 한 번만 시작
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        for (Object[] row : stockRepository.findShardCounts()) {
+            shardCounts.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        if (!shardCounts.isEmpty()) {
+            log.info("분할 카운터 재고 로드 - {}건", shardCounts.size());
+        }
+        detector.scheduleWithFixedDelay(this::detectQuietly, DETECT_INTERVAL_MS, DETECT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        detector.scheduleWithFixedDelay(this::syncQuietly, SYNC_INTERVAL_MS, SYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        detector.shutdownNow();
+    }
+
+    public boolean isSharded(Long stockId) {
+        return getShardCount(stockId) > 0;
+    }
+
+    // 분할 수 (분할되지 않은 재고는 0) - 로컬 목록에 없으면 주기적으로 DB 확인
+    public int getShardCount(Long stockId) {
+        Integer shardCount = shardCounts.get(stockId);
+        if (shardCount != null) {
+            return shardCount;
+        }
+        long now = System.currentTimeMillis();
+        Long until = unshardedUntil.get(stockId);
+        if (until != null && until > now) {
+            return 0;
+        }
+
+        Integer loaded = stockRepository.findShardCountById(stockId).orElse(null);
+        if (loaded == null) {
+            unshardedUntil.put(stockId, now + MISS_RECHECK_MS);
+            return 0;
+        }
+        log.warn("분할 전환 알림 누락, DB 에서 확인 - ID: {}, 분할 수: {}", stockId, loaded);
+        shardCounts.put(stockId, loaded);
+        unshardedUntil.remove(stockId);
+        return loaded;
+    }
+
+    void routed(Long stockId) {
+        routed.add(stockId);
+    }
+
+    public Map<Long, Integer> getShardCounts() {
+        return new TreeMap<>(shardCounts);
+    }
+
+    public void setAutoPromote(boolean autoPromote) {
+        this.autoPromote = autoPromote;
+    }
+
+    // 분할 전환 커밋 후 호출 - 로컬 즉시 반영 후 다른 노드에 전파
+    void promoted(Long stockId, int shardCount) {
+        shardCounts.put(stockId, shardCount);
+        unshardedUntil.remove(stockId);
+        try {
+            redisTemplate.convertAndSend(PROMOTED_CHANNEL, stockId + ":" + shardCount);
+        } catch (Exception e) {
+            // 전파 실패 시 다른 노드는 MISS_RECHECK_MS 안에 DB 에서 분할 수를 확인
+            log.warn("분할 전환 전파 실패 - ID: {}, 에러: {}", stockId, e.getMessage());
+        }
+    }
+
+    // 분할된 재고의 재고 행 수량을 분할 합계로 맞춤 - 갱신한 재고 수 반환
+    public int syncRowQuantities() {
+        int synced = 0;
+        for (Long stockId : shardCounts.keySet()) {
+            if (stockService.syncShardedQuantity(stockId)) {
+                synced++;
+            }
+        }
+        return synced;
+    }
+
+    // 과열 재고 확인 - 새로 분할 전환한 재고 수 반환
+    public int detect() {
+        int promoted = 0;
+        for (Long stockId : stockContentionTracker.getConflictRates().keySet()) {
+            if (isSharded(stockId)
+                    || !routed.contains(stockId)
+                    || !ROW_STRATEGIES.contains(stockStrategyRegistry.getAssignedName(stockId))
+                    || !stockContentionTracker.isHot(stockId)) {
+                continue;
+            }
+            try {
+                if (stockService.promoteToShards(stockId, DEFAULT_SHARD_COUNT)) {
+                    promoted++;
+                    log.warn("과열 재고 분할 전환 - ID: {}, 충돌률: {}, 분할 수: {}", stockId,
+                            String.format("%.2f", stockContentionTracker.getConflictRate(stockId)), DEFAULT_SHARD_COUNT);
+                }
+            } catch (RuntimeException e) {
+                log.warn("분할 전환 실패 - ID: {}, 에러: {}", stockId, e.getMessage());
+            }
+        }
+        return promoted;
+    }
+
+    private void detectQuietly() {
+        if (!autoPromote) {
+            return;
+        }
+        try {
+            detect();
+        } catch (Exception e) {
+            log.error("과열 재고 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            syncRowQuantities();
+        } catch (Exception e) {
+            log.error("분할 재고 수량 동기화 실패: {}", e.getMessage());
+        }
+    }
+
+    private class PromotedListener implements MessageListener {
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.indexOf(':');
+            try {
+                Long stockId = Long.valueOf(body.substring(0, separator));
+                shardCounts.put(stockId, Integer.valueOf(body.substring(separator + 1)));
+                unshardedUntil.remove(stockId);
+            } catch (RuntimeException e) {
+                log.warn("잘못된 분할 전환 메시지: {}", body);
+            }
+        }
+    }
+}
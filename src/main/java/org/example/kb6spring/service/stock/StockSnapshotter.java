@@ -0,0 +1,149 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.domain.stock.StockMovement;
+import org.example.kb6spring.domain.stock.StockMovementType;
+import org.example.kb6spring.domain.stock.StockSnapshot;
+import org.example.kb6spring.repository.stock.StockMovementRepository;
+import org.example.kb6spring.repository.stock.StockRepository;
+import org.example.kb6spring.repository.stock.StockSnapshotRepository;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 재고 스냅샷 / 재구성
+ * 주기적으로 직전 스냅샷 이후 변동이 있던 재고만 (직전 스냅샷 + 이후 변동 기록) 으로 새 스냅샷을 남긴다.
+ * 특정 시점 수량은 그 시점 이전 최신 스냅샷에서 이후 기록만 재생해 구한다.
+ * id 는 INSERT 순서로 붙고 커밋 순서와는 다를 수 있으므로, 기록 시각이 SETTLE_SECONDS 이상 지난 기록까지만 스냅샷에 넣는다
+ * (그보다 작은 id 의 트랜잭션은 이미 커밋/롤백된 것으로 보고, 아직 커밋되지 않은 기록을 건너뛰지 않게 함).
+ * 스냅샷은 이력 조회용이며 Redis 재적재는 재고 테이블 기준(StockCacheWarmer)으로 한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockSnapshotter {
+    private static final long SNAPSHOT_INTERVAL_MS = 5 * 60 * 1000L;
+    // 커밋 직전에 INSERT 한 기록이 커밋될 때까지 기다리는 여유 시간
+    private static final long SETTLE_SECONDS = 10;
+
+    private final StockRepository stockRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stock-snapshotter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 루트/서블릿 컨텍스트 모두 refresh 이벤트를 받으므로 한 번만 시작
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            scheduler.scheduleWithFixedDelay(this::snapshotQuietly,
+                    SNAPSHOT_INTERVAL_MS, SNAPSHOT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // 스냅샷 생성 - 새로 남긴 스냅샷 수 반환
+    public synchronized int takeSnapshots() {
+        long from = stockSnapshotRepository.findLastMovementId();
+        LocalDateTime now = LocalDateTime.now();
+        long until = Math.max(from, stockMovementRepository.findLastIdSettled(from, now.minusSeconds(SETTLE_SECONDS)));
+
+        List<StockSnapshot> snapshots = new ArrayList<>();
+        Set<Long> covered = new HashSet<>();
+        for (Long stockId : stockMovementRepository.findStockIdsBetween(from, until)) {
+            Integer quantity = replay(stockId, until);
+            if (quantity != null) {
+                snapshots.add(snapshot(stockId, quantity, until, now));
+                covered.add(stockId);
+            }
+        }
+
+        // 기록이 생기기 전부터 있던 재고는 DB 수량을 기준점으로 남긴다
+        // DB 수량에는 until 이후 기록도 반영돼 있으므로 그런 기록이 있는 재고는 다음 스냅샷으로 미룸
+        // (확인과 조회 사이에 커밋된 변경은 중복 반영될 수 있어, 첫 스냅샷에 한해 근사값)
+        for (Long stockId : stockSnapshotRepository.findStockIdsWithoutSnapshot()) {
+            if (covered.contains(stockId)) {
+                continue;
+            }
+            Integer quantity = replay(stockId, until);
+            if (quantity == null) {
+                if (stockMovementRepository.existsByStockIdAndIdGreaterThan(stockId, until)) {
+                    continue;
+                }
+                quantity = stockRepository.findQuantityById(stockId).orElse(null);
+            }
+            if (quantity != null) {
+                snapshots.add(snapshot(stockId, quantity, until, now));
+            }
+        }
+
+        stockSnapshotRepository.saveAll(snapshots);
+        log.info("재고 스냅샷 완료 - 스냅샷: {}건, 기록 위치: {}", snapshots.size(), until);
+        return snapshots.size();
+    }
+
+    // 특정 시점의 재고 수량 (기준점이 없으면 null)
+    public Integer quantityAt(Long stockId, LocalDateTime at) {
+        StockSnapshot base = stockSnapshotRepository
+                .findFirstByStockIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(stockId, at).orElse(null);
+        long afterId = base != null ? base.getLastMovementId() : 0;
+        Integer quantity = base != null ? base.getQuantity() : null;
+        return apply(quantity, stockMovementRepository.findAfterUntil(stockId, afterId, at));
+    }
+
+    // 최신 스냅샷에서 untilId 까지 재생
+    private Integer replay(Long stockId, long untilId) {
+        StockSnapshot base = stockSnapshotRepository.findFirstByStockIdOrderByLastMovementIdDesc(stockId).orElse(null);
+        long afterId = base != null ? base.getLastMovementId() : 0;
+        Integer quantity = base != null ? base.getQuantity() : null;
+        return apply(quantity, stockMovementRepository.findBetween(stockId, afterId, untilId));
+    }
+
+    // SET 은 덮어쓰고 DECREASE 는 더함 (SHORTFALL 은 수량을 바꾸지 않음) - 기준점(스냅샷 또는 SET) 이 없으면 null
+    private static Integer apply(Integer quantity, List<StockMovement> movements) {
+        for (StockMovement movement : movements) {
+            if (movement.getMovementType() == StockMovementType.SET) {
+                quantity = movement.getQuantityAfter();
+            } else if (movement.getMovementType() == StockMovementType.DECREASE && quantity != null) {
+                quantity += movement.getDelta();
+            }
+        }
+        return quantity;
+    }
+
+    private static StockSnapshot snapshot(Long stockId, int quantity, long lastMovementId, LocalDateTime takenAt) {
+        return StockSnapshot.builder()
+                .stockId(stockId)
+                .quantity(quantity)
+                .lastMovementId(lastMovementId)
+                .takenAt(takenAt)
+                .build();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            takeSnapshots();
+        } catch (Exception e) {
+            log.error("재고 스냅샷 실패: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM 로컬 품절 캐시
+ * 재고가 0 으로 확인된 상품은 락/쿼리 없이 바로 거절한다.
+ * 재고가 다시 채워지면(생성/초기화/수정) Redis pub/sub 으로 모든 노드에서 무효화하고,
+ * 알림을 놓친 경우에도 TTL 이 지나면 다시 DB/Redis 로 확인한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockSoldOutCache {
+    public static final String INVALIDATE_CHANNEL = "stock:soldout:invalidate";
+    // 무효화 알림 유실 대비 최대 유지 시간
+    private static final long TTL_MS = 5000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    // stockId -> 만료 시각
+    private final ConcurrentHashMap<Long, Long> soldOut = new ConcurrentHashMap<>();
+    // 무효화마다 증가 - 무효화 이전에 관찰한 0 으로 다시 품절 처리하는 것을 막음
+    private final AtomicLong epoch = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(new InvalidateListener(), new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    public boolean isSoldOut(Long stockId) {
+        Long expiresAt = soldOut.get(stockId);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() < expiresAt) {
+            return true;
+        }
+        soldOut.remove(stockId, expiresAt);
+        return false;
+    }
+
+    // 재고를 읽기 전에 받아두고 markSoldOut 에 넘긴다
+    public long epoch() {
+        return epoch.get();
+    }
+
+    // 재고 0 확인 시 품절 등록 (관찰 이후 무효화가 있었다면 되돌림)
+    public void markSoldOut(Long stockId, long observedEpoch) {
+        if (epoch.get() != observedEpoch) {
+            return;
+        }
+        Long expiresAt = System.currentTimeMillis() + TTL_MS;
+        if (soldOut.put(stockId, expiresAt) == null) {
+            log.info("품절 등록 - ID: {}", stockId);
+        }
+        if (epoch.get() != observedEpoch) {
+            soldOut.remove(stockId, expiresAt);
+        }
+    }
+
+    // 재고가 다시 생긴 경우 - 로컬 즉시 무효화 후 다른 노드에 전파
+    public void invalidate(Long stockId) {
+        evict(stockId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, stockId.toString());
+        } catch (Exception e) {
+            // 전파 실패 시 다른 노드는 TTL 만료 후 다시 확인
+            log.warn("품절 무효화 전파 실패 - ID: {}, 에러: {}", stockId, e.getMessage());
+        }
+    }
+
+    private void evict(Long stockId) {
+        epoch.incrementAndGet();
+        soldOut.remove(stockId);
+    }
+
+    private class InvalidateListener implements MessageListener {
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            try {
+                evict(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+            } catch (NumberFormatException e) {
+                log.warn("잘못된 품절 무효화 메시지: {}", e.getMessage());
+            }
+        }
+    }
+}
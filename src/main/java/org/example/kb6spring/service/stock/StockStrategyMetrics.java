@@ -0,0 +1,75 @@
+package org.example.kb6spring.service.stock;
+
+import org.HdrHistogram.Histogram;
+import org.example.kb6spring.dto.stock.StockStrategyStatsDto;
+import org.example.kb6spring.exception.stock.StockLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// 전략별 지연시간/결과 카운터
+class StockStrategyMetrics {
+    private final String strategy;
+    private final StockLatencyHistogram latency = new StockLatencyHistogram();
+    private final LongAdder success = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    StockStrategyMetrics(String strategy) {
+        this.strategy = strategy;
+    }
+
+    void recordSuccess(long nanos) {
+        latency.record(nanos);
+        success.increment();
+    }
+
+    void recordFailure(long nanos, Throwable e) {
+        latency.record(nanos);
+        if (isConflict(e)) {
+            conflicts.increment();
+        } else if (e instanceof IllegalArgumentException) {
+            rejected.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    StockStrategyStatsDto snapshot() {
+        Histogram histogram = latency.snapshot();
+        return StockStrategyStatsDto.builder()
+                .strategy(strategy)
+                .success(success.sum())
+                .rejected(rejected.sum())
+                .conflicts(conflicts.sum())
+                .errors(errors.sum())
+                .count(histogram.getTotalCount())
+                .meanMicros(histogram.getMean())
+                .p50Micros(histogram.getValueAtPercentile(50))
+                .p99Micros(histogram.getValueAtPercentile(99))
+                .p999Micros(histogram.getValueAtPercentile(99.9))
+                .build();
+    }
+
+    void reset() {
+        latency.reset();
+        success.reset();
+        rejected.reset();
+        conflicts.reset();
+        errors.reset();
+    }
+
+    // 원인 체인에 락 충돌이 있으면 경합으로 분류
+    static boolean isConflict(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof StockLockException
+                    || t instanceof OptimisticLockingFailureException
+                    || t instanceof PessimisticLockingFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,282 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.domain.stock.StockStrategyAssignment;
+import org.example.kb6spring.dto.stock.StockStrategyStatsDto;
+import org.example.kb6spring.repository.stock.StockStrategyAssignmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * 재고 감소 전략 레지스트리
+ * 전략 이름으로 조회하거나, 재고(상품)별로 지정된 전략을 런타임에 바꿔서 사용한다.
+ * 모든 전략은 호출 시 지연시간/결과가 전략별로 집계된다.
+ * 재고별 지정은 DB(stock_strategy_assignment)에 저장해 기동 시 읽고, 변경은 Redis pub/sub 으로 다른 노드에 알린다.
+ * 알림을 놓친 노드는 재시작 전까지 이전 전략을 쓰지만, 모든 전략이 같은 DB 재고를 기준으로 하므로 수량은 어긋나지 않는다.
+ */
+@Component
+@Slf4j
+public class StockStrategyRegistry {
+    // 지정되지 않은 재고에 사용할 전략
+    public static final String DEFAULT_STRATEGY = "atomic";
+    // 분할 카운터로 전환된 재고는 지정 전략과 관계없이 이 전략 사용
+    public static final String SHARDED_STRATEGY = "sharded";
+    public static final String ASSIGNED_CHANNEL = "stock:strategy:assigned";
+    private static final int DEFAULT_MAX_RETRIES = 10;
+
+    @Lazy
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockInstrumentation stockInstrumentation;
+
+    @Autowired
+    private StockStrategyAssignmentRepository stockStrategyAssignmentRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Lazy
+    @Autowired
+    private StockShardManager stockShardManager;
+
+    @Lazy
+    @Autowired
+    private StockMailbox stockMailbox;
+
+    @Lazy
+    @Autowired
+    private StockLocalLedger stockLocalLedger;
+
+    // 빈으로 등록된 추가 전략
+    @Autowired(required = false)
+    private List<StockDecrementStrategy> customStrategies = Collections.emptyList();
+
+    private final Map<String, MeteredStrategy> strategies = new LinkedHashMap<>();
+    private final ConcurrentHashMap<Long, String> assignments = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    // 자기 알림은 이미 반영했으므로 건너뜀 (연속 변경 시 늦게 도착한 자기 알림이 최신 값을 되돌리지 않도록)
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @PostConstruct
+    public void init() {
+        register(of("none", (id, q) -> stockService.decreaseStockWithoutLock(id, q)));
+        register(of("optimistic", (id, q) -> stockService.decreaseStockWithOptimisticLock(id, q)));
+        register(of("optimistic_retry",
+                (id, q) -> stockService.decreaseStockWithOptimisticLockAndRetry(id, q, DEFAULT_MAX_RETRIES)));
+        register(of("pessimistic", (id, q) -> stockService.decreaseStockWithPessimisticWriteLock(id, q)));
+        register(of("atomic", (id, q) -> requireAccepted(id, stockService.decreaseStockAtomic(id, q))));
+        register(of("coalescing", (id, q) -> requireAccepted(id, stockService.decreaseStockWithCoalescing(id, q))));
+        register(of("mailbox", (id, q) -> stockService.decreaseStockWithMailbox(id, q)));
+        register(of("local_ledger", (id, q) -> requireAccepted(id, stockService.decreaseStockWithLocalLedger(id, q))));
+        register(of("redis", (id, q) -> stockService.decreaseStockWithRedisDistributedLock(id, q)));
+        register(of("redis_retry",
+                (id, q) -> stockService.decreaseStockWithRedisDistributedLockAndRetry(id, q, DEFAULT_MAX_RETRIES)));
+        register(of("redis_direct", (id, q) -> stockService.decreaseStockWithRedisDirectManagement(id, q)));
+        register(of("redis_stream", (id, q) -> stockService.decreaseStockWithRedisStream(id, q)));
+        register(of(SHARDED_STRATEGY, (id, q) -> stockService.decreaseStockSharded(id, q)));
+
+        for (StockDecrementStrategy strategy : customStrategies) {
+            register(strategy);
+        }
+        log.info("재고 감소 전략 등록 완료 - {}", strategies.keySet());
+        redisMessageListenerContainer.addMessageListener(new AssignedListener(), new ChannelTopic(ASSIGNED_CHANNEL));
+    }
+
+    // 루트/서블릿 컨텍스트 모두 refresh 이벤트를 받으므로 한 번만 로드
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        for (StockStrategyAssignment assignment : stockStrategyAssignmentRepository.findAll()) {
+            assignments.put(assignment.getStockId(), assignment.getStrategy());
+        }
+        if (!assignments.isEmpty()) {
+            log.info("재고별 지정 전략 로드 - {}건", assignments.size());
+        }
+    }
+
+    // 이름으로 전략 조회
+    public StockDecrementStrategy get(String name) {
+        StockDecrementStrategy strategy = name != null ? strategies.get(name.toLowerCase()) : null;
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown lock type: " + name);
+        }
+        return strategy;
+    }
+
+    // 재고에 지정된 전략 (없으면 기본 전략, 분할된 재고는 분할 카운터 전략)
+    public StockDecrementStrategy resolve(Long stockId) {
+        if (stockShardManager.isSharded(stockId)) {
+            return get(SHARDED_STRATEGY);
+        }
+        return get(getAssignedName(stockId));
+    }
+
+    public String getAssignedName(Long stockId) {
+        return assignments.getOrDefault(stockId, DEFAULT_STRATEGY);
+    }
+
+    // 재고별 전략 변경 (재배포 없이 적용) - 저장 후 로컬 반영, 다른 노드에 전파
+    public void assign(Long stockId, String name) {
+        String strategy = get(name).getName();
+        stockStrategyAssignmentRepository.save(new StockStrategyAssignment(stockId, strategy, LocalDateTime.now()));
+        String previous = apply(stockId, strategy);
+        publish(stockId, strategy);
+        log.info("재고 감소 전략 변경 - ID: {}, {} -> {}", stockId,
+                previous != null ? previous : DEFAULT_STRATEGY, strategy);
+    }
+
+    public void unassign(Long stockId) {
+        stockStrategyAssignmentRepository.deleteByStockId(stockId);
+        apply(stockId, null);
+        publish(stockId, null);
+    }
+
+    // 로컬 반영 - 이전 지정 전략 반환
+    // 메일박스/로컬 원장 메모리 수량은 다른 전략이 행을 수정하는 동안 맞지 않게 되므로 전략이 바뀔 때마다 버림
+    // (원장의 미반영 판매량은 버리지 않고 배치로 넘겨 DB 에 반영)
+    private String apply(Long stockId, String strategy) {
+        String previous = strategy != null ? assignments.put(stockId, strategy) : assignments.remove(stockId);
+        stockMailbox.evict(stockId);
+        stockLocalLedger.evict(stockId);
+        return previous;
+    }
+
+    private void publish(Long stockId, String strategy) {
+        try {
+            redisTemplate.convertAndSend(ASSIGNED_CHANNEL,
+                    nodeId + "|" + stockId + ":" + (strategy != null ? strategy : ""));
+        } catch (Exception e) {
+            // 전파 실패 시 다른 노드는 재시작 때 DB 에서 읽음
+            log.warn("재고 전략 변경 전파 실패 - ID: {}, 에러: {}", stockId, e.getMessage());
+        }
+    }
+
+    public Map<Long, String> getAssignments() {
+        return new TreeMap<>(assignments);
+    }
+
+    public List<String> getNames() {
+        return new ArrayList<>(strategies.keySet());
+    }
+
+    public List<StockStrategyStatsDto> getStats() {
+        List<StockStrategyStatsDto> stats = new ArrayList<>(strategies.size());
+        for (MeteredStrategy strategy : strategies.values()) {
+            stats.add(strategy.metrics.snapshot());
+        }
+        return stats;
+    }
+
+    public void resetStats() {
+        for (MeteredStrategy strategy : strategies.values()) {
+            strategy.metrics.reset();
+        }
+    }
+
+    private void register(StockDecrementStrategy strategy) {
+        String name = strategy.getName().toLowerCase();
+        if (strategies.containsKey(name)) {
+            throw new IllegalStateException("중복된 재고 감소 전략: " + name);
+        }
+        strategies.put(name, new MeteredStrategy(name, strategy, stockInstrumentation));
+    }
+
+    private static void requireAccepted(Long stockId, boolean accepted) {
+        if (!accepted) {
+            throw new IllegalArgumentException("재고가 부족합니다. stockId: " + stockId);
+        }
+    }
+
+    private static StockDecrementStrategy of(String name, BiConsumer<Long, Integer> action) {
+        return new StockDecrementStrategy() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void decrease(Long stockId, Integer quantity) {
+                action.accept(stockId, quantity);
+            }
+        };
+    }
+
+    // 다른 노드의 전략 변경 알림 (nodeId|stockId:전략, 해제는 전략이 빈 값)
+    private class AssignedListener implements MessageListener {
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int origin = body.indexOf('|');
+            int separator = body.indexOf(':', origin + 1);
+            try {
+                if (body.substring(0, origin).equals(nodeId)) {
+                    return;
+                }
+                Long stockId = Long.valueOf(body.substring(origin + 1, separator));
+                String strategy = body.substring(separator + 1);
+                if (!strategy.isEmpty() && !strategies.containsKey(strategy)) {
+                    log.warn("등록되지 않은 전략 변경 알림 - {}", body);
+                    return;
+                }
+                apply(stockId, strategy.isEmpty() ? null : strategy);
+            } catch (RuntimeException e) {
+                log.warn("잘못된 전략 변경 메시지: {}", body);
+            }
+        }
+    }
+
+    // 호출마다 지연시간과 결과를 기록하는 래퍼 (실행 중에는 구간 계측도 이 전략 이름으로 기록)
+    private static final class MeteredStrategy implements StockDecrementStrategy {
+        private final String name;
+        private final StockDecrementStrategy delegate;
+        private final StockStrategyMetrics metrics;
+        private final StockInstrumentation instrumentation;
+
+        private MeteredStrategy(String name, StockDecrementStrategy delegate, StockInstrumentation instrumentation) {
+            this.name = name;
+            this.delegate = delegate;
+            this.metrics = new StockStrategyMetrics(name);
+            this.instrumentation = instrumentation;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void decrease(Long stockId, Integer quantity) {
+            long start = System.nanoTime();
+            try (StockInstrumentation.Scope ignored = instrumentation.enter(name)) {
+                delegate.decrease(stockId, quantity);
+                metrics.recordSuccess(System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                metrics.recordFailure(System.nanoTime() - start, e);
+                throw e;
+            }
+        }
+    }
+}
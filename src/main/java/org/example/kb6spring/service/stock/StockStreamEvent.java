@@ -0,0 +1,15 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Redis Stream 에 기록된 재고 감소 이벤트
+@Getter
+@AllArgsConstructor
+@ToString
+public class StockStreamEvent {
+    private final String requestId;
+    private final Long stockId;
+    private final Integer quantity;
+}
@@ -0,0 +1,224 @@
+package org.example.kb6spring.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.repository.stock.StockStreamAppliedRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Redis Stream 재고 이벤트를 컨슈머 그룹으로 읽어 DB 에 일괄 반영
+ * 반영은 requestId 단위 마커와 같은 트랜잭션에서 이루어지므로,
+ * ACK 전에 죽어서 같은 이벤트가 다시 전달돼도 중복 차감되지 않는다.
+ * 다른 컨슈머(노드)가 받아 놓고 CLAIM_IDLE 이상 ACK 하지 못한 이벤트는 주기적으로 가져와(XCLAIM) 대신 반영한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockStreamReconciler {
+    public static final String STREAM_KEY = "stock:stream:events";
+    private static final String GROUP = "stock-db-sync";
+    private static final int BATCH_SIZE = 200;
+    private static final Duration BLOCK_TIMEOUT = Duration.ofSeconds(1);
+    // 재전달 가능 기간보다 충분히 길게 유지
+    private static final Duration APPLIED_RETENTION = Duration.ofDays(1);
+    private static final long CLEANUP_INTERVAL_MS = 60 * 60 * 1000L;
+    // 이 시간 이상 ACK 되지 않은 다른 컨슈머의 이벤트는 죽은 컨슈머의 것으로 보고 가져옴
+    private static final Duration CLAIM_IDLE = Duration.ofSeconds(60);
+    private static final long CLAIM_INTERVAL_MS = 30_000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final StockStreamAppliedRepository stockStreamAppliedRepository;
+    private final StockInstrumentation stockInstrumentation;
+
+    @Lazy
+    @Autowired
+    private StockService stockService;
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean running;
+    private volatile boolean groupReady;
+    private Thread worker;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        running = true;
+        worker = new Thread(this::consumeLoop, "stock-stream-reconciler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void consumeLoop() {
+        // 재시작 시 같은 이름으로 붙어야 ACK 안 된 이벤트를 다시 받을 수 있음
+        Consumer consumer = Consumer.from(GROUP, consumerName());
+        // 처음에는 이전에 받고 ACK 하지 못한 이벤트부터 처리
+        boolean drainPending = true;
+        long lastCleanup = System.currentTimeMillis();
+        long lastClaim = 0;
+
+        while (running) {
+            try {
+                ensureGroup();
+
+                List<MapRecord<String, Object, Object>> records = drainPending
+                        ? read(consumer, ReadOffset.from("0"), false)
+                        : read(consumer, ReadOffset.lastConsumed(), true);
+
+                if (records == null || records.isEmpty()) {
+                    drainPending = false;
+                } else {
+                    apply(records);
+                }
+
+                if (System.currentTimeMillis() - lastClaim > CLAIM_INTERVAL_MS) {
+                    claimIdle(consumer);
+                    lastClaim = System.currentTimeMillis();
+                }
+
+                if (System.currentTimeMillis() - lastCleanup > CLEANUP_INTERVAL_MS) {
+                    int deleted = stockStreamAppliedRepository
+                            .deleteAppliedBefore(LocalDateTime.now().minus(APPLIED_RETENTION));
+                    log.info("재고 스트림 반영 기록 정리 - {}건", deleted);
+                    lastCleanup = System.currentTimeMillis();
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                // DB/Redis 장애 시 ACK 하지 않았으므로 pending 부터 다시 처리
+                log.error("재고 스트림 반영 실패, 재시도 - 에러: {}", e.getMessage());
+                drainPending = true;
+                sleepQuietly(BLOCK_TIMEOUT.toMillis());
+            }
+        }
+        log.info("재고 스트림 컨슈머 종료");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, Object, Object>> read(Consumer consumer, ReadOffset offset, boolean block) {
+        StreamReadOptions options = StreamReadOptions.empty().count(BATCH_SIZE);
+        if (block) {
+            options = options.block(BLOCK_TIMEOUT);
+        }
+        return redisTemplate.opsForStream().read(consumer, options, StreamOffset.create(STREAM_KEY, offset));
+    }
+
+    // 다른 컨슈머가 오래 붙잡고 있는 pending 이벤트를 가져와 반영 (가져온 뒤에는 이 컨슈머의 pending 이 됨)
+    private void claimIdle(Consumer consumer) {
+        PendingMessages pending = redisTemplate.opsForStream()
+                .pending(STREAM_KEY, GROUP, Range.unbounded(), BATCH_SIZE);
+        List<RecordId> idle = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (!consumer.getName().equals(message.getConsumerName())
+                    && message.getElapsedTimeSinceLastDelivery().compareTo(CLAIM_IDLE) >= 0) {
+                idle.add(message.getId());
+            }
+        }
+        if (idle.isEmpty()) {
+            return;
+        }
+
+        List<MapRecord<String, Object, Object>> claimed = redisTemplate.opsForStream()
+                .claim(STREAM_KEY, GROUP, consumer.getName(), CLAIM_IDLE, idle.toArray(new RecordId[0]));
+        log.warn("재고 스트림 미처리 이벤트 가져옴 - {}건", claimed.size());
+        if (!claimed.isEmpty()) {
+            apply(claimed);
+        }
+    }
+
+    private void apply(List<MapRecord<String, Object, Object>> records) {
+        List<StockStreamEvent> events = new ArrayList<>(records.size());
+        List<RecordId> recordIds = new ArrayList<>(records.size());
+
+        for (MapRecord<String, Object, Object> record : records) {
+            Map<Object, Object> value = record.getValue();
+            recordIds.add(record.getId());
+            if (value == null || value.get("requestId") == null) {
+                // 트림 등으로 본문이 사라진 pending 항목은 ACK 만 처리
+                log.warn("본문 없는 재고 스트림 항목 - id: {}", record.getId());
+                continue;
+            }
+            events.add(new StockStreamEvent(
+                    value.get("requestId").toString(),
+                    Long.valueOf(value.get("stockId").toString()),
+                    Integer.valueOf(value.get("quantity").toString())));
+        }
+
+        if (!events.isEmpty()) {
+            long start = System.nanoTime();
+            stockService.applyStockStreamBatch(events);
+            stockInstrumentation.record("redis_stream", StockLatencyPhase.TRANSACTION, System.nanoTime() - start);
+        }
+
+        // 커밋 이후에만 ACK, 반영 끝난 항목은 스트림에서 제거해 크기 유지
+        RecordId[] ids = recordIds.toArray(new RecordId[0]);
+        redisTemplate.opsForStream().acknowledge(STREAM_KEY, GROUP, ids);
+        redisTemplate.opsForStream().delete(STREAM_KEY, ids);
+    }
+
+    private void ensureGroup() {
+        if (groupReady) {
+            return;
+        }
+        try {
+            // 첫 XADD 전이라 스트림이 없어도 그룹을 만들 수 있도록 MKSTREAM
+            byte[] rawKey = STREAM_KEY.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.xGroupCreate(rawKey, GROUP, ReadOffset.from("0"), true));
+            log.info("재고 스트림 컨슈머 그룹 생성 - stream: {}, group: {}", STREAM_KEY, GROUP);
+        } catch (Exception e) {
+            // 이미 그룹이 있으면 BUSYGROUP 에러
+            String message = String.valueOf(e.getMessage()) + (e.getCause() != null ? e.getCause().getMessage() : "");
+            if (!message.contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+        groupReady = true;
+    }
+
+    private static String consumerName() {
+        try {
+            return "consumer-" + InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "consumer-default";
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
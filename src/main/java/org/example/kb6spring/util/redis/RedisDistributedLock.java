@@ -0,0 +1,320 @@
+package org.example.kb6spring.util.redis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 분산락 (재진입 + 공정 대기열 + pub/sub 깨우기 + 임대 자동 연장)
+ * - 같은 스레드의 재진입은 로컬 카운트로 처리해 Redis 를 다시 호출하지 않는다
+ * - 대기자는 Redis 리스트에 도착 순서대로 줄을 서고, 맨 앞 대기자만 락을 잡을 수 있다
+ * - 해제 시 채널로 알림을 보내 대기자를 바로 깨우고, 알림을 놓쳐도 남은 TTL 만큼만 기다린다
+ * - 락을 잡고 있는 동안 watchdog 이 임대 시간의 1/3 마다 TTL 을 연장한다
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisDistributedLock {
+    private static final String CHANNEL_PREFIX = "lock:channel:";
+    private static final String QUEUE_SUFFIX = ":queue";
+    private static final String TIMEOUT_SUFFIX = ":timeout";
+    // 대기자가 이 시간 동안 재시도하지 않으면 죽은 것으로 보고 대기열에서 제거
+    public static final long WAITER_TIMEOUT_MS = 5000;
+    private static final long ACQUIRED = -1L;
+
+    // Lua 스크립트 - 만료된 대기자 정리 후, 락이 비어 있고 내 차례면 획득
+    // KEYS: acquireKeys(lockKey), ARGV: 토큰, 임대(ms), 현재 시각, 대기 만료 시각
+    // 반환: -1 획득, 그 외 다음 시도까지 기다릴 시간(ms)
+    public static final String ACQUIRE_SCRIPT =
+            "while true do " +
+                    "    local head = redis.call('lindex', KEYS[2], 0) " +
+                    "    if not head then break end " +
+                    "    local deadline = tonumber(redis.call('zscore', KEYS[3], head)) " +
+                    "    if deadline == nil or deadline < tonumber(ARGV[3]) then " +
+                    "        redis.call('lpop', KEYS[2]) " +
+                    "        redis.call('zrem', KEYS[3], head) " +
+                    "    else " +
+                    "        break " +
+                    "    end " +
+                    "end " +
+                    "if redis.call('exists', KEYS[1]) == 0 then " +
+                    "    local head = redis.call('lindex', KEYS[2], 0) " +
+                    "    if not head or head == ARGV[1] then " +
+                    "        if head then " +
+                    "            redis.call('lpop', KEYS[2]) " +
+                    "            redis.call('zrem', KEYS[3], ARGV[1]) " +
+                    "        end " +
+                    "        redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2]) " +
+                    "        return -1 " +
+                    "    end " +
+                    "end " +
+                    "if not redis.call('zscore', KEYS[3], ARGV[1]) then " +
+                    "    redis.call('rpush', KEYS[2], ARGV[1]) " +
+                    "end " +
+                    "redis.call('zadd', KEYS[3], ARGV[4], ARGV[1]) " +
+                    "local ttl = redis.call('pttl', KEYS[1]) " +
+                    "if ttl < 0 then return 0 end " +
+                    "return ttl";
+
+    // Lua 스크립트 - 락 해제 시 원자성 보장 + 대기자 알림
+    public static final String UNLOCK_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "    redis.call('del', KEYS[1]) " +
+                    "    redis.call('publish', ARGV[2], 'released') " +
+                    "    return 1 " +
+                    "else " +
+                    "    return 0 " +
+                    "end";
+
+    // Lua 스크립트 - 대기 포기 시 대기열에서 제거 + 다음 대기자 알림 (KEYS: waitKeys(lockKey))
+    public static final String CANCEL_WAIT_SCRIPT =
+            "redis.call('lrem', KEYS[1], 0, ARGV[1]) " +
+                    "redis.call('zrem', KEYS[2], ARGV[1]) " +
+                    "redis.call('publish', ARGV[2], 'cancelled') " +
+                    "return 1";
+
+    // Lua 스크립트 - 내 락일 때만 TTL 연장
+    public static final String RENEW_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "    return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+                    "else " +
+                    "    return 0 " +
+                    "end";
+
+    private final RedisScriptRegistry redisScriptRegistry;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private RedisScriptRegistry.Script<Long> acquireScript;
+    private RedisScriptRegistry.Script<Long> unlockScript;
+    private RedisScriptRegistry.Script<Long> cancelWaitScript;
+    private RedisScriptRegistry.Script<Long> renewScript;
+
+    // 현재 JVM 이 잡고 있는 락 (재진입/watchdog 용)
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+    // 락 키별 로컬 대기 신호 - 대기자가 남아 있는 키만 유지
+    private final ConcurrentHashMap<String, Signal> signals = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "redis-lock-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        acquireScript = redisScriptRegistry.register("lock:acquire", ACQUIRE_SCRIPT, Long.class);
+        unlockScript = redisScriptRegistry.register("lock:unlock", UNLOCK_SCRIPT, Long.class);
+        cancelWaitScript = redisScriptRegistry.register("lock:cancel-wait", CANCEL_WAIT_SCRIPT, Long.class);
+        renewScript = redisScriptRegistry.register("lock:renew", RENEW_SCRIPT, Long.class);
+        redisMessageListenerContainer.addMessageListener(new ReleaseListener(), new PatternTopic(CHANNEL_PREFIX + "*"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * 락 획득 시도
+     * @param waitTime  최대 대기 시간 (0 이면 한 번만 시도)
+     * @param leaseTime 임대 시간 (잡고 있는 동안 watchdog 이 계속 연장)
+     */
+    public boolean tryLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        Hold current = holds.get(lockKey);
+        if (current != null && current.owner == Thread.currentThread()) {
+            current.count++;
+            return true;
+        }
+
+        String token = UUID.randomUUID().toString();
+        long leaseMs = unit.toMillis(leaseTime);
+        long deadline = System.currentTimeMillis() + unit.toMillis(waitTime);
+        Signal signal = joinSignal(lockKey);
+
+        try {
+            while (true) {
+                // 시도 직후 도착한 알림을 놓치지 않도록 시도 전 세대를 기억
+                long seen = signal.current();
+                long ttl = attempt(lockKey, token, leaseMs);
+                if (ttl == ACQUIRED) {
+                    onAcquired(lockKey, token, leaseMs);
+                    return true;
+                }
+
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    cancelWait(lockKey, token);
+                    return false;
+                }
+
+                // 해제 알림이 오거나, 현재 락의 TTL 이 끝날 때까지 대기
+                long waitMs = Math.min(remaining, Math.min(ttl > 0 ? ttl : remaining, WAITER_TIMEOUT_MS / 2));
+                signal.await(seen, Math.max(1, waitMs));
+            }
+        } catch (InterruptedException e) {
+            cancelWait(lockKey, token);
+            throw e;
+        } finally {
+            leaveSignal(lockKey);
+        }
+    }
+
+    // 대기자 수는 ConcurrentHashMap 의 키 단위 잠금(compute) 안에서만 변경
+    private Signal joinSignal(String lockKey) {
+        return signals.compute(lockKey, (key, signal) -> {
+            Signal joined = signal != null ? signal : new Signal();
+            joined.waiters++;
+            return joined;
+        });
+    }
+
+    // 마지막 대기자가 빠지면 키 제거
+    private void leaveSignal(String lockKey) {
+        signals.computeIfPresent(lockKey, (key, signal) -> --signal.waiters == 0 ? null : signal);
+    }
+
+    public void unlock(String lockKey) {
+        Hold hold = holds.get(lockKey);
+        if (hold == null || hold.owner != Thread.currentThread()) {
+            throw new IllegalMonitorStateException("현재 스레드가 잡고 있는 락이 아닙니다: " + lockKey);
+        }
+        if (--hold.count > 0) {
+            return;
+        }
+
+        holds.remove(lockKey);
+        try {
+            Long released = redisScriptRegistry.execute(unlockScript, Collections.singletonList(lockKey),
+                    hold.token, CHANNEL_PREFIX + lockKey);
+            if (released == null || released == 0) {
+                log.warn("이미 만료된 락 해제 시도 - key: {}", lockKey);
+            }
+        } catch (Exception e) {
+            // 해제 실패 시에도 TTL 이 지나면 풀리므로 예외를 전파하지 않음
+            log.error("락 해제 실패: {}", e.getMessage());
+        }
+    }
+
+    // 비동기 락(StockAsyncRedisService)도 같은 대기열을 쓰도록 키 구성을 공개
+    public static List<String> acquireKeys(String lockKey) {
+        return Arrays.asList(lockKey, lockKey + QUEUE_SUFFIX, lockKey + TIMEOUT_SUFFIX);
+    }
+
+    public static List<String> waitKeys(String lockKey) {
+        return Arrays.asList(lockKey + QUEUE_SUFFIX, lockKey + TIMEOUT_SUFFIX);
+    }
+
+    public static String channel(String lockKey) {
+        return CHANNEL_PREFIX + lockKey;
+    }
+
+    public boolean isHeldByCurrentThread(String lockKey) {
+        Hold hold = holds.get(lockKey);
+        return hold != null && hold.owner == Thread.currentThread();
+    }
+
+    private long attempt(String lockKey, String token, long leaseMs) {
+        long now = System.currentTimeMillis();
+        Long result = redisScriptRegistry.execute(acquireScript, acquireKeys(lockKey), token, String.valueOf(leaseMs),
+                String.valueOf(now), String.valueOf(now + WAITER_TIMEOUT_MS));
+        return result != null ? result : 0;
+    }
+
+    private void cancelWait(String lockKey, String token) {
+        try {
+            redisScriptRegistry.execute(cancelWaitScript, waitKeys(lockKey), token, CHANNEL_PREFIX + lockKey);
+        } catch (Exception e) {
+            // 정리하지 못해도 WAITER_TIMEOUT_MS 후 다른 대기자가 제거함
+            log.warn("락 대기 취소 실패 - key: {}, 에러: {}", lockKey, e.getMessage());
+        }
+    }
+
+    private void onAcquired(String lockKey, String token, long leaseMs) {
+        Hold hold = new Hold(token, Thread.currentThread(), leaseMs);
+        holds.put(lockKey, hold);
+        scheduleRenewal(lockKey, hold);
+    }
+
+    // watchdog - 락을 잡고 있는 동안 임대 시간의 1/3 마다 연장
+    private void scheduleRenewal(String lockKey, Hold hold) {
+        watchdog.schedule(() -> {
+            if (holds.get(lockKey) != hold) {
+                return;
+            }
+            try {
+                Long renewed = redisScriptRegistry.execute(renewScript, Collections.singletonList(lockKey),
+                        hold.token, String.valueOf(hold.leaseMs));
+                if (renewed == null || renewed == 0) {
+                    log.error("락 임대 연장 실패(이미 만료됨) - key: {}", lockKey);
+                    return;
+                }
+            } catch (Exception e) {
+                log.warn("락 임대 연장 중 오류, 다음 주기에 재시도 - key: {}, 에러: {}", lockKey, e.getMessage());
+            }
+            scheduleRenewal(lockKey, hold);
+        }, Math.max(1, hold.leaseMs / 3), TimeUnit.MILLISECONDS);
+    }
+
+    // 해제/취소 알림 수신 시 해당 키의 로컬 대기자 깨우기
+    private class ReleaseListener implements MessageListener {
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+            Signal signal = signals.get(channel.substring(CHANNEL_PREFIX.length()));
+            if (signal != null) {
+                signal.fire();
+            }
+        }
+    }
+
+    private static final class Signal {
+        private long generation;
+        // joinSignal/leaveSignal 에서만 변경
+        private int waiters;
+
+        private synchronized long current() {
+            return generation;
+        }
+
+        private synchronized void await(long seen, long timeoutMs) throws InterruptedException {
+            if (generation == seen) {
+                wait(timeoutMs);
+            }
+        }
+
+        private synchronized void fire() {
+            generation++;
+            notifyAll();
+        }
+    }
+
+    private static final class Hold {
+        private final String token;
+        private final Thread owner;
+        private final long leaseMs;
+        // 소유 스레드만 변경
+        private int count = 1;
+
+        private Hold(String token, Thread owner, long leaseMs) {
+            this.token = token;
+            this.owner = owner;
+            this.leaseMs = leaseMs;
+        }
+    }
+}
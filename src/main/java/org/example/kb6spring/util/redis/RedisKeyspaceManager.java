@@ -0,0 +1,183 @@
+package org.example.kb6spring.util.redis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Redis 키 공간 관리
+ * - 패턴 삭제: KEYS 대신 SCAN 커서로 조금씩 훑고, 모은 키(PIPELINE_BATCH 개)를
+ *   UNLINK_CHUNK 개씩 나눈 UNLINK(비동기 해제) 명령으로 만들어 파이프라인 왕복 한 번에 삭제
+ * - 네임스페이스 버전: 키에 세대 번호를 넣어두고 세대만 올려서 O(1) 로 전체 무효화,
+ *   이전 세대 키는 백그라운드에서 SCAN 으로 정리하고, 정리되지 못해도 VERSIONED_KEY_TTL 이 지나면 사라진다
+ * - 세대 번호는 노드 메모리에 두고 무효화 시 pub/sub 으로 다른 노드에 알리므로 키를 만들 때마다 GET 하지 않는다
+ *   (알림을 놓쳐도 VERSION_CACHE_MS 가 지나면 다시 읽음)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisKeyspaceManager {
+    public static final String VERSION_CHANNEL = "ns:version:changed";
+    // 세대가 들어간 키의 유효 시간 - 쓰는 쪽에서 이 TTL 로 저장
+    public static final Duration VERSIONED_KEY_TTL = Duration.ofHours(1);
+    private static final String VERSION_PREFIX = "ns:version:";
+    // 로컬 세대 번호 유지 시간 (무효화 알림 유실 대비)
+    private static final long VERSION_CACHE_MS = 1000;
+    // SCAN 한 번에 확인할 키 수 (힌트)
+    private static final int SCAN_COUNT = 1000;
+    // 파이프라인 한 번(왕복 한 번)에 삭제할 키 수 / 그 안에서 UNLINK 명령 하나에 담을 키 수
+    private static final int PIPELINE_BATCH = 500;
+    private static final int UNLINK_CHUNK = 100;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    // namespace -> 로컬 세대 번호
+    private final ConcurrentHashMap<String, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    private final ExecutorService cleaner = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "redis-keyspace-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(new VersionListener(), new ChannelTopic(VERSION_CHANNEL));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        cleaner.shutdownNow();
+    }
+
+    // 패턴에 맞는 키 삭제 - Redis 를 오래 막지 않도록 SCAN + 배치 UNLINK, 삭제한 키 수 반환
+    public long deleteByPattern(String pattern) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build();
+        Long deleted = redisTemplate.execute((RedisCallback<Long>) connection -> {
+            long total = 0;
+            List<byte[]> batch = new ArrayList<>(PIPELINE_BATCH);
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() >= PIPELINE_BATCH) {
+                        total += unlink(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                total += unlink(batch);
+            }
+            return total;
+        });
+        long count = deleted != null ? deleted : 0;
+        log.debug("Redis 패턴 삭제 완료 - pattern: {}, 삭제: {}건", pattern, count);
+        return count;
+    }
+
+    // 백그라운드 패턴 삭제
+    public void deleteByPatternAsync(String pattern) {
+        cleaner.execute(() -> {
+            try {
+                deleteByPattern(pattern);
+            } catch (Exception e) {
+                log.warn("Redis 패턴 삭제 실패 - pattern: {}, 에러: {}", pattern, e.getMessage());
+            }
+        });
+    }
+
+    // 네임스페이스 현재 세대 - 로컬 값이 VERSION_CACHE_MS 안이면 Redis 조회 없음
+    public long currentVersion(String namespace) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(namespace);
+        if (cached != null && now - cached.fetchedAt < VERSION_CACHE_MS) {
+            return cached.version;
+        }
+        String version = redisTemplate.opsForValue().get(VERSION_PREFIX + namespace);
+        long current = version != null ? Long.parseLong(version) : 0;
+        versions.put(namespace, new CachedVersion(current, now));
+        return current;
+    }
+
+    // 세대가 들어간 키 - 예: post:v3:10
+    public String versionedKey(String namespace, String key) {
+        return versionedPrefix(namespace, currentVersion(namespace)) + key;
+    }
+
+    // 네임스페이스 전체 무효화 (O(1)) - 이전 세대 키는 백그라운드에서 정리
+    public long invalidateNamespace(String namespace) {
+        Long next = redisTemplate.opsForValue().increment(VERSION_PREFIX + namespace);
+        long version = next != null ? next : 0;
+        versions.put(namespace, new CachedVersion(version, System.currentTimeMillis()));
+        try {
+            redisTemplate.convertAndSend(VERSION_CHANNEL, namespace);
+        } catch (Exception e) {
+            // 다른 노드는 VERSION_CACHE_MS 후 다시 읽음
+            log.warn("Redis 네임스페이스 무효화 전파 실패 - namespace: {}, 에러: {}", namespace, e.getMessage());
+        }
+        deleteByPatternAsync(versionedPrefix(namespace, version - 1) + "*");
+        log.info("Redis 네임스페이스 무효화 - namespace: {}, 세대: {}", namespace, version);
+        return version;
+    }
+
+    private static String versionedPrefix(String namespace, long version) {
+        return namespace + ":v" + version + ":";
+    }
+
+    // 키를 UNLINK_CHUNK 개씩 나눠 UNLINK 를 파이프라인으로 전송 (왕복 한 번)
+    // 파이프라인 안의 명령 오류는 호출 시점이 아니라 결과를 모을 때 드러나므로 여기서 대체 처리하지 않음
+    // (UNLINK 는 Redis 4.0+, 재고 스트림이 이미 5.0+ 을 요구)
+    private long unlink(List<byte[]> keys) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int from = 0; from < keys.size(); from += UNLINK_CHUNK) {
+                List<byte[]> chunk = keys.subList(from, Math.min(from + UNLINK_CHUNK, keys.size()));
+                connection.keyCommands().unlink(chunk.toArray(new byte[0][]));
+            }
+            return null;
+        });
+        long total = 0;
+        for (Object result : results) {
+            if (result instanceof Number) {
+                total += ((Number) result).longValue();
+            }
+        }
+        return total;
+    }
+
+    private static final class CachedVersion {
+        private final long version;
+        private final long fetchedAt;
+
+        private CachedVersion(long version, long fetchedAt) {
+            this.version = version;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    // 다른 노드의 무효화 - 로컬 세대를 버리고 다음 접근 때 다시 읽음
+    private class VersionListener implements MessageListener {
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            versions.remove(new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+    }
+}
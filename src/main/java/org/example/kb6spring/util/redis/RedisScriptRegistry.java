@@ -0,0 +1,183 @@
+package org.example.kb6spring.util.redis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.kb6spring.dto.redis.RedisScriptStatsDto;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DigestUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis Lua 스크립트 저장소
+ * - 스크립트는 이름으로 한 번만 등록하고 SHA1 도 등록 시 한 번만 계산한다
+ * - 기동 시 SCRIPT LOAD 로 미리 올려두고, 호출은 EVALSHA 로 해시만 보낸다
+ * - Redis 재시작/SCRIPT FLUSH 로 NOSCRIPT 가 나면 본문을 EVAL 로 보내 다시 캐시시킨다
+ * - 스크립트별 호출/재전송/실패 수를 센다
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisScriptRegistry {
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final Map<String, Script<?>> scripts = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    // 이름으로 등록 - 같은 이름이 이미 있으면 기존 스크립트 반환
+    @SuppressWarnings("unchecked")
+    public <T> Script<T> register(String name, String source, Class<T> resultType) {
+        Script<T> script = (Script<T>) scripts.computeIfAbsent(name, key -> new Script<>(key, source, resultType));
+        if (!script.source.equals(source)) {
+            throw new IllegalStateException("같은 이름으로 다른 스크립트가 등록되어 있습니다: " + name);
+        }
+        // 기동 이후 등록된 스크립트는 바로 로드
+        if (started.get()) {
+            loadQuietly(script);
+        }
+        return script;
+    }
+
+    // 루트/서블릿 컨텍스트 모두 refresh 이벤트를 받으므로 한 번만 로드
+    @EventListener(ContextRefreshedEvent.class)
+    public void loadAll() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        for (Script<?> script : scripts.values()) {
+            loadQuietly(script);
+        }
+        log.info("Redis 스크립트 로드 완료 - {}개", scripts.size());
+    }
+
+    public <T> T execute(Script<T> script, List<String> keys, Object... args) {
+        script.invocations.increment();
+        byte[][] keysAndArgs = toBytes(keys, args);
+        try {
+            return redisTemplate.execute((RedisCallback<T>) connection -> {
+                try {
+                    return connection.scriptingCommands().evalSha(script.sha1, script.returnType, keys.size(), keysAndArgs);
+                } catch (RuntimeException e) {
+                    if (!isNoScript(e)) {
+                        throw e;
+                    }
+                    // EVAL 이 스크립트를 다시 캐시하므로 다음 호출부터는 EVALSHA 로 처리된다
+                    script.reloads.increment();
+                    return connection.scriptingCommands().eval(script.sourceBytes, script.returnType, keys.size(), keysAndArgs);
+                }
+            });
+        } catch (RuntimeException e) {
+            script.failures.increment();
+            throw e;
+        }
+    }
+
+    public List<RedisScriptStatsDto> stats() {
+        List<RedisScriptStatsDto> result = new ArrayList<>(scripts.size());
+        for (Script<?> script : scripts.values()) {
+            result.add(RedisScriptStatsDto.builder()
+                    .name(script.name)
+                    .sha1(script.sha1)
+                    .invocations(script.invocations.sum())
+                    .reloads(script.reloads.sum())
+                    .failures(script.failures.sum())
+                    .build());
+        }
+        result.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return result;
+    }
+
+    // 예외(원인 포함)가 NOSCRIPT 오류인지 - 드라이버를 직접 쓰는 비동기 경로에서도 사용
+    public static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.contains("NOSCRIPT")) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private void loadQuietly(Script<?> script) {
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.scriptingCommands().scriptLoad(script.sourceBytes));
+        } catch (Exception e) {
+            // 로드에 실패해도 첫 호출에서 NOSCRIPT 처리로 올라간다
+            log.warn("Redis 스크립트 로드 실패 - name: {}, 에러: {}", script.name, e.getMessage());
+        }
+    }
+
+    private static byte[][] toBytes(List<String> keys, Object[] args) {
+        byte[][] result = new byte[keys.size() + args.length][];
+        int i = 0;
+        for (String key : keys) {
+            result[i++] = key.getBytes(StandardCharsets.UTF_8);
+        }
+        for (Object arg : args) {
+            result[i++] = String.valueOf(arg).getBytes(StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    /**
+     * 등록된 스크립트 핸들 - 호출 측은 필드로 들고 있다가 execute 에 넘긴다
+     */
+    public static final class Script<T> {
+        private final String name;
+        private final String source;
+        private final byte[] sourceBytes;
+        private final String sha1;
+        private final ReturnType returnType;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder reloads = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Script(String name, String source, Class<T> resultType) {
+            this.name = name;
+            this.source = source;
+            this.sourceBytes = source.getBytes(StandardCharsets.UTF_8);
+            this.sha1 = DigestUtils.sha1DigestAsHex(source);
+            this.returnType = ReturnType.fromJavaType(resultType);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getSha1() {
+            return sha1;
+        }
+
+        // 드라이버를 직접 쓰는 경로(비동기)에서 카운터 기록용
+        public void recordInvocation() {
+            invocations.increment();
+        }
+
+        public void recordReload() {
+            reloads.increment();
+        }
+
+        public void recordFailure() {
+            failures.increment();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.kb6spring.util.timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 해시드 타이머 휠
+ * 만료 작업이 많아도 등록/취소는 O(1) 이고, 작업 스레드 하나가 tick 마다 슬롯 하나만 확인한다.
+ * 만료 시각 정밀도는 tick 단위이므로 TTL 만료처럼 수십~수백 ms 오차가 괜찮은 용도에 사용한다.
+ * 만료된 작업은 생성 시 넘긴 executor 에서 실행된다 (휠 스레드가 느린 작업에 막히지 않도록).
+ */
+@Slf4j
+public class TimerWheel {
+    private final long tickNanos;
+    private final ArrayDeque<Timeout>[] wheel;
+    private final int mask;
+    private final Executor executor;
+    // 다른 스레드에서 등록한 작업 (휠 스레드가 tick 마다 슬롯으로 옮김)
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean running = true;
+    // 휠 스레드에서만 접근
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(String name, long tickDuration, TimeUnit unit, int wheelSize, Executor executor) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tick 간격과 슬롯 수는 0보다 커야 합니다.");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new ArrayDeque[Math.max(1, size)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.mask = wheel.length - 1;
+        this.executor = executor;
+        this.startTime = System.nanoTime();
+
+        this.worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("이미 종료된 타이머입니다.");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() - startTime + unit.toNanos(Math.max(0, delay)));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    // 종료 - 아직 만료되지 않은 작업은 실행하지 않는다
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        break;
+                    }
+                    continue;
+                }
+            }
+
+            transferPending();
+            expire(wheel[(int) (tick & mask)], deadline);
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long ticks = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            // 이미 지난 작업은 현재 슬롯에서 바로 만료
+            wheel[(int) (Math.max(ticks, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void expire(ArrayDeque<Timeout> slot, long deadline) {
+        Iterator<Timeout> it = slot.iterator();
+        while (it.hasNext()) {
+            Timeout timeout = it.next();
+            if (timeout.cancelled) {
+                it.remove();
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                it.remove();
+                fire(timeout);
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        try {
+            executor.execute(timeout.task);
+        } catch (Exception e) {
+            log.error("타이머 작업 실행 실패: {}", e.getMessage());
+        }
+    }
+
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private volatile boolean cancelled;
+        // 휠 스레드에서만 접근
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        // 만료 전에 취소 (이미 실행된 작업에는 영향 없음)
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
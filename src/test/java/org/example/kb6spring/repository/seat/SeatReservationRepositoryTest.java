@@ -87,4 +87,20 @@ public class SeatReservationRepositoryTest {
         SeatReservationVo afterDelete = reservationRepository.findBySeatId(3L);
         assertNull(afterDelete);
     }
+
+    @Test
+    public void claimNewReturnsZeroWhenRowExists() {
+        List<SeatReservationVo> existing = reservationRepository.findAllReservations();
+        if (existing.isEmpty()) {
+            return;
+        }
+        SeatReservationVo reservation = new SeatReservationVo();
+        reservation.setSeatId(existing.get(0).getSeatId());
+        reservation.setUserId(100L);
+        reservation.setStatus("RESERVED");
+
+        // 이미 행이 있는 좌석은 0 (이미 선점된 좌석)
+        assertEquals(0, reservationRepository.claimNew(reservation));
+        assertEquals(existing.get(0).getUserId(), reservationRepository.findBySeatId(reservation.getSeatId()).getUserId());
+    }
 }
@@ -0,0 +1,121 @@
+package org.example.kb6spring.service.seat;
+
+import org.example.kb6spring.config.RootConfig;
+import org.example.kb6spring.config.TestConfig;
+import org.example.kb6spring.dto.seat.SeatDto;
+import org.example.kb6spring.repository.seat.SeatRepository;
+import org.example.kb6spring.repository.seat.SeatReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { RootConfig.class, TestConfig.class })
+public class PendingReservationExpirerTest {
+    private static final long USER = 900_101L;
+
+    @Autowired
+    private PendingReservationExpirer pendingReservationExpirer;
+
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private SeatMapCache seatMapCache;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private final List<Long> seatIds = new ArrayList<>();
+
+    @BeforeEach
+    public void pickFreeSeats() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (SeatDto seat : seatRepository.findAllSeatsWithReservation()) {
+            if (seat.getReservationId() == null) {
+                seatIds.add(seat.getSeatId());
+                if (seatIds.size() == 2) {
+                    break;
+                }
+            }
+        }
+        assumeTrue(seatIds.size() == 2, "예약 행이 없는 좌석이 부족함");
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        for (Long seatId : seatIds) {
+            jdbcTemplate.update("DELETE FROM reservations WHERE seat_id = ? AND user_id = ?", seatId, USER);
+        }
+        seatMapCache.reload();
+    }
+
+    @Test
+    public void expireReturnsOnlyRowsThisUpdateChanged() {
+        Long pending = seatIds.get(0);
+        Long available = seatIds.get(1);
+        insert(pending, "PENDING", 10);
+        insert(available, "AVAILABLE", 10);
+
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - SeatHoldEngine.HOLD_TTL_MS);
+        List<Long> released = seatReservationRepository.expirePending(Arrays.asList(pending, available), cutoff);
+
+        assertEquals(Arrays.asList(pending), released);
+        assertEquals("AVAILABLE", seatReservationRepository.findBySeatId(pending).getStatus());
+
+        // 이미 처리된 좌석은 다시 바뀌지 않음
+        assertTrue(seatReservationRepository.expirePending(Arrays.asList(pending, available), cutoff).isEmpty());
+    }
+
+    @Test
+    public void expireSkipsRowsThatBecamePendingAfterCutoff() {
+        Long recent = seatIds.get(0);
+        insert(recent, "PENDING", 0);
+
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - SeatHoldEngine.HOLD_TTL_MS);
+        assertTrue(seatReservationRepository.expirePending(Arrays.asList(recent), cutoff).isEmpty());
+        assertEquals("PENDING", seatReservationRepository.findBySeatId(recent).getStatus());
+    }
+
+    @Test
+    public void sweepExpiresOverdueRowsWithoutTimer() throws InterruptedException {
+        // 다른 노드에서 PENDING 이 되어 이 노드에는 타이머가 없는 행
+        Long overdue = seatIds.get(0);
+        insert(overdue, "PENDING", 10);
+
+        assertTrue(pendingReservationExpirer.sweepOverdue() >= 1);
+
+        // 대기열은 flusher 가 처리
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"AVAILABLE".equals(seatReservationRepository.findBySeatId(overdue).getStatus())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals("AVAILABLE", seatReservationRepository.findBySeatId(overdue).getStatus());
+        assertEquals("AVAILABLE", seatMapCache.statusOf(overdue));
+    }
+
+    // minutesAgo 분 전에 상태가 바뀐 예약 행
+    private void insert(Long seatId, String status, int minutesAgo) {
+        jdbcTemplate.update("INSERT INTO reservations (seat_id, user_id, status) VALUES (?, ?, ?)", seatId, USER, status);
+        jdbcTemplate.update("UPDATE reservations SET updated_at = NOW() - INTERVAL ? MINUTE WHERE seat_id = ?", minutesAgo, seatId);
+    }
+}
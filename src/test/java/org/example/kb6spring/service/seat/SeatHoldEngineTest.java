@@ -0,0 +1,151 @@
+package org.example.kb6spring.service.seat;
+
+import org.example.kb6spring.config.RootConfig;
+import org.example.kb6spring.config.TestConfig;
+import org.example.kb6spring.domain.seat.SeatClaimResult;
+import org.example.kb6spring.domain.seat.SeatReservationVo;
+import org.example.kb6spring.dto.seat.SeatDto;
+import org.example.kb6spring.repository.seat.SeatRepository;
+import org.example.kb6spring.repository.seat.SeatReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { RootConfig.class, TestConfig.class })
+public class SeatHoldEngineTest {
+    private static final long USER = 900_001L;
+    private static final long OTHER_USER = 900_002L;
+
+    @Autowired
+    private SeatHoldEngine seatHoldEngine;
+
+    @Autowired
+    private SeatMapCache seatMapCache;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    private Long seatId;
+
+    @BeforeEach
+    public void pickFreeSeat() {
+        // 예약 행도 보류도 없는 좌석
+        seatMapCache.reload();
+        for (SeatDto seat : seatRepository.findAllSeatsWithReservation()) {
+            if (seat.getReservationId() == null && seatMapCache.statusOf(seat.getSeatId()) == null) {
+                seatId = seat.getSeatId();
+                break;
+            }
+        }
+        assumeTrue(seatId != null, "비어 있는 좌석 없음");
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        if (seatId == null) {
+            return;
+        }
+        seatHoldEngine.release(seatId, USER);
+        seatHoldEngine.release(seatId, OTHER_USER);
+        SeatReservationVo reservation = seatReservationRepository.findBySeatId(seatId);
+        if (reservation != null && Long.valueOf(USER).equals(reservation.getUserId())) {
+            seatReservationRepository.deleteReservation(reservation.getReservationId());
+        }
+        seatMapCache.reload();
+    }
+
+    @Test
+    public void holdIsExclusiveAndReleaseClearsHolder() throws InterruptedException {
+        assertEquals(SeatClaimResult.CLAIMED, seatHoldEngine.hold(seatId, USER));
+        assertEquals(SeatClaimResult.RECLAIMED, seatHoldEngine.hold(seatId, USER));
+        assertEquals(SeatClaimResult.UNAVAILABLE, seatHoldEngine.hold(seatId, OTHER_USER));
+        assertEquals(String.valueOf(USER), redisTemplate.opsForValue().get(SeatHoldEngine.HOLD_PREFIX + seatId));
+
+        assertTrue(seatHoldEngine.release(seatId, USER));
+
+        // 해제 이벤트(pub/sub)로 배치도 반영 - 보류한 사용자 정보도 지워짐
+        awaitStatus("AVAILABLE");
+        assertNull(seatMapCache.userOf(seatId));
+        assertEquals(SeatClaimResult.CLAIMED, seatHoldEngine.hold(seatId, OTHER_USER));
+    }
+
+    @Test
+    public void pendingSeatWithoutRedisHoldIsUnavailable() {
+        // DB 에만 PENDING 인 좌석 (Redis 보류 없음)
+        seatMapCache.applyLocal(seatId, "PENDING", OTHER_USER, null);
+
+        assertEquals(SeatClaimResult.UNAVAILABLE, seatHoldEngine.hold(seatId, USER));
+        assertNull(redisTemplate.opsForValue().get(SeatHoldEngine.HOLD_PREFIX + seatId));
+    }
+
+    @Test
+    public void expiredHoldIsReleasedBySweeper() throws InterruptedException {
+        assertEquals(SeatClaimResult.CLAIMED, seatHoldEngine.hold(seatId, USER));
+
+        // 만료 시각을 지난 것으로 당겨 sweeper 가 정리하게 함
+        redisTemplate.opsForZSet().add(SeatHoldEngine.EXPIRY_KEY, seatId.toString(), System.currentTimeMillis() - 10_000);
+
+        awaitStatus("AVAILABLE");
+        assertNull(redisTemplate.opsForValue().get(SeatHoldEngine.HOLD_PREFIX + seatId));
+        assertNull(redisTemplate.opsForZSet().score(SeatHoldEngine.EXPIRY_KEY, seatId.toString()));
+        assertEquals(SeatClaimResult.CLAIMED, seatHoldEngine.hold(seatId, OTHER_USER));
+    }
+
+    @Test
+    public void confirmWritesReservedRowAndRemovesHold() {
+        SeatReservationVo pending = new SeatReservationVo();
+        pending.setSeatId(seatId);
+        pending.setUserId(USER);
+        assertEquals(SeatClaimResult.CLAIMED, seatReservationService.makePending(pending));
+        assertEquals("PENDING", seatMapCache.statusOf(seatId));
+
+        SeatReservationVo confirm = new SeatReservationVo();
+        confirm.setSeatId(seatId);
+        confirm.setUserId(USER);
+        assertEquals(1, seatReservationService.confirmReservation(confirm));
+
+        SeatReservationVo row = seatReservationRepository.findBySeatId(seatId);
+        assertEquals("RESERVED", row.getStatus());
+        assertEquals(Long.valueOf(USER), row.getUserId());
+        assertNull(redisTemplate.opsForValue().get(SeatHoldEngine.HOLD_PREFIX + seatId));
+        assertEquals("RESERVED", seatMapCache.statusOf(seatId));
+        assertEquals(SeatClaimResult.UNAVAILABLE, seatHoldEngine.hold(seatId, OTHER_USER));
+    }
+
+    @Test
+    public void confirmWithoutHoldFails() {
+        SeatReservationVo confirm = new SeatReservationVo();
+        confirm.setSeatId(seatId);
+        confirm.setUserId(USER);
+
+        assertThrows(IllegalStateException.class, () -> seatReservationService.confirmReservation(confirm));
+        assertNull(seatReservationRepository.findBySeatId(seatId));
+    }
+
+    // sweeper 주기(5초) + 여유
+    private void awaitStatus(String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!status.equals(seatMapCache.statusOf(seatId)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(status, seatMapCache.statusOf(seatId));
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.kb6spring.service.seat;
+
+import org.example.kb6spring.config.RootConfig;
+import org.example.kb6spring.config.TestConfig;
+import org.example.kb6spring.controller.seat.SeatController;
+import org.example.kb6spring.dto.seat.SeatDto;
+import org.example.kb6spring.repository.seat.SeatRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { RootConfig.class, TestConfig.class })
+public class SeatMapCacheTest {
+
+    @Autowired
+    private SeatMapCache seatMapCache;
+
+    @Autowired
+    private SeatController seatController;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @AfterEach
+    public void restore() {
+        // 로컬에만 반영한 변경을 DB 상태로 되돌림
+        seatMapCache.reload();
+    }
+
+    @Test
+    public void reloadWithoutChangeKeepsEtag() {
+        SeatMapCache.Snapshot before = seatMapCache.snapshot();
+
+        seatMapCache.reload();
+
+        SeatMapCache.Snapshot after = seatMapCache.snapshot();
+        assertEquals(before.getEtag(), after.getEtag());
+        assertSame(before, after);
+    }
+
+    @Test
+    public void matchingEtagReturnsNotModified() {
+        String etag = seatMapCache.snapshot().getEtag();
+
+        ResponseEntity<byte[]> notModified = seatController.findAllSeatsWithReservation(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(etag, notModified.getHeaders().getETag());
+
+        ResponseEntity<byte[]> ok = seatController.findAllSeatsWithReservation("\"seat-stale\"");
+        assertEquals(HttpStatus.OK, ok.getStatusCode());
+        assertArrayEquals(seatMapCache.snapshot().getBody(), ok.getBody());
+    }
+
+    @Test
+    public void applyChangesEtagAndReloadRestoresIt() {
+        List<SeatDto> seats = seatRepository.findAllSeatsWithReservation();
+        assumeFalse(seats.isEmpty(), "좌석 데이터 없음");
+        SeatDto seat = seats.get(0);
+        String original = seatMapCache.snapshot().getEtag();
+        String changedStatus = "RESERVED".equals(seat.getStatus()) ? "CANCELLED" : "RESERVED";
+
+        // 전파 없이 이 노드에만 반영 (pub/sub 알림이 reload 뒤에 도착해 덮어쓰지 않도록)
+        seatMapCache.applyLocal(seat.getSeatId(), changedStatus, 999_999L, null);
+
+        SeatMapCache.Snapshot changed = seatMapCache.snapshot();
+        assertNotEquals(original, changed.getEtag());
+        assertEquals(changedStatus, seatMapCache.statusOf(seat.getSeatId()));
+        assertEquals(HttpStatus.OK, seatController.findAllSeatsWithReservation(original).getStatusCode());
+
+        // 같은 변경을 다시 받아도 스냅샷 유지
+        seatMapCache.applyLocal(seat.getSeatId(), changedStatus, 999_999L, null);
+        assertSame(changed, seatMapCache.snapshot());
+
+        // DB 내용으로 돌아가면 ETag 도 처음과 같음 (본문 해시)
+        seatMapCache.reload();
+        assertEquals(original, seatMapCache.snapshot().getEtag());
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.kb6spring.service.seat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.kb6spring.dto.seat.SeatUpdateFrameDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeatUpdateBroadcasterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Message<?>> sent = new ArrayList<>();
+
+    private SeatUpdateBroadcaster broadcaster;
+
+    @BeforeEach
+    public void setUp() {
+        // 전송 스레드 없이 flush 를 직접 호출하고, 보낸 메시지는 채널에서 가로챔
+        broadcaster = new SeatUpdateBroadcaster(new SimpMessagingTemplate((message, timeout) -> sent.add(message)));
+    }
+
+    @Test
+    public void coalescesChangesPerSeatInFirstChangedOrder() throws Exception {
+        broadcaster.publish(101L, "PENDING", 7L);
+        broadcaster.publish(102L, "PENDING", 8L);
+        broadcaster.publish(101L, "RESERVED", 7L);
+        broadcaster.publish(102L, "AVAILABLE", null);
+
+        broadcaster.flush();
+
+        assertEquals(1, sent.size());
+        assertEquals(SeatUpdateBroadcaster.TOPIC, SimpMessageHeaderAccessor.getDestination(sent.get(0).getHeaders()));
+        SeatUpdateFrameDto frame = (SeatUpdateFrameDto) sent.get(0).getPayload();
+        assertEquals(1, frame.getSeq());
+        assertEquals(Arrays.asList(
+                Arrays.asList(101L, "RESERVED", 7L),
+                Arrays.asList(102L, "AVAILABLE", null)), frame.getSeats());
+
+        // 클라이언트가 받는 JSON: {epoch, seq, seats: [[seatId, status, userId], ...]}
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(frame));
+        assertEquals(frame.getEpoch(), json.get("epoch").asLong());
+        assertEquals(1, json.get("seq").asLong());
+        assertEquals("[[101,\"RESERVED\",7],[102,\"AVAILABLE\",null]]", json.get("seats").toString());
+    }
+
+    @Test
+    public void seqIncreasesPerFrameAndEmptyWindowSendsNothing() {
+        broadcaster.publish(1L, "PENDING", 1L);
+        broadcaster.flush();
+        broadcaster.flush();
+        broadcaster.publish(2L, "PENDING", 2L);
+        broadcaster.flush();
+
+        assertEquals(2, sent.size());
+        SeatUpdateFrameDto first = (SeatUpdateFrameDto) sent.get(0).getPayload();
+        SeatUpdateFrameDto second = (SeatUpdateFrameDto) sent.get(1).getPayload();
+        assertEquals(1, first.getSeq());
+        assertEquals(2, second.getSeq());
+        assertEquals(first.getEpoch(), second.getEpoch());
+    }
+
+    @Test
+    public void largeWindowIsSplitIntoConsecutiveFrames() {
+        for (long seatId = 1; seatId <= 2500; seatId++) {
+            broadcaster.publish(seatId, "AVAILABLE", null);
+        }
+
+        broadcaster.flush();
+
+        assertEquals(3, sent.size());
+        int total = 0;
+        for (int i = 0; i < sent.size(); i++) {
+            SeatUpdateFrameDto frame = (SeatUpdateFrameDto) sent.get(i).getPayload();
+            assertEquals(i + 1, frame.getSeq());
+            total += frame.getSeats().size();
+        }
+        assertEquals(2500, total);
+        assertEquals(1000, ((SeatUpdateFrameDto) sent.get(0).getPayload()).getSeats().size());
+    }
+}
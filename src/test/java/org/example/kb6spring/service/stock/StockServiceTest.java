@@ -3,9 +3,21 @@ package org.example.kb6spring.service.stock;
 import lombok.extern.slf4j.Slf4j;
 import org.example.kb6spring.config.TestConfig;
 import org.example.kb6spring.domain.stock.Stock;
+import org.example.kb6spring.dto.redis.RedisScriptStatsDto;
+import org.example.kb6spring.dto.stock.StockHoldDto;
+import org.example.kb6spring.dto.stock.StockLatencySnapshotDto;
+import org.example.kb6spring.dto.stock.StockMovementDto;
+import org.example.kb6spring.dto.stock.StockStrategyStatsDto;
+import org.example.kb6spring.exception.stock.StockHoldNotFoundException;
+import org.example.kb6spring.exception.stock.StockOverloadedException;
+import org.example.kb6spring.exception.stock.StockSoldOutException;
+import org.example.kb6spring.repository.stock.StockStrategyAssignmentRepository;
+import org.example.kb6spring.util.redis.RedisKeyspaceManager;
+import org.example.kb6spring.util.redis.RedisScriptRegistry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ContextConfiguration;
@@ -13,10 +25,13 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -35,6 +50,45 @@ class StockServiceTest {
     @Autowired
     private RedisTemplate<String, String> redisTemplate; // Redis 직접 제어용
 
+    @Autowired
+    private StockLocalLedger stockLocalLedger;
+
+    @Autowired
+    private StockStrategyRegistry stockStrategyRegistry;
+
+    @Autowired
+    private StockInstrumentation stockInstrumentation;
+
+    @Autowired
+    private StockAsyncRedisService stockAsyncRedisService;
+
+    @Autowired
+    private RedisKeyspaceManager redisKeyspaceManager;
+
+    @Autowired
+    private RedisScriptRegistry redisScriptRegistry;
+
+    @Autowired
+    private StockCacheWarmer stockCacheWarmer;
+
+    @Autowired
+    private StockMovementLog stockMovementLog;
+
+    @Autowired
+    private StockSnapshotter stockSnapshotter;
+
+    @Autowired
+    private StockAdmissionController stockAdmissionController;
+
+    @Autowired
+    private StockShardManager stockShardManager;
+
+    @Autowired
+    private StockHoldManager stockHoldManager;
+
+    @Autowired
+    private StockStrategyAssignmentRepository stockStrategyAssignmentRepository;
+
     private Stock testStock;
 
     // 쓰레드 수
@@ -1390,6 +1444,637 @@ class StockServiceTest {
 //                "Redis 직접 관리가 비관적 락보다 현저히 느리면 안됨");
 //    }
 
+    @Test
+    @Order(19)
+    @DisplayName("19. 로컬 원장 테스트 - 100개 쓰레드, 재고보다 많은 요청")
+    void testLocalLedgerConcurrency() throws InterruptedException {
+        // Given
+        int threadCount = 100;
+        int requestsPerThread = 20;
+        Stock ledgerStock = stockService.createStock("Local Ledger Product", 1000);
+
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger failureCount = new AtomicInteger(0);
+
+        // When - 총 2000건 요청 (재고 1000)
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < requestsPerThread; j++) {
+                        if (stockService.decreaseStockWithLocalLedger(ledgerStock.getId(), 1)) {
+                            successCount.incrementAndGet();
+                        } else {
+                            failureCount.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        executor.shutdown();
+        stockLocalLedger.flush();
+
+        // Then - 초과 판매 없이 정확히 재고만큼만 성공하고 DB 에 반영됨
+        Stock finalStock = stockService.getStock(ledgerStock.getId());
+        log.info("로컬 원장 - 성공: {}, 실패: {}, 최종 재고: {}",
+                successCount.get(), failureCount.get(), finalStock.getQuantity());
+
+        assertEquals(1000, successCount.get());
+        assertEquals(threadCount * requestsPerThread - 1000, failureCount.get());
+        assertEquals(0, finalStock.getQuantity().intValue());
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("20. 요청 병합 원자적 감소 테스트 - 100개 쓰레드, 재고 부족 시 부분 성공")
+    void testCoalescedAtomicDecrease() throws InterruptedException {
+        // Given
+        int threadCount = 100;
+        int initialStock = 50;
+        Stock coalescedStock = stockService.createStock("Coalesced Product", initialStock);
+
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger failureCount = new AtomicInteger(0);
+
+        // When
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                try {
+                    if (stockService.decreaseStockWithCoalescing(coalescedStock.getId(), 1)) {
+                        successCount.incrementAndGet();
+                    } else {
+                        failureCount.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failureCount.incrementAndGet();
+                    log.error("병합 감소 실패: {}", e.getMessage());
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        executor.shutdown();
+
+        // Then - 각 요청은 개별 결과를 받고, 재고만큼만 성공
+        Stock finalStock = stockService.getStock(coalescedStock.getId());
+        log.info("요청 병합 - 성공: {}, 실패: {}, 최종 재고: {}",
+                successCount.get(), failureCount.get(), finalStock.getQuantity());
+
+        assertEquals(initialStock, successCount.get());
+        assertEquals(threadCount - initialStock, failureCount.get());
+        assertEquals(0, finalStock.getQuantity().intValue());
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("21. 재고별 전략 지정 테스트 - 전략 변경 및 전략별 통계 집계")
+    void testStrategyAssignment() throws InterruptedException {
+        // Given
+        Stock strategyStock = stockService.createStock("Strategy Product", INITIAL_QUANTITY);
+        stockStrategyRegistry.resetStats();
+        stockStrategyRegistry.assign(strategyStock.getId(), "pessimistic");
+        assertEquals("pessimistic", stockStrategyAssignmentRepository.findById(strategyStock.getId()).get().getStrategy());
+
+        CountDownLatch latch = new CountDownLatch(THREAD_COUNT);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+
+        // When
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            executor.submit(() -> {
+                try {
+                    stockService.decreaseStock(strategyStock.getId(), DECREASE_QUANTITY);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        executor.shutdown();
+
+        // 실행 중 전략 교체
+        stockStrategyRegistry.assign(strategyStock.getId(), "atomic");
+        stockService.decreaseStock(strategyStock.getId(), DECREASE_QUANTITY);
+        stockStrategyRegistry.unassign(strategyStock.getId());
+        assertFalse(stockStrategyAssignmentRepository.existsById(strategyStock.getId()));
+
+        // Then
+        Stock finalStock = stockService.getStock(strategyStock.getId());
+        assertEquals(INITIAL_QUANTITY - THREAD_COUNT - 1, finalStock.getQuantity().intValue());
+
+        Map<String, StockStrategyStatsDto> stats = new HashMap<>();
+        for (StockStrategyStatsDto stat : stockStrategyRegistry.getStats()) {
+            stats.put(stat.getStrategy(), stat);
+        }
+        assertEquals(THREAD_COUNT, stats.get("pessimistic").getSuccess());
+        assertEquals(1, stats.get("atomic").getSuccess());
+        assertThrows(IllegalArgumentException.class, () -> stockStrategyRegistry.assign(strategyStock.getId(), "unknown"));
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("22. 품절 캐시 테스트 - 품절 후 즉시 거절, 재고 초기화 시 해제")
+    void testSoldOutShortCircuit() {
+        // Given
+        Stock soldOutStock = stockService.createStock("Sold Out Product", 1);
+        stockService.decreaseStockWithPessimisticWriteLock(soldOutStock.getId(), 1);
+
+        // When & Then - 품절 이후 요청은 DB 조회 없이 거절
+        assertThrows(StockSoldOutException.class,
+                () -> stockService.decreaseStockWithPessimisticWriteLock(soldOutStock.getId(), 1));
+        assertFalse(stockService.decreaseStockAtomic(soldOutStock.getId(), 1));
+
+        // 재고 초기화 후 다시 감소 가능
+        stockService.resetStock(soldOutStock.getId(), 1);
+        assertTrue(stockService.decreaseStockAtomic(soldOutStock.getId(), 1));
+
+        Stock finalStock = stockService.getStock(soldOutStock.getId());
+        assertEquals(0, finalStock.getQuantity().intValue());
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("23. 구간별 지연시간 계측 테스트 - 전략 이름으로 락 대기/재시도 기록")
+    void testLatencyInstrumentation() {
+        // Given
+        Stock instrumentedStock = stockService.createStock("Instrumented Product", INITIAL_QUANTITY);
+        stockInstrumentation.reset();
+
+        // When
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            stockStrategyRegistry.get("pessimistic").decrease(instrumentedStock.getId(), DECREASE_QUANTITY);
+            stockStrategyRegistry.get("optimistic_retry").decrease(instrumentedStock.getId(), DECREASE_QUANTITY);
+        }
+
+        // Then
+        Map<String, StockLatencySnapshotDto> snapshots = new HashMap<>();
+        for (StockLatencySnapshotDto snapshot : stockInstrumentation.intervalSnapshot()) {
+            snapshots.put(snapshot.getStrategy() + "/" + snapshot.getPhase(), snapshot);
+        }
+        assertEquals(THREAD_COUNT, snapshots.get("pessimistic/lock_wait").getCount());
+        assertEquals(THREAD_COUNT, snapshots.get("optimistic_retry/transaction").getCount());
+        assertEquals(0, snapshots.get("optimistic_retry/retries").getMax());
+
+        // 구간 조회 후에는 새 구간이 시작됨
+        assertTrue(stockInstrumentation.intervalSnapshot().isEmpty());
+        assertEquals(THREAD_COUNT, findSnapshot(stockInstrumentation.snapshot(), "pessimistic", "lock_wait").getCount());
+    }
+
+    private StockLatencySnapshotDto findSnapshot(List<StockLatencySnapshotDto> snapshots, String strategy, String phase) {
+        for (StockLatencySnapshotDto snapshot : snapshots) {
+            if (snapshot.getStrategy().equals(strategy) && snapshot.getPhase().equals(phase)) {
+                return snapshot;
+            }
+        }
+        throw new AssertionError(strategy + "/" + phase + " 기록 없음");
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("24. 재고 선점 테스트 - 확정분만 DB 반영, 해제/만료 시 Redis 재고 복원")
+    void testStockReservation() throws InterruptedException {
+        // Given
+        Long stockId = testStock.getId();
+
+        // When
+        StockHoldDto committed = stockService.reserveStock(stockId, 10, 60_000);
+        StockHoldDto released = stockService.reserveStock(stockId, 5, 60_000);
+        stockService.reserveStock(stockId, 3, 200);
+        assertEquals(INITIAL_QUANTITY - 18, stockService.getStockFromRedis(stockId).intValue());
+
+        stockService.commitReservation(committed.getHoldId());
+        assertTrue(stockService.releaseReservation(released.getHoldId()));
+        Thread.sleep(1000); // 200ms 선점 만료 대기
+
+        // Then
+        assertEquals(INITIAL_QUANTITY - 10, stockService.getStockFromRedis(stockId).intValue());
+        assertEquals(INITIAL_QUANTITY - 10, stockService.getStock(stockId).getQuantity().intValue());
+        assertFalse(stockService.releaseReservation(released.getHoldId()));
+        assertThrows(StockHoldNotFoundException.class, () -> stockService.commitReservation(committed.getHoldId()));
+    }
+
+    @Test
+    @Order(25)
+    @DisplayName("25. 장바구니 일괄 감소 테스트 - 하나라도 부족하면 전체 실패")
+    void testMultiStockDecrease() {
+        // Given
+        Stock first = stockService.createStock("Cart Product A", 10);
+        Stock second = stockService.createStock("Cart Product B", 1);
+        Map<Long, Integer> cart = new HashMap<>();
+        cart.put(second.getId(), 1);
+        cart.put(first.getId(), 3);
+
+        // When
+        stockService.decreaseStocks(cart);
+        assertThrows(IllegalArgumentException.class, () -> stockService.decreaseStocks(cart));
+
+        // Then - 두 번째 주문은 B 부족으로 A 도 감소하지 않음
+        assertEquals(7, stockService.getStock(first.getId()).getQuantity().intValue());
+        assertEquals(0, stockService.getStock(second.getId()).getQuantity().intValue());
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("26. 비동기 Redis 경로 테스트 - 스레드풀 없이 동시 요청 처리")
+    void testAsyncRedisPaths() {
+        // Given
+        Long stockId = testStock.getId();
+        List<CompletableFuture<?>> directFutures = new ArrayList<>();
+        List<CompletableFuture<?>> lockFutures = new ArrayList<>();
+
+        // When - 요청 스레드 하나에서 전부 발행 (두 경로는 DB 갱신 방식이 달라 순서대로 실행)
+        for (int i = 0; i < INITIAL_QUANTITY / 2; i++) {
+            directFutures.add(stockAsyncRedisService.decreaseStockWithRedisDirectAsync(stockId, DECREASE_QUANTITY));
+        }
+        CompletableFuture.allOf(directFutures.toArray(new CompletableFuture[0])).join();
+
+        for (int i = 0; i < INITIAL_QUANTITY / 2; i++) {
+            lockFutures.add(stockAsyncRedisService.decreaseStockWithRedisLockAsync(stockId, DECREASE_QUANTITY, 30_000));
+        }
+        CompletableFuture.allOf(lockFutures.toArray(new CompletableFuture[0])).join();
+
+        // Then
+        assertEquals(0, stockService.getStock(stockId).getQuantity().intValue());
+        assertEquals(INITIAL_QUANTITY / 2, stockService.getStockFromRedis(stockId).intValue());
+    }
+
+    @Test
+    @Order(27)
+    @DisplayName("27. 키 공간 관리 테스트 - SCAN 배치 삭제와 네임스페이스 세대 무효화")
+    void testRedisKeyspaceManager() throws InterruptedException {
+        // Given - 배치 크기보다 많은 키
+        for (int i = 0; i < 1200; i++) {
+            redisTemplate.opsForValue().set("keyspace:test:" + i, "1");
+        }
+        String before = redisKeyspaceManager.versionedKey("keyspace:ns", "a");
+        redisTemplate.opsForValue().set(before, "1");
+
+        // When
+        long deleted = redisKeyspaceManager.deleteByPattern("keyspace:test:*");
+        redisKeyspaceManager.invalidateNamespace("keyspace:ns");
+        String after = redisKeyspaceManager.versionedKey("keyspace:ns", "a");
+
+        // Then - 새 세대 키는 비어 있고, 이전 세대 키는 접근되지 않는다
+        assertEquals(1200, deleted);
+        assertNotEquals(before, after);
+        assertNull(redisTemplate.opsForValue().get(after));
+
+        // 다른 노드의 무효화 - 세대를 올리고 알림만 받아도 새 세대 키를 사용
+        redisTemplate.opsForValue().increment("ns:version:keyspace:ns");
+        redisTemplate.convertAndSend(RedisKeyspaceManager.VERSION_CHANNEL, "keyspace:ns");
+        long deadline = System.currentTimeMillis() + 2000;
+        while (after.equals(redisKeyspaceManager.versionedKey("keyspace:ns", "a"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotEquals(after, redisKeyspaceManager.versionedKey("keyspace:ns", "a"));
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("28. 스크립트 저장소 테스트 - EVALSHA 호출과 NOSCRIPT 재전송")
+    void testRedisScriptRegistry() {
+        // Given
+        RedisScriptRegistry.Script<Long> script =
+                redisScriptRegistry.register("test:echo", "return tonumber(ARGV[1])", Long.class);
+        assertEquals(1L, redisScriptRegistry.execute(script, Collections.emptyList(), 1).longValue());
+
+        // When - Redis 스크립트 캐시를 비운 뒤 다시 호출
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+        Long result = redisScriptRegistry.execute(script, Collections.emptyList(), 2);
+
+        // Then
+        assertEquals(2L, result.longValue());
+        RedisScriptStatsDto stats = redisScriptRegistry.stats().stream()
+                .filter(s -> s.getName().equals("test:echo"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertEquals(2, stats.getInvocations());
+        assertEquals(1, stats.getReloads());
+        assertEquals(0, stats.getFailures());
+    }
+
+    @Test
+    @Order(29)
+    @DisplayName("29. 재고 캐시 예열 테스트 - DB 재고를 Redis 에 일괄 적재")
+    void testStockCacheWarmUp() throws InterruptedException {
+        // Given - 기동 시 적재가 끝난 뒤 Redis 캐시를 비움
+        while (!stockCacheWarmer.isReady()) {
+            Thread.sleep(10);
+        }
+        stockService.clearRedisStockCache();
+
+        // When
+        long loaded = stockCacheWarmer.warmUp();
+
+        // Then - 테스트 재고가 미스 없이 조회되고, 다시 적재해도 기존 값은 유지
+        assertTrue(loaded >= 1);
+        assertEquals(INITIAL_QUANTITY, stockService.getStockFromRedis(testStock.getId()).intValue());
+        redisTemplate.opsForValue().decrement("stock:quantity:" + testStock.getId());
+        stockCacheWarmer.warmUp();
+        assertEquals(INITIAL_QUANTITY - 1, stockService.getStockFromRedis(testStock.getId()).intValue());
+        assertEquals("DONE", stockCacheWarmer.status().getState());
+    }
+
+    @Test
+    @Order(30)
+    @DisplayName("30. 재고 변동 기록 테스트 - 재고 변경과 함께 커밋된 기록으로 수량 재구성")
+    void testStockMovementLogAndSnapshot() {
+        // Given
+        Long stockId = testStock.getId();
+        stockService.decreaseStockWithPessimisticWriteLock(stockId, 2);
+
+        // When - 스냅샷 이후에 한 번 더 감소, 재고 부족으로 거절된 감소는 기록되지 않음
+        stockSnapshotter.takeSnapshots();
+        stockService.decreaseStockAtomic(stockId, 3);
+        assertThrows(IllegalArgumentException.class,
+                () -> stockService.decreaseStockWithPessimisticWriteLock(stockId, INITIAL_QUANTITY));
+
+        // Then - 커밋 순서대로 id 가 붙고, 호출이 끝나면 이미 기록이 남아 있음 (최신순)
+        List<StockMovementDto> movements = stockMovementLog.recent(stockId, 10);
+        assertEquals(3, movements.size());
+        assertEquals(-3, movements.get(0).getDelta().intValue());
+        assertEquals(-2, movements.get(1).getDelta().intValue());
+        assertEquals("SET", movements.get(2).getType());
+        assertTrue(movements.get(0).getId() > movements.get(1).getId());
+        assertTrue(movements.get(1).getId() > movements.get(2).getId());
+
+        assertEquals(INITIAL_QUANTITY - 5, stockSnapshotter.quantityAt(stockId, LocalDateTime.now()).intValue());
+        assertEquals(stockService.getStock(stockId).getQuantity(),
+                stockSnapshotter.quantityAt(stockId, LocalDateTime.now()));
+    }
+
+    @Test
+    @Order(31)
+    @DisplayName("31. 분할 카운터 테스트 - 분할 전환 후 지정 전략 경로 감소 및 합계 조회")
+    void testShardedStock() throws InterruptedException {
+        // Given
+        Long stockId = stockService.createStock("Sharded Product", INITIAL_QUANTITY).getId();
+        assertTrue(stockService.promoteToShards(stockId, 4));
+        assertFalse(stockService.promoteToShards(stockId, 4));
+
+        CountDownLatch latch = new CountDownLatch(THREAD_COUNT);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+
+        // When - 분할된 재고는 지정 전략과 관계없이 분할 카운터로 처리
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            executor.submit(() -> {
+                try {
+                    stockService.decreaseStock(stockId, DECREASE_QUANTITY);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executor.shutdown();
+
+        // 분할 하나(25개)로는 부족한 수량 - 여러 분할에서 나눠 차감
+        stockService.decreaseStock(stockId, 30);
+
+        // Then - 재고 행은 동기화 후 분할 합계와 같아짐
+        int expected = INITIAL_QUANTITY - THREAD_COUNT - 30;
+        assertEquals(expected, stockService.getAvailableQuantity(stockId));
+        assertTrue(stockService.getStock(stockId).getQuantity() >= expected);
+        stockShardManager.syncRowQuantities();
+        assertEquals(expected, stockService.getStock(stockId).getQuantity().intValue());
+        assertThrows(IllegalArgumentException.class,
+                () -> stockService.decreaseStock(stockId, INITIAL_QUANTITY));
+    }
+
+    @Test
+    @Order(32)
+    @DisplayName("32. 수락 제어 테스트 - 동시 처리 한도를 넘는 요청은 대기 없이 거절")
+    void testAdmissionControl() throws InterruptedException {
+        // Given - 한도(초기 20)만큼 요청을 처리 중 상태로 붙잡아 둠
+        int limit = 20;
+        CountDownLatch entered = new CountDownLatch(limit);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(limit);
+        for (int i = 0; i < limit; i++) {
+            executor.submit(() -> stockAdmissionController.run("admission_test", () -> {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // When & Then - 한도 초과 요청은 즉시 거절, 다른 전략은 영향 없음
+        long start = System.currentTimeMillis();
+        assertThrows(StockOverloadedException.class,
+                () -> stockAdmissionController.run("admission_test", () -> { }));
+        assertTrue(System.currentTimeMillis() - start < 100);
+        stockAdmissionController.run("admission_test_other", () -> { });
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        stockAdmissionController.run("admission_test", () -> { });
+    }
+
+    @Test
+    @Order(33)
+    @DisplayName("33. 메일박스 테스트 - 재고별 단일 스레드 처리 후 DB 반영")
+    void testMailbox() throws InterruptedException {
+        // Given
+        Long stockId = testStock.getId();
+        CountDownLatch latch = new CountDownLatch(THREAD_COUNT);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+
+        // When
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            executor.submit(() -> {
+                try {
+                    stockService.decreaseStockWithMailbox(stockId, DECREASE_QUANTITY);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executor.shutdown();
+
+        // Then - 호출이 끝나면 이미 DB 에 반영된 상태
+        assertEquals(INITIAL_QUANTITY - THREAD_COUNT, stockService.getStock(stockId).getQuantity().intValue());
+        assertThrows(IllegalArgumentException.class,
+                () -> stockService.decreaseStockWithMailbox(stockId, INITIAL_QUANTITY));
+
+        // 다른 전략이 같은 행을 줄여도 메일박스 저장이 덮어쓰지 않음 (상대 감소)
+        assertTrue(stockService.decreaseStockAtomic(stockId, 10));
+        stockService.decreaseStockWithMailbox(stockId, DECREASE_QUANTITY);
+        int left = INITIAL_QUANTITY - THREAD_COUNT - 10 - DECREASE_QUANTITY;
+        assertEquals(left, stockService.getStock(stockId).getQuantity().intValue());
+
+        // DB 수량이 메모리 수량보다 적으면 다시 읽어서 재고 부족으로 처리
+        assertTrue(stockService.decreaseStockAtomic(stockId, left - 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> stockService.decreaseStockWithMailbox(stockId, 5));
+        assertEquals(1, stockService.getStock(stockId).getQuantity().intValue());
+
+        // 재고 초기화 후에는 메모리 수량을 버리고 DB 에서 다시 읽음
+        stockService.resetStock(stockId, 5);
+        stockService.decreaseStockWithMailbox(stockId, 5);
+        assertEquals(0, stockService.getStock(stockId).getQuantity().intValue());
+    }
+
+    @Test
+    @Order(34)
+    @DisplayName("34. 로컬 원장 제거 테스트 - 미반영 판매량은 DB 에 반영되고 다시 적재해도 초과 판매 없음")
+    void testLocalLedgerEvict() {
+        // Given
+        Long stockId = testStock.getId();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(stockService.decreaseStockWithLocalLedger(stockId, DECREASE_QUANTITY));
+        }
+
+        // When - DB 반영 전에 원장 항목 제거
+        stockLocalLedger.evict(stockId);
+
+        // Then - 다시 적재할 때 미반영 판매량을 빼므로 남은 수량까지만 판매
+        assertTrue(stockService.decreaseStockWithLocalLedger(stockId, INITIAL_QUANTITY - 10));
+        assertFalse(stockService.decreaseStockWithLocalLedger(stockId, DECREASE_QUANTITY));
+        stockLocalLedger.flush();
+        assertEquals(0, stockService.getStock(stockId).getQuantity().intValue());
+    }
+
+    @Test
+    @Order(35)
+    @DisplayName("35. 선점 중 재적재 테스트 - Redis 재고를 다시 적재해도 선점분은 빠진 상태로 유지")
+    void testReloadWhileHeld() throws InterruptedException {
+        // Given
+        Long stockId = testStock.getId();
+        while (!stockCacheWarmer.isReady()) {
+            Thread.sleep(10);
+        }
+        StockHoldDto committed = stockService.reserveStock(stockId, 10, 60_000);
+        StockHoldDto released = stockService.reserveStock(stockId, 5, 60_000);
+        assertEquals(15, stockHoldManager.heldQuantity(stockId));
+
+        // When - 선점이 남은 채로 Redis 캐시가 비워지고 예열/지연 적재로 다시 채워짐
+        stockService.clearRedisStockCache();
+        stockCacheWarmer.warmUp();
+
+        // Then - 예열 값에서 선점분이 빠지고, 확정/해제 후에도 DB 와 일치
+        assertEquals(INITIAL_QUANTITY - 15, stockService.getStockFromRedis(stockId).intValue());
+        stockService.clearRedisStockCache();
+        StockHoldDto lazy = stockService.reserveStock(stockId, 1, 60_000);
+        assertEquals(INITIAL_QUANTITY - 16, stockService.getStockFromRedis(stockId).intValue());
+
+        stockService.commitReservation(committed.getHoldId());
+        assertTrue(stockService.releaseReservation(released.getHoldId()));
+        assertTrue(stockService.releaseReservation(lazy.getHoldId()));
+        assertEquals(0, stockHoldManager.heldQuantity(stockId));
+        assertEquals(INITIAL_QUANTITY - 10, stockService.getStockFromRedis(stockId).intValue());
+        assertEquals(INITIAL_QUANTITY - 10, stockService.getStock(stockId).getQuantity().intValue());
+    }
+
+    @Test
+    @Order(36)
+    @DisplayName("36. 분할 재고 직접 감소 테스트 - 장바구니/확정 반영 차감이 재고 행 동기화 후에도 유지")
+    void testShardedStockDirectPaths() {
+        // Given
+        Long stockId = stockService.createStock("Sharded Cart Product", INITIAL_QUANTITY).getId();
+        Stock other = stockService.createStock("Cart Product C", 10);
+        assertTrue(stockService.promoteToShards(stockId, 4));
+        Map<Long, Integer> cart = new HashMap<>();
+        cart.put(stockId, 30);
+        cart.put(other.getId(), 2);
+
+        // When - 분할된 재고에 장바구니 주문과 Redis 확정 반영(상대 감소)
+        stockService.decreaseStocks(cart);
+        stockService.decreaseStockInDatabaseByAmount(stockId, 5);
+        assertTrue(stockService.decreaseStockAtomic(stockId, 5));
+        stockShardManager.syncRowQuantities();
+
+        // Then - 재고 행을 분할 합계로 덮어써도 차감분이 남음
+        int expected = INITIAL_QUANTITY - 40;
+        assertEquals(expected, stockService.getAvailableQuantity(stockId));
+        assertEquals(expected, stockService.getStock(stockId).getQuantity().intValue());
+        assertEquals(8, stockService.getStock(other.getId()).getQuantity().intValue());
+    }
+
+    @Test
+    @Order(37)
+    @DisplayName("37. 메일박스 재고 보충 테스트 - 메일박스 밖에서 보충된 재고는 부족 판단 전에 다시 읽음")
+    void testMailboxRestockOutside() {
+        // Given - 메일박스 메모리 수량을 0 으로 만듦
+        Long stockId = stockService.createStock("Mailbox Restock Product", 2).getId();
+        stockService.decreaseStockWithMailbox(stockId, 2);
+
+        // When - 메일박스를 거치지 않고 DB 재고 보충 (다른 노드의 보충과 같음)
+        stockService.updateStockInDatabase(stockId, 5);
+        stockService.decreaseStockWithMailbox(stockId, 3);
+
+        // Then
+        assertEquals(2, stockService.getStock(stockId).getQuantity().intValue());
+        assertThrows(IllegalArgumentException.class, () -> stockService.decreaseStockWithMailbox(stockId, 3));
+    }
+
+    @Test
+    @Order(38)
+    @DisplayName("38. 스트림 모드 테스트 - 동시 감소 후 컨슈머가 DB 반영, 재전달된 이벤트는 한 번만 반영")
+    void testRedisStreamReconciliation() throws InterruptedException {
+        // Given
+        Long stockId = testStock.getId();
+        CountDownLatch latch = new CountDownLatch(THREAD_COUNT);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+
+        // When - Redis 에서 차감 후 스트림에만 기록 (DB 는 컨슈머가 비동기 반영)
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            executor.submit(() -> {
+                try {
+                    stockService.decreaseStockWithRedisStream(stockId, DECREASE_QUANTITY);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executor.shutdown();
+
+        // Then - 컨슈머 반영 후 DB 와 Redis 가 같음
+        int expected = INITIAL_QUANTITY - THREAD_COUNT;
+        assertEquals(expected, stockService.getStockFromRedis(stockId).intValue());
+        awaitDbQuantity(stockId, expected);
+
+        // 같은 requestId 이벤트가 두 번 전달돼도(ACK 전 재시작 등) 한 번만 반영
+        Map<String, String> event = new HashMap<>();
+        event.put("requestId", UUID.randomUUID().toString());
+        event.put("stockId", stockId.toString());
+        event.put("quantity", "1");
+        redisTemplate.opsForStream().add(StockStreamReconciler.STREAM_KEY, event);
+        redisTemplate.opsForStream().add(StockStreamReconciler.STREAM_KEY, event);
+        awaitDbQuantity(stockId, expected - 1);
+        stockService.applyStockStreamBatch(Collections.singletonList(
+                new StockStreamEvent(event.get("requestId"), stockId, 1)));
+        Thread.sleep(500);
+        assertEquals(expected - 1, stockService.getStock(stockId).getQuantity().intValue());
+    }
+
+    private void awaitDbQuantity(Long stockId, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (stockService.getStock(stockId).getQuantity() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, stockService.getStock(stockId).getQuantity().intValue());
+    }
+
     /**
      * 동시성 테스트 수행 헬퍼 메서드
      */